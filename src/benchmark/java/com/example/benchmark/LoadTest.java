@@ -0,0 +1,213 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.mockserver.EmployeeGenerator;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Measures throughput and tail latency of each {@code /employees} route with the gateway calling the mock upstream
+ * over loopback.
+ * <p>
+ * The application, gateway and mock upstream alike, is booted in-process on a free port, with the upstream URLs
+ * pointing back at that port and the mock seeded with {@code loadtest.employees} generated employees. Each route is
+ * then driven with an open model: requests are started on a fixed schedule of {@code rate} per second, each on its
+ * own virtual thread, whether or not earlier requests have completed. Latency is measured from the time a request
+ * was scheduled to start rather than the time it was sent, so a stalled server is charged for the requests it
+ * delayed (the coordinated-omission correction); the uncorrected service time is recorded alongside for comparison.
+ * Both cover every request, whether it succeeded, was answered with an error status or failed with an I/O error,
+ * so fast failures and timeouts stay in the distribution; the requests that did not answer 200 are counted
+ * separately as errors, and only those that did count towards the achieved rate.
+ * Gateway and mock share one Tomcat thread pool, so a route that fans out to the upstream saturates earlier than it
+ * would against a separate upstream; raise {@code server.tomcat.threads.max} through {@code loadtest.app-args} to
+ * separate the two effects.
+ * <p>
+ * Run with {@code ./gradlew loadTest}; tune with the system properties {@code loadtest.routes} (comma-separated
+ * names of {@link #routes(long)}), {@code loadtest.rates} (requests per second, comma-separated),
+ * {@code loadtest.seconds}, {@code loadtest.warmup-seconds}, {@code loadtest.employees} and
+ * {@code loadtest.app-args} (comma-separated {@code key=value} application properties, for example
+ * {@code mock.faults.jitter-ms=5,employees.cache.enabled=false}). The report is printed and written to
+ * {@code loadtest.output-dir}, as {@code summary.csv} and one HdrHistogram percentile distribution
+ * ({@code .hgrm}) per route and rate.
+ */
+public class LoadTest {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = Duration.ofMinutes(2).toNanos();
+
+    public static void main(String[] args) throws Exception {
+        long employees = Long.getLong("loadtest.employees", 100_000);
+        List<String> routeNames = List.of(System.getProperty("loadtest.routes", "all,page,search,byId,highestSalary,topTen").split(","));
+        int[] rates = Arrays.stream(System.getProperty("loadtest.rates", "100,500,1000").split(","))
+                .mapToInt(rate -> Integer.parseInt(rate.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+        Path outputDir = Paths.get(System.getProperty("loadtest.output-dir", "build/reports/loadtest"));
+        Files.createDirectories(outputDir);
+
+        Map<String, Supplier<String>> routes = routes(employees);
+        List<String> report = new ArrayList<>();
+        report.add("route,rate,achieved,errors,p50_ms,p99_ms,p999_ms,max_ms,service_p99_ms");
+        int port = freePort();
+        ConfigurableApplicationContext app = startApp(port, employees);
+        try (app) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            System.out.printf("%-14s %7s %9s %7s %9s %9s %9s %9s %12s%n",
+                    "route", "rate", "achieved", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms");
+            for (String routeName : routeNames) {
+                Supplier<String> route = routes.get(routeName.trim());
+                if (route == null) {
+                    throw new IllegalArgumentException("Unknown route " + routeName + ", expected one of " + routes.keySet());
+                }
+                for (int rate : rates) {
+                    drive(httpClient, port, route, rate, warmup);
+                    Result result = drive(httpClient, port, route, rate, duration);
+                    String name = routeName.trim() + "-" + rate;
+                    try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(name + ".hgrm")))) {
+                        result.latency.outputPercentileDistribution(out, 1e6);
+                    }
+                    report.add(String.format("%s,%d,%.1f,%d,%.3f,%.3f,%.3f,%.3f,%.3f", routeName.trim(), rate,
+                            result.achieved, result.errors, ms(result.latency, 50), ms(result.latency, 99),
+                            ms(result.latency, 99.9), result.latency.getMaxValue() / 1e6, ms(result.serviceTime, 99)));
+                    System.out.printf("%-14s %7d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %12.2f%n", routeName.trim(), rate,
+                            result.achieved, result.errors, ms(result.latency, 50), ms(result.latency, 99),
+                            ms(result.latency, 99.9), result.latency.getMaxValue() / 1e6, ms(result.serviceTime, 99));
+                }
+            }
+        }
+        Files.write(outputDir.resolve("summary.csv"), report);
+        System.out.println();
+        System.out.println(employees + " employees, " + duration.getSeconds() + " s per run, reports in " + outputDir.toAbsolutePath());
+    }
+
+    /**
+     * The routes that can be driven, by name; each supplier returns the path and query of the next request.
+     */
+    private static Map<String, Supplier<String>> routes(long employees) {
+        Map<String, Supplier<String>> routes = new LinkedHashMap<>();
+        routes.put("all", () -> "/employees");
+        routes.put("page", () -> "/employees?limit=100");
+        routes.put("stream", () -> "/employees?stream=ndjson");
+        routes.put("search", () -> "/employees/search/ana");
+        routes.put("byId", () -> "/employees/" + (EmployeeGenerator.FIRST_ID + ThreadLocalRandom.current().nextLong(Math.max(employees, 1))));
+        routes.put("highestSalary", () -> "/employees/highestSalary");
+        routes.put("topTen", () -> "/employees/topTenHighestEarningEmployeeNames");
+        return routes;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApp(int port, long employees) {
+        String upstream = "http://127.0.0.1:" + port + "/api/v1";
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", port);
+        properties.put("server.tomcat.max-connections", 20000);
+        properties.put("server.tomcat.accept-count", 10000);
+        properties.put("GET_ALL_EMPLOYEES", upstream + "/employees");
+        properties.put("GET_EMPLOYEES_BY_NAME_SEARCH", upstream + "/employees");
+        properties.put("GET_EMPLOYEE_BY_ID", upstream + "/employee");
+        properties.put("CREATE_EMPLOYEE", upstream + "/create");
+        properties.put("DELETE_EMPLOYEE", upstream + "/delete");
+        properties.put("CREATE_EMPLOYEES_BATCH", upstream + "/batch/create");
+        properties.put("DELETE_EMPLOYEES_BATCH", upstream + "/batch/delete");
+        properties.put("mock.generator.count", employees);
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.rqchallenge", "WARN");
+        for (String property : System.getProperty("loadtest.app-args", "").split(",")) {
+            int separator = property.indexOf('=');
+            if (separator > 0) {
+                properties.put(property.substring(0, separator).trim(), property.substring(separator + 1).trim());
+            }
+        }
+        // Passed as command-line arguments so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(RqChallengeApplication.class).run(args);
+    }
+
+    private static Result drive(HttpClient httpClient, int port, Supplier<String> route, int rate, Duration duration) {
+        Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        String base = "http://127.0.0.1:" + port;
+        double intervalNanos = 1e9 / rate;
+        long requests = duration.getSeconds() * rate;
+        long start = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create(base + route.get()))
+                        .timeout(Duration.ofNanos(HIGHEST_TRACKABLE_NANOS))
+                        .build();
+                senders.execute(() -> {
+                    long sent = System.nanoTime();
+                    boolean succeeded = false;
+                    try {
+                        succeeded = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                    } catch (IOException e) {
+                        // Recorded below as an error, with the time it took to fail.
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    long done = System.nanoTime();
+                    latency.recordValue(Math.min(done - intended, HIGHEST_TRACKABLE_NANOS));
+                    serviceTime.recordValue(Math.min(done - sent, HIGHEST_TRACKABLE_NANOS));
+                    if (succeeded) {
+                        completed.increment();
+                    } else {
+                        errors.increment();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        return new Result(completed.sum() / seconds, errors.sum(), latency, serviceTime);
+    }
+
+    private static double ms(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    private record Result(double achieved, long errors, Histogram latency, Histogram serviceTime) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.RqChallengeApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares gateway throughput with Tomcat on its platform-thread pool and on virtual threads.
+ * <p>
+ * The gateway is booted in-process on an ephemeral port with {@code GET_EMPLOYEE_BY_ID} pointing at a stub
+ * upstream that answers after a fixed delay, so every request to {@code /employees/{id}} holds its request
+ * thread for at least that long. Each closed-loop client runs on its own virtual thread and sends its next
+ * request as soon as the previous one completes, each for a random one of {@value #IDS} ids so that concurrent
+ * requests are not coalesced into one upstream call. The upstream bulkhead, slow-call threshold and request
+ * deadline are raised past what the runs reach, so that they measure the thread models rather than those limits. Run with {@code ./gradlew threadModelBenchmark}; tune with the
+ * system properties {@code benchmark.clients} (comma-separated), {@code benchmark.seconds},
+ * {@code benchmark.warmup-seconds} and {@code benchmark.upstream-delay-ms}. The 10k-client runs need an
+ * open-files limit of at least 32k.
+ * <p>
+ * Benchmarks live outside {@code com.example.rqchallenge} because they are compiled for Java 21, which the
+ * application's component scan cannot read.
+ */
+public class ThreadModelBenchmark {
+
+    private static final String EMPLOYEE = "{\"id\":\"%s\",\"employee_name\":\"John\",\"employee_salary\":\"3000\",\"employee_age\":\"25\",\"profile_image\":\"\"}";
+
+    private static final int IDS = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream(System.getProperty("benchmark.clients", "1000,2500,5000,10000").split(","))
+                .mapToInt(count -> Integer.parseInt(count.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+        Duration warmup = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+        long upstreamDelayMs = Long.getLong("benchmark.upstream-delay-ms", 20);
+
+        HttpServer upstream = startUpstream(upstreamDelayMs);
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %12s %12s %8s", "threads", "clients", "req/s", "mean ms", "errors"));
+        try {
+            for (boolean virtual : new boolean[]{false, true}) {
+                try (ConfigurableApplicationContext gateway = startGateway(virtual, upstream.getAddress().getPort())) {
+                    int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+                    for (int clients : clientCounts) {
+                        drive(port, clients, warmup);
+                        Result result = drive(port, clients, duration);
+                        report.add(String.format("%-9s %8d %12.0f %12.2f %8d", virtual ? "virtual" : "platform", clients,
+                                result.throughput(), result.meanLatencyMs(), result.errors()));
+                        System.out.println(report.get(report.size() - 1));
+                    }
+                }
+            }
+        } finally {
+            upstream.stop(0);
+        }
+        System.out.println();
+        System.out.println("Upstream delay " + upstreamDelayMs + " ms, " + duration.getSeconds() + " s per run");
+        report.forEach(System.out::println);
+    }
+
+    private static HttpServer startUpstream(long delayMs) throws IOException {
+        // Otherwise the stub writes headers and body in two segments and Nagle holds the body for the delayed ACK,
+        // and closes keep-alive connections past 200 idle ones, which the gateway's pool then fails to reuse.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "20000");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16384);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v1/employee/", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String path = exchange.getRequestURI().getPath();
+            byte[] body = String.format(EMPLOYEE, path.substring(path.lastIndexOf('/') + 1)).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static ConfigurableApplicationContext startGateway(boolean virtual, int upstreamPort) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.threads.virtual.enabled", virtual);
+        properties.put("server.tomcat.max-connections", 20000);
+        properties.put("server.tomcat.accept-count", 10000);
+        properties.put("upstream.http.max-connections", 20000);
+        properties.put("upstream.http.max-connections-per-route", 20000);
+        properties.put("upstream.http.read-timeout-ms", 60000);
+        properties.put("upstream.http.pool-acquire-timeout-ms", 60000);
+        properties.put("upstream.resilience.max-concurrent-calls", 20000);
+        properties.put("upstream.resilience.slow-call-ms", 60000);
+        properties.put("employees.deadline.default-ms", 60000);
+        properties.put("GET_EMPLOYEE_BY_ID", "http://127.0.0.1:" + upstreamPort + "/api/v1/employee");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.example.rqchallenge", "WARN");
+        // Passed as command-line arguments so they take precedence over application.properties.
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(RqChallengeApplication.class).run(args);
+    }
+
+    private static Result drive(int port, int clients, Duration duration) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String url = "http://127.0.0.1:" + port + "/employees/";
+        LongAdder completed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        LongAdder latencyNanos = new LongAdder();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                clientThreads.execute(() -> {
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(url + (1 + ThreadLocalRandom.current().nextInt(IDS))))
+                                .timeout(Duration.ofSeconds(60))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                completed.increment();
+                                latencyNanos.add(System.nanoTime() - sent);
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (IOException e) {
+                            errors.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long count = completed.sum();
+        return new Result(count / seconds, count == 0 ? 0 : latencyNanos.sum() / 1e6 / count, errors.sum());
+    }
+
+    private record Result(double throughput, double meanLatencyMs, long errors) {
+    }
+}
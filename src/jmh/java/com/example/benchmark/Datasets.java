@@ -0,0 +1,32 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.mockserver.EmployeeGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The data sets the benchmarks run on: the first {@code size} employees generated from a fixed seed, so every run,
+ * and every benchmark within a run, sees the same employees.
+ */
+final class Datasets {
+
+    static final long SEED = 42;
+
+    private Datasets() {
+    }
+
+    static List<EmployeeRecord> records(int size) {
+        return IntStream.range(0, size).parallel()
+                .mapToObj(index -> EmployeeGenerator.employee(SEED, index))
+                .collect(Collectors.toCollection(() -> new ArrayList<>(size)));
+    }
+
+    static List<Employee> employees(int size) {
+        return records(size).stream().map(EmployeeRecord::toEmployee).collect(Collectors.toCollection(() -> new ArrayList<>(size)));
+    }
+}
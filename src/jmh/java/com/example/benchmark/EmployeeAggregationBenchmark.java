@@ -0,0 +1,136 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.index.NameIndex;
+import com.example.rqchallenge.employees.index.RankingField;
+import com.example.rqchallenge.employees.index.SalaryIndex;
+import com.example.rqchallenge.employees.index.TopK;
+import com.example.rqchallenge.employees.stream.EmployeeStream;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The aggregations behind {@code /employees/topTenHighestEarningEmployeeNames}, {@code /employees/highestSalary} and
+ * {@code /employees/search}, each measured the way {@code EmployeeService} serves it today and against the simpler
+ * alternatives it replaced:
+ * <ul>
+ *     <li>{@code *Index}: a query against the indexes of a cached snapshot;</li>
+ *     <li>{@code *Scan}: a pass over the employee list, as on a cache miss without indexes;</li>
+ *     <li>{@code *Sort}: a full sort, as the original implementation did;</li>
+ *     <li>{@code *Streamed}: aggregation while parsing the upstream JSON, as with
+ *     {@code employees.aggregation.streaming=true}.</li>
+ * </ul>
+ * {@link #buildIndexes()} is what a snapshot refresh pays before the index queries become available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EmployeeAggregationBenchmark {
+
+    private static final Comparator<Employee> BY_SALARY_DESCENDING =
+            Comparator.comparing((Employee employee) -> RankingField.parse(employee.getEmployee_salary()),
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int size;
+
+    @Param({"ana"})
+    public String searchString;
+
+    private List<Employee> employees;
+    private SalaryIndex salaryIndex;
+    private NameIndex nameIndex;
+    private byte[] upstreamBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        employees = Datasets.employees(size);
+        salaryIndex = SalaryIndex.build(employees);
+        nameIndex = NameIndex.build(employees);
+        upstreamBody = new ObjectMapper().writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> topTenIndex() {
+        return salaryIndex.top(10);
+    }
+
+    @Benchmark
+    public List<Employee> topTenScan() {
+        return TopK.select(employees, 10, RankingField.SALARY);
+    }
+
+    @Benchmark
+    public List<Employee> topTenSort() {
+        return employees.stream().sorted(BY_SALARY_DESCENDING).limit(10).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Employee> topTenStreamed() throws IOException {
+        return EmployeeStream.top(new ByteArrayInputStream(upstreamBody), 10, RankingField.SALARY);
+    }
+
+    @Benchmark
+    public Integer highestSalaryIndex() {
+        return salaryIndex.highestSalary();
+    }
+
+    @Benchmark
+    public int highestSalaryScan() {
+        int highest = Integer.MIN_VALUE;
+        for (Employee employee : employees) {
+            Integer salary = RankingField.parse(employee.getEmployee_salary());
+            if (salary != null && salary > highest) {
+                highest = salary;
+            }
+        }
+        return highest;
+    }
+
+    @Benchmark
+    public Integer highestSalaryStreamed() throws IOException {
+        return EmployeeStream.highestSalary(new ByteArrayInputStream(upstreamBody));
+    }
+
+    @Benchmark
+    public List<Employee> nameSearchIndex() {
+        return nameIndex.search(searchString, true, true);
+    }
+
+    @Benchmark
+    public List<Employee> nameSearchScan() {
+        String query = searchString.toLowerCase(Locale.ROOT);
+        return employees.stream()
+                .filter(employee -> employee.getEmployee_name() != null
+                        && employee.getEmployee_name().toLowerCase(Locale.ROOT).contains(query))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Employee> nameSearchStreamed() throws IOException {
+        return EmployeeStream.search(new ByteArrayInputStream(upstreamBody), searchString, true, true);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void buildIndexes(Blackhole blackhole) {
+        blackhole.consume(SalaryIndex.build(employees));
+        blackhole.consume(NameIndex.build(employees));
+    }
+}
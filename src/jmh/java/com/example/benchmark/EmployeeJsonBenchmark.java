@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of a full employee list, as the gateway reads it from the upstream and writes it to
+ * clients, for both the {@link Employee} wire DTO and the compact {@link EmployeeRecord}. Readers and writers are
+ * resolved once, as Spring's message converters do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int size;
+
+    private List<Employee> employees;
+    private List<EmployeeRecord> records;
+    private byte[] json;
+
+    private ObjectWriter employeeWriter;
+    private ObjectReader employeeReader;
+    private ObjectWriter recordWriter;
+    private ObjectReader recordReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        employeeWriter = objectMapper.writerFor(new TypeReference<List<Employee>>() {});
+        employeeReader = objectMapper.readerFor(new TypeReference<List<Employee>>() {});
+        recordWriter = objectMapper.writerFor(new TypeReference<List<EmployeeRecord>>() {});
+        recordReader = objectMapper.readerFor(new TypeReference<List<EmployeeRecord>>() {});
+        records = Datasets.records(size);
+        employees = Datasets.employees(size);
+        // Both types share one wire format, so one body serves both readers.
+        json = employeeWriter.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployees() throws IOException {
+        return employeeWriter.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public List<Employee> deserializeEmployees() throws IOException {
+        return employeeReader.readValue(json);
+    }
+
+    @Benchmark
+    public byte[] serializeRecords() throws IOException {
+        return recordWriter.writeValueAsBytes(records);
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> deserializeRecords() throws IOException {
+        return recordReader.readValue(json);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.stream.EmployeeStream;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The upstream employee list in each wire format the gateway can negotiate: JSON, Smile and CBOR, each plain and
+ * gzip-compressed as Tomcat compresses it. The upstream side writes {@link EmployeeRecord}s; the gateway side either
+ * binds the list to {@link Employee}s, as the snapshot cache does, or streams it through {@link EmployeeStream}, as
+ * the aggregations do.
+ * <p>
+ * The CPU cost is the benchmark score. The bytes on the wire of each combination are printed once per trial, e.g.
+ * {@code ./gradlew jmh -PjmhIncludes=EmployeeWireFormat -PjmhSizes=100000,1000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmployeeWireFormatBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private List<EmployeeRecord> records;
+    private MediaType contentType;
+    private byte[] body;
+
+    private ObjectWriter recordWriter;
+    private ObjectReader employeeReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory;
+        switch (format) {
+            case "smile":
+                factory = new SmileFactory();
+                contentType = MediaType.parseMediaType("application/x-jackson-smile");
+                break;
+            case "cbor":
+                factory = new CBORFactory();
+                contentType = MediaType.APPLICATION_CBOR;
+                break;
+            default:
+                factory = new JsonFactory();
+                contentType = MediaType.APPLICATION_JSON;
+        }
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        recordWriter = objectMapper.writerFor(new TypeReference<List<EmployeeRecord>>() {});
+        employeeReader = objectMapper.readerFor(new TypeReference<List<Employee>>() {});
+        records = Datasets.records(size);
+        body = serialize();
+        System.out.printf("%n%d employees as %s%s: %,d bytes on the wire%n", size, format, gzip ? "+gzip" : "", body.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes, 8192) : bytes) {
+            recordWriter.writeValue(out, records);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<Employee> deserialize() throws IOException {
+        try (InputStream in = open()) {
+            return employeeReader.readValue(in);
+        }
+    }
+
+    @Benchmark
+    public Integer streamHighestSalary() throws IOException {
+        try (InputStream in = open()) {
+            return EmployeeStream.highestSalary(in, contentType);
+        }
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return gzip ? new GZIPInputStream(in, 8192) : in;
+    }
+}
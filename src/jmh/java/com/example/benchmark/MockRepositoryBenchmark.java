@@ -0,0 +1,79 @@
+package com.example.benchmark;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.mockserver.EmployeeGenerator;
+import com.example.rqchallenge.mockserver.MockRepository;
+import com.example.rqchallenge.mockserver.dto.EmployeePageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The mock upstream's store under the operations the gateway drives: point reads, creates and deletes, and list
+ * reads both from the published snapshot and right after a change, when the snapshot has to be rebuilt. The
+ * repository's state is static, so each fork is populated once, in memory and without persistence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MockRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000", "5000000"})
+    public int size;
+
+    private final MockRepository mockRepository = new MockRepository();
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        Map<String, EmployeeRecord> employees = Datasets.records(size).stream()
+                .collect(Collectors.toMap(EmployeeRecord::getId, Function.identity()));
+        mockRepository.createEmployees(employees);
+        nextId.set(EmployeeGenerator.FIRST_ID + size);
+    }
+
+    @Benchmark
+    public EmployeeRecord getEmployeeById() {
+        long index = ThreadLocalRandom.current().nextInt(size);
+        return mockRepository.getEmployeeById(Long.toString(EmployeeGenerator.FIRST_ID + index));
+    }
+
+    @Benchmark
+    public String createThenDelete() {
+        String id = Long.toString(nextId.getAndIncrement());
+        EmployeeRecord employee = EmployeeRecord.builder().id(id).employee_name("Benchmark " + id).employee_salary(1000).build();
+        mockRepository.createEmployee(Map.of(id, employee));
+        return mockRepository.deleteEmployeeById(id);
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> getAllEmployees() {
+        return mockRepository.getAllEmployees();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<EmployeeRecord> getAllEmployeesAfterChange() {
+        createThenDelete();
+        return mockRepository.getAllEmployees();
+    }
+
+    @Benchmark
+    public EmployeePageResponse getFirstPage() {
+        return mockRepository.getEmployeesPage(100, null);
+    }
+}
@@ -2,8 +2,6 @@ package com.example.rqchallenge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
 
 @SpringBootApplication
 public class RqChallengeApplication {
@@ -12,9 +10,4 @@ public class RqChallengeApplication {
         SpringApplication.run(RqChallengeApplication.class, args);
     }
 
-    @Bean
-    public RestTemplate getRestTemplate(){
-        return new RestTemplate();
-    }
-
 }
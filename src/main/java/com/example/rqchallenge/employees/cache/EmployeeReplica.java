@@ -0,0 +1,224 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.EmployeeChanges;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps the {@link EmployeeSnapshotCache} in step with the upstream by tailing its change feed, so that staying
+ * fresh costs a read of the changes rather than of the whole list.
+ * <p>
+ * On start, and whenever it loses its place, the replica learns the current upstream version, then reloads the
+ * snapshot, revalidating it when it can. From there it reads the changes after its version every
+ * {@code employees.replica.poll-ms} and applies them to the snapshot, which also renews it, so reads keep being
+ * served from the cache without the TTL ever sending them to the upstream. When the upstream no longer retains the
+ * changes after the replica's version, or has restarted, the replica loads the list again. While the feed cannot be
+ * read the snapshot ages as usual, and the cache falls back to loading the list once it expires.
+ * <p>
+ * {@link #snapshot()} serves the snapshot to reads that would otherwise go to the upstream, such as reads by id,
+ * while the last successful poll is younger than {@code employees.replica.max-lag-ms}.
+ * <p>
+ * With {@code employees.replica.enabled=false} the replica never starts and the cache behaves as before.
+ */
+@Component
+public class EmployeeReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeReplica.class);
+
+    @Value("${employees.replica.enabled:false}")
+    private boolean enabled;
+
+    @Value("${employees.replica.poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${employees.replica.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    private final LongAdder changesApplied = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+
+    private volatile ScheduledExecutorService poller;
+
+    private Function<Long, EmployeeChanges> changes;
+    private Function<String, UpstreamEmployees> loader;
+
+    /**
+     * The upstream epoch and version the snapshot is at, guarded by {@code this}; {@code null} epoch until the
+     * snapshot has been loaded.
+     */
+    private String epoch;
+    private long version;
+
+    private volatile long syncedAtNanos;
+    private volatile boolean failing;
+
+    /**
+     * Starts tailing the upstream, unless the replica is disabled.
+     *
+     * @param changes Reads the changes after a version from the upstream change feed, or only the current version
+     *                when called with {@code null}. Throws {@link CursorExpiredException} when the changes are no
+     *                longer retained.
+     * @param loader  Loads the employee list, as for {@link EmployeeSnapshotCache#getConditionally(Function)}.
+     */
+    public synchronized void start(Function<Long, EmployeeChanges> changes, Function<String, UpstreamEmployees> loader) {
+        if (!enabled || poller != null) {
+            return;
+        }
+        if (!snapshotCache.isEnabled()) {
+            logger.warn("Not replicating the employee list: the employee snapshot cache is disabled");
+            return;
+        }
+        this.changes = changes;
+        this.loader = loader;
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, 0, pollMs, TimeUnit.MILLISECONDS);
+        logger.info("Replicating the employee list every {} ms", pollMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        ScheduledExecutorService running = poller;
+        if (running != null) {
+            running.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads and applies the changes up to now on the calling thread, for writers that want their changes to be
+     * visible to the next read.
+     *
+     * @return Whether the snapshot is in step with the upstream.
+     */
+    public boolean catchUp() {
+        return poller != null && poll();
+    }
+
+    /**
+     * @return The replicated snapshot when the replica is in step with the upstream, or {@code null}.
+     */
+    public EmployeeSnapshot snapshot() {
+        long synced = syncedAtNanos;
+        if (poller == null || synced == 0 || System.nanoTime() - synced >= TimeUnit.MILLISECONDS.toNanos(maxLagMs)) {
+            return null;
+        }
+        return snapshotCache.current();
+    }
+
+    private synchronized boolean poll() {
+        try {
+            for (int attempt = 0; ; attempt++) {
+                if (epoch == null) {
+                    resync();
+                }
+                if (tail()) {
+                    break;
+                }
+                if (attempt > 0) {
+                    throw new IllegalStateException("Lost the change feed again right after reloading the employee list");
+                }
+                epoch = null;
+            }
+            syncedAtNanos = System.nanoTime();
+            if (failing) {
+                failing = false;
+                logger.info("Replicating the employee list again at version {}", version);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            if (!failing) {
+                failing = true;
+                logger.warn("Error replicating the employee list: {}", e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Applies the changes after the replica's version until there are none left.
+     *
+     * @return {@code false} if the replica lost its place and has to load the list again.
+     */
+    private boolean tail() {
+        EmployeeChanges read;
+        do {
+            try {
+                read = changes.apply(version);
+            } catch (CursorExpiredException e) {
+                logger.info("Changes since version {} are no longer retained, reloading the employee list", version);
+                return false;
+            }
+            if (!epoch.equals(read.getEpoch())) {
+                logger.info("Upstream restarted, reloading the employee list");
+                return false;
+            }
+            if (!snapshotCache.applyChanges(read.getChanges())) {
+                logger.info("Employee snapshot was dropped, reloading the employee list");
+                return false;
+            }
+            changesApplied.add(read.getChanges().size());
+            version = read.getVersion();
+        } while (read.isHasMore());
+        return true;
+    }
+
+    /**
+     * Loads the list as of no earlier than the current upstream version, and continues from that version. Changes
+     * after it that the loaded list already has apply harmlessly.
+     */
+    private void resync() {
+        epoch = null;
+        EmployeeChanges head = changes.apply(null);
+        EmployeeSnapshot loaded = snapshotCache.reload(loader);
+        // A read that missed the cache may publish its own load meanwhile; that one may predate the head.
+        for (int attempt = 1; snapshotCache.current() != loaded; attempt++) {
+            if (attempt == 3) {
+                throw new IllegalStateException("Employee snapshot kept changing while it was reloaded");
+            }
+            loaded = snapshotCache.reload(loader);
+        }
+        epoch = head.getEpoch();
+        version = head.getVersion();
+        resyncs.increment();
+        logger.info("Replica loaded {} employees at upstream version {}", loaded.getEmployees().size(), version);
+    }
+
+    /**
+     * @return The number of upstream changes applied to the snapshot.
+     */
+    public long getChangesApplied() {
+        return changesApplied.sum();
+    }
+
+    /**
+     * @return The number of times the list was loaded in full to start or resume replication.
+     */
+    public long getResyncs() {
+        return resyncs.sum();
+    }
+
+    /**
+     * @return Seconds since the replica was last in step with the upstream, or {@code NaN} before it first was.
+     */
+    public double getLagSeconds() {
+        long synced = syncedAtNanos;
+        return synced == 0 ? Double.NaN : (System.nanoTime() - synced) / 1e9;
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.index.NameIndex;
+import com.example.rqchallenge.employees.index.SalaryIndex;
+import com.example.rqchallenge.employees.index.SalarySketch;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, versioned view of the upstream employee list.
+ * <p>
+ * A snapshot is never modified after it has been published by the {@link EmployeeSnapshotCache};
+ * readers can therefore share it freely between threads without copying. Indexes over the list, and the compact
+ * {@link EmployeeRecord}s with the parsed numeric fields, are built the first time they are needed and carried
+ * over, patched, to the snapshots derived on create and delete. A snapshot loaded from the upstream remembers the ETag
+ * it was served with, so that it can be revalidated instead of read again.
+ * <p>
+ * A snapshot kept up to date by the {@link EmployeeReplica} is derived from the previous one for every batch of
+ * upstream changes with {@link #withChanges(long, long, List)}.
+ */
+public final class EmployeeSnapshot {
+
+    /**
+     * Batches of up to this many changes patch the indexes; larger ones leave them to be rebuilt on first use.
+     */
+    static final int MAX_PATCHED_CHANGES = 64;
+
+    private final long version;
+    private final long fetchedAtNanos;
+    private final List<Employee> employees;
+    private final String eTag;
+
+    private volatile SalaryIndex salaryIndex;
+    private volatile SalarySketch salarySketch;
+    private volatile NameIndex nameIndex;
+    private volatile List<EmployeeRecord> records;
+    private volatile Map<String, Employee> byId;
+
+    EmployeeSnapshot(long version, long fetchedAtNanos, List<Employee> employees) {
+        this(version, fetchedAtNanos, employees, null);
+    }
+
+    EmployeeSnapshot(long version, long fetchedAtNanos, List<Employee> employees, String eTag) {
+        this(version, fetchedAtNanos, Collections.unmodifiableList(new ArrayList<>(employees)), eTag, null, null, null, null);
+    }
+
+    private EmployeeSnapshot(long version, long fetchedAtNanos, List<Employee> employees, String eTag,
+                             SalaryIndex salaryIndex, SalarySketch salarySketch, NameIndex nameIndex,
+                             List<EmployeeRecord> records) {
+        this.version = version;
+        this.fetchedAtNanos = fetchedAtNanos;
+        this.employees = employees;
+        this.eTag = eTag;
+        this.salaryIndex = salaryIndex;
+        this.salarySketch = salarySketch;
+        this.nameIndex = nameIndex;
+        this.records = records;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getFetchedAtNanos() {
+        return fetchedAtNanos;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * @return The upstream ETag of the list, or {@code null} when the upstream sent none or the list has been
+     *         changed locally since.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return The salary index of this snapshot, built on first use.
+     */
+    public SalaryIndex getSalaryIndex() {
+        SalaryIndex index = salaryIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = salaryIndex;
+                if (index == null) {
+                    index = SalaryIndex.build(employees);
+                    salaryIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return The salary statistics of this snapshot, built on first use.
+     */
+    public SalarySketch getSalarySketch() {
+        SalarySketch sketch = salarySketch;
+        if (sketch == null) {
+            synchronized (this) {
+                sketch = salarySketch;
+                if (sketch == null) {
+                    sketch = SalarySketch.build(employees);
+                    salarySketch = sketch;
+                }
+            }
+        }
+        return sketch;
+    }
+
+    /**
+     * Summarizes the salaries from the salary statistics and index, which are patched along with the snapshot, so
+     * that the list is not read again.
+     *
+     * @param percentiles The ranks to report, between 0 and 1.
+     * @param bounds      The upper bounds of the histogram buckets, ascending.
+     */
+    public SalaryStats getSalaryStats(List<Double> percentiles, List<Integer> bounds) {
+        SalarySketch sketch = getSalarySketch();
+        SalaryIndex index = getSalaryIndex();
+        Integer min = index.lowestSalary();
+        Integer max = index.highestSalary();
+        Map<String, Integer> quantiles = new LinkedHashMap<>();
+        for (double percentile : percentiles) {
+            Integer quantile = sketch.quantile(percentile);
+            if (quantile != null && min != null) {
+                // The exact extremes can only bring the estimate closer.
+                quantile = Math.max(min, Math.min(max, quantile));
+            }
+            quantiles.put(BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(), quantile);
+        }
+        List<SalaryStats.Bucket> histogram = new ArrayList<>(bounds.size() + 1);
+        long below = 0;
+        for (int bound : bounds) {
+            long atMost = sketch.countAtMost(bound);
+            histogram.add(new SalaryStats.Bucket(bound, atMost - below));
+            below = atMost;
+        }
+        if (!bounds.isEmpty()) {
+            histogram.add(new SalaryStats.Bucket(null, sketch.count() - below));
+        }
+        return SalaryStats.builder()
+                .count(sketch.count())
+                .sum(sketch.sum())
+                .mean(sketch.mean())
+                .min(min)
+                .max(max)
+                .relativeAccuracy(SalarySketch.RELATIVE_ACCURACY)
+                .percentiles(quantiles)
+                .histogram(histogram)
+                .build();
+    }
+
+    /**
+     * @return The trigram name index of this snapshot, built on first use.
+     */
+    public NameIndex getNameIndex() {
+        NameIndex index = nameIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = nameIndex;
+                if (index == null) {
+                    index = NameIndex.build(employees);
+                    nameIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @return The employees as compact records with salary and age parsed once, in the order of
+     *         {@link #getEmployees()}, built on first use.
+     */
+    public List<EmployeeRecord> getRecords() {
+        List<EmployeeRecord> list = records;
+        if (list == null) {
+            synchronized (this) {
+                list = records;
+                if (list == null) {
+                    List<EmployeeRecord> built = new ArrayList<>(employees.size());
+                    for (Employee employee : employees) {
+                        built.add(EmployeeRecord.lenient(employee));
+                    }
+                    list = Collections.unmodifiableList(built);
+                    records = list;
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return The employee with {@code id}, or {@code null}. The lookup map is built on first use.
+     */
+    public Employee findById(String id) {
+        Map<String, Employee> map = byId;
+        if (map == null) {
+            synchronized (this) {
+                map = byId;
+                if (map == null) {
+                    map = new HashMap<>(employees.size() * 4 / 3 + 1);
+                    for (Employee employee : employees) {
+                        map.putIfAbsent(employee.getId(), employee);
+                    }
+                    byId = map;
+                }
+            }
+        }
+        return map.get(id);
+    }
+
+    /**
+     * Derives the snapshot that results from the upstream confirming this one at {@code revalidatedAtNanos}. The
+     * version, list and indexes are kept.
+     */
+    EmployeeSnapshot revalidated(long revalidatedAtNanos) {
+        return new EmployeeSnapshot(version, revalidatedAtNanos, employees, eTag, salaryIndex, salarySketch, nameIndex, records);
+    }
+
+    /**
+     * Derives the snapshot that results from creating {@code employee}. An employee with the same id, such as one
+     * the {@link EmployeeReplica} already applied from the change feed, is replaced in place rather than listed
+     * twice, and keeps its position in the search results and among equal salaries. The fetch time is kept, so the
+     * derived snapshot is still revalidated against the upstream once the original one expires.
+     */
+    EmployeeSnapshot withCreated(long newVersion, Employee employee) {
+        int existing = -1;
+        for (int i = 0; i < employees.size(); i++) {
+            if (Objects.equals(employees.get(i).getId(), employee.getId())) {
+                existing = i;
+                break;
+            }
+        }
+        List<Employee> newEmployees = new ArrayList<>(employees.size() + 1);
+        newEmployees.addAll(employees);
+        SalaryIndex salaries = salaryIndex;
+        SalarySketch sketch = salarySketch;
+        NameIndex names = nameIndex;
+        List<EmployeeRecord> newRecords = records == null ? null : new ArrayList<>(records);
+        if (existing >= 0) {
+            Employee replaced = newEmployees.set(existing, employee);
+            if (newRecords != null) {
+                newRecords.set(existing, EmployeeRecord.lenient(employee));
+            }
+            salaries = salaries == null ? null : replaced(salaries, replaced, employee);
+            sketch = sketch == null ? null : sketch.withRemoved(replaced).withAdded(employee);
+            names = names == null ? null : names.withReplaced(employee);
+        } else {
+            newEmployees.add(employee);
+            if (newRecords != null) {
+                newRecords.add(EmployeeRecord.lenient(employee));
+            }
+            salaries = salaries == null ? null : salaries.withAdded(employee);
+            sketch = sketch == null ? null : sketch.withAdded(employee);
+            names = names == null ? null : names.withAdded(employee);
+        }
+        return new EmployeeSnapshot(newVersion, fetchedAtNanos, Collections.unmodifiableList(newEmployees), null,
+                salaries, sketch, names, newRecords == null ? null : Collections.unmodifiableList(newRecords));
+    }
+
+    /**
+     * Derives the snapshot that results from deleting the employee with the given id.
+     */
+    EmployeeSnapshot withDeleted(long newVersion, String id) {
+        List<EmployeeRecord> oldRecords = records;
+        List<Employee> newEmployees = new ArrayList<>(employees.size());
+        List<EmployeeRecord> newRecords = oldRecords == null ? null : new ArrayList<>(oldRecords.size());
+        List<Employee> removed = new ArrayList<>(1);
+        for (int i = 0; i < employees.size(); i++) {
+            if (!Objects.equals(employees.get(i).getId(), id)) {
+                newEmployees.add(employees.get(i));
+                if (newRecords != null) {
+                    newRecords.add(oldRecords.get(i));
+                }
+            } else {
+                removed.add(employees.get(i));
+            }
+        }
+        SalaryIndex salaries = salaryIndex;
+        SalarySketch sketch = salarySketch;
+        NameIndex names = nameIndex;
+        return new EmployeeSnapshot(newVersion, fetchedAtNanos, Collections.unmodifiableList(newEmployees), null,
+                salaries == null ? null : salaries.withRemoved(id),
+                sketch == null ? null : sketch.patched(removed, List.of()),
+                names == null ? null : names.withRemoved(id),
+                newRecords == null ? null : Collections.unmodifiableList(newRecords));
+    }
+
+    /**
+     * Derives the snapshot that results from applying the upstream {@code changes} in order, fetched at
+     * {@code fetchedAtNanos}. A create replaces the employee with the same id and a delete of an absent id does
+     * nothing, so changes this snapshot already has, such as the gateway's own creates and deletes, apply harmlessly.
+     * A replaced employee keeps its position, as in {@link #withCreated(long, Employee)}. The list is copied once per
+     * batch.
+     */
+    EmployeeSnapshot withChanges(long newVersion, long fetchedAtNanos, List<EmployeeChange> changes) {
+        Map<String, Employee> outcomes = new LinkedHashMap<>();
+        for (EmployeeChange change : changes) {
+            // Only the last change of an id counts; a delete is recorded as null.
+            outcomes.remove(change.getId());
+            outcomes.put(change.getId(), change.getType() == EmployeeChange.Type.CREATE ? change.getEmployee() : null);
+        }
+        List<EmployeeRecord> oldRecords = records;
+        List<Employee> newEmployees = new ArrayList<>(employees.size() + outcomes.size());
+        List<EmployeeRecord> newRecords = oldRecords == null ? null : new ArrayList<>(oldRecords.size() + outcomes.size());
+        Map<String, Employee> pending = new LinkedHashMap<>(outcomes);
+        List<Employee> removed = new ArrayList<>();
+        List<Employee> added = new ArrayList<>();
+        Map<String, Employee> replacedById = new HashMap<>();
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (!outcomes.containsKey(employee.getId())) {
+                newEmployees.add(employee);
+                if (newRecords != null) {
+                    newRecords.add(oldRecords.get(i));
+                }
+                continue;
+            }
+            removed.add(employee);
+            replacedById.put(employee.getId(), employee);
+            Employee replacement = pending.remove(employee.getId());
+            if (replacement != null) {
+                added.add(replacement);
+                newEmployees.add(replacement);
+                if (newRecords != null) {
+                    newRecords.add(EmployeeRecord.lenient(replacement));
+                }
+            }
+        }
+        for (Employee created : pending.values()) {
+            if (created != null) {
+                added.add(created);
+                newEmployees.add(created);
+                if (newRecords != null) {
+                    newRecords.add(EmployeeRecord.lenient(created));
+                }
+            }
+        }
+        SalaryIndex salaries = salaryIndex;
+        SalarySketch sketch = salarySketch;
+        NameIndex names = nameIndex;
+        if (outcomes.size() > MAX_PATCHED_CHANGES) {
+            salaries = null;
+            names = null;
+        }
+        for (Map.Entry<String, Employee> outcome : outcomes.entrySet()) {
+            Employee replaced = replacedById.get(outcome.getKey());
+            if (outcome.getValue() == null) {
+                salaries = salaries == null ? null : salaries.withRemoved(outcome.getKey());
+                names = names == null ? null : names.withRemoved(outcome.getKey());
+            } else if (replaced != null) {
+                salaries = salaries == null ? null : replaced(salaries, replaced, outcome.getValue());
+                names = names == null ? null : names.withReplaced(outcome.getValue());
+            } else {
+                // New ids are appended to the list in this order.
+                salaries = salaries == null ? null : salaries.withAdded(outcome.getValue());
+                names = names == null ? null : names.withAdded(outcome.getValue());
+            }
+        }
+        // The sketch is patched in one copy of its bins, whatever the size of the batch.
+        return new EmployeeSnapshot(newVersion, fetchedAtNanos, Collections.unmodifiableList(newEmployees), null,
+                salaries, sketch == null ? null : sketch.patched(removed, added), names,
+                newRecords == null ? null : Collections.unmodifiableList(newRecords));
+    }
+
+    /**
+     * @return {@code salaries} with {@code replacement} in place of {@code replaced}, or null, to rebuild the index in
+     * list order on first use, if the salary changed and the replacement would have to move among equal salaries.
+     */
+    private static SalaryIndex replaced(SalaryIndex salaries, Employee replaced, Employee replacement) {
+        if (EmployeeRecord.parseLenient(replaced.getEmployee_salary())
+                != EmployeeRecord.parseLenient(replacement.getEmployee_salary())) {
+            return null;
+        }
+        return salaries.withReplaced(replacement);
+    }
+}
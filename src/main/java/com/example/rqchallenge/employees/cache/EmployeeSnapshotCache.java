@@ -0,0 +1,372 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds the last employee list fetched from the upstream as an {@link EmployeeSnapshot}.
+ * <p>
+ * A snapshot younger than {@code employees.cache.ttl-ms} is served as-is. Once it is older than the TTL
+ * but still inside the {@code employees.cache.stale-ms} window it keeps being served while a single
+ * background refresh revalidates it (stale-while-revalidate). Past that window, or after
+ * {@link #invalidate()}, the next reader loads synchronously. Should that load fail, a snapshot younger than
+ * {@code employees.cache.stale-if-error-ms} is served instead (stale-if-error); an invalidated one never is.
+ * <p>
+ * Loaders given to {@link #getConditionally(Function)} revalidate the cached snapshot with its upstream ETag; when
+ * the upstream confirms it, the snapshot is kept with its version and indexes and only its fetch time is renewed.
+ * Clients of the gateway revalidate against {@link #eTagOf(EmployeeSnapshot)} in turn.
+ * <p>
+ * Successful creates and deletes are applied to the current snapshot with {@link #applyCreated(Employee)} and
+ * {@link #applyDeleted(String)}, which publish a new version with its indexes patched rather than rebuilt.
+ * Changes read from the upstream change feed by the {@link EmployeeReplica} are applied the same way with
+ * {@link #applyChanges(List)}, which also renews the fetch time, so that a replicated snapshot does not expire.
+ */
+@Component
+public class EmployeeSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSnapshotCache.class);
+
+    @Value("${employees.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${employees.cache.ttl-ms:5000}")
+    private long ttlMs;
+
+    @Value("${employees.cache.stale-ms:30000}")
+    private long staleMs;
+
+    @Value("${employees.cache.stale-if-error-ms:300000}")
+    private long staleIfErrorMs;
+
+    private final AtomicReference<EmployeeSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder staleIfError = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    /**
+     * Distinguishes the snapshot versions of this process from those of earlier ones in {@link #eTagOf}.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Returns the current snapshot, loading it with {@code loader} when there is no usable one.
+     *
+     * @param loader Fetches the full employee list from the upstream. Exceptions are propagated to the caller
+     *               on a synchronous load without a stale-if-error snapshot, and logged on a background refresh.
+     * @return A snapshot that is fresh, stale but being revalidated, or stale because the upstream failed.
+     */
+    public EmployeeSnapshot get(Supplier<List<Employee>> loader) {
+        return getConditionally(eTag -> UpstreamEmployees.of(loader.get(), null));
+    }
+
+    /**
+     * Like {@link #get(Supplier)}, but the cached snapshot is revalidated rather than read again when it has an
+     * upstream ETag.
+     *
+     * @param loader Fetches the full employee list from the upstream when called with {@code null}, and only if it
+     *               has changed since the given ETag otherwise.
+     * @return A snapshot that is fresh, stale but being revalidated, or stale because the upstream failed.
+     */
+    public EmployeeSnapshot getConditionally(Function<String, UpstreamEmployees> loader) {
+        EmployeeSnapshot snapshot = usableSnapshot(loader);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        misses.increment();
+        long expectedGeneration = generation.get();
+        try {
+            return load(loader, expectedGeneration);
+        } catch (RuntimeException e) {
+            return staleIfError(e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(Supplier)} for callers on an event loop. A miss is completed by the
+     * future returned from {@code loader}; background refreshes wait for it on the cache's own refresh thread.
+     *
+     * @param loader Starts fetching the full employee list from the upstream.
+     * @return A future completed with a snapshot that is fresh, or stale but being revalidated.
+     */
+    public CompletableFuture<EmployeeSnapshot> getAsync(Supplier<CompletableFuture<List<Employee>>> loader) {
+        EmployeeSnapshot snapshot = usableSnapshot(eTag -> UpstreamEmployees.of(loader.get().join(), null));
+        if (snapshot != null) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        misses.increment();
+        long expectedGeneration = generation.get();
+        return loader.get()
+                .thenApply(employees -> loaded(UpstreamEmployees.of(employees, null), expectedGeneration))
+                .exceptionally(e -> staleIfError(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e));
+    }
+
+    /**
+     * Returns the current snapshot when it can be served, exactly like {@link #get(Supplier)}, but returns
+     * {@code null} instead of loading on a miss. For readers that can go to the upstream without keeping the list.
+     */
+    public EmployeeSnapshot peek(Function<String, UpstreamEmployees> loader) {
+        return usableSnapshot(loader);
+    }
+
+    /**
+     * Returns the cached snapshot when it can be served, starting a background refresh with {@code loader}
+     * when it is stale, or {@code null} on a miss.
+     */
+    private EmployeeSnapshot usableSnapshot(Function<String, UpstreamEmployees> loader) {
+        EmployeeSnapshot snapshot = current.get();
+        if (enabled && snapshot != null) {
+            long age = System.nanoTime() - snapshot.getFetchedAtNanos();
+            if (age < TimeUnit.MILLISECONDS.toNanos(ttlMs)) {
+                hits.increment();
+                return snapshot;
+            }
+            if (age < TimeUnit.MILLISECONDS.toNanos(ttlMs + staleMs)) {
+                hits.increment();
+                refreshAsync(loader);
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the expired snapshot when it is young enough to be served in place of a failed load, and rethrows
+     * {@code failure} otherwise.
+     */
+    private EmployeeSnapshot staleIfError(Throwable failure) {
+        EmployeeSnapshot snapshot = current.get();
+        if (snapshot == null || System.nanoTime() - snapshot.getFetchedAtNanos() >= TimeUnit.MILLISECONDS.toNanos(ttlMs + staleMs + staleIfErrorMs)) {
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+            throw new CompletionException(failure);
+        }
+        staleIfError.increment();
+        logger.warn("Serving employee snapshot version {} after the upstream failed: {}", snapshot.getVersion(), failure.getMessage());
+        return snapshot;
+    }
+
+    /**
+     * Loads the list now, revalidating the cached snapshot when it has an upstream ETag, whether or not the cached
+     * one is still fresh. The result reflects the upstream as of no earlier than this call.
+     */
+    EmployeeSnapshot reload(Function<String, UpstreamEmployees> loader) {
+        return load(loader, generation.get());
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The current snapshot, fresh or not, or {@code null}.
+     */
+    EmployeeSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Drops the current snapshot so the next read goes to the upstream. Refreshes that were already in flight
+     * when this is called are discarded instead of being published.
+     */
+    public void invalidate() {
+        synchronized (current) {
+            generation.incrementAndGet();
+            current.set(null);
+        }
+        logger.debug("Employee snapshot invalidated");
+    }
+
+    /**
+     * Publishes a new snapshot version that contains {@code employee}. Does nothing when no snapshot is cached.
+     */
+    public void applyCreated(Employee employee) {
+        apply(snapshot -> snapshot.withCreated(versions.incrementAndGet(), employee));
+        logger.debug("Applied created employee {} to the employee snapshot", employee.getId());
+    }
+
+    /**
+     * Publishes a new snapshot version without the employee with the given id. Does nothing when no snapshot
+     * is cached.
+     */
+    public void applyDeleted(String id) {
+        apply(snapshot -> snapshot.withDeleted(versions.incrementAndGet(), id));
+        logger.debug("Applied deleted employee {} to the employee snapshot", id);
+    }
+
+    /**
+     * Applies changes read from the upstream change feed to the current snapshot, and renews its fetch time as a
+     * revalidation would. Without changes the version, and so the ETag served to clients, is kept.
+     *
+     * @return Whether there was a snapshot to apply them to.
+     */
+    boolean applyChanges(List<EmployeeChange> changes) {
+        synchronized (current) {
+            EmployeeSnapshot snapshot = current.get();
+            if (!enabled || snapshot == null) {
+                return false;
+            }
+            long now = System.nanoTime();
+            if (changes.isEmpty()) {
+                current.set(snapshot.revalidated(now));
+            } else {
+                // Refreshes that started before these changes may not have seen them, so they must not be published.
+                generation.incrementAndGet();
+                current.set(snapshot.withChanges(versions.incrementAndGet(), now, changes));
+            }
+            return true;
+        }
+    }
+
+    private void apply(UnaryOperator<EmployeeSnapshot> change) {
+        synchronized (current) {
+            // Refreshes that started before this change may not have seen it, so they must not be published.
+            generation.incrementAndGet();
+            EmployeeSnapshot snapshot = current.get();
+            if (snapshot != null) {
+                current.set(change.apply(snapshot));
+            }
+        }
+    }
+
+    /**
+     * Revalidates the cached snapshot with {@code loader}, or loads the list in full when there is no snapshot with
+     * an ETag, or when the snapshot was changed or dropped while it was being revalidated.
+     */
+    private EmployeeSnapshot load(Function<String, UpstreamEmployees> loader, long expectedGeneration) {
+        EmployeeSnapshot cached = current.get();
+        String eTag = cached == null ? null : cached.getETag();
+        UpstreamEmployees fetched = loader.apply(eTag);
+        if (fetched.isNotModified()) {
+            EmployeeSnapshot revalidated = eTag == null ? null : revalidated(cached, expectedGeneration);
+            if (revalidated != null) {
+                return revalidated;
+            }
+            fetched = loader.apply(null);
+            if (fetched.isNotModified()) {
+                throw new IllegalStateException("Upstream answered an unconditional read of the employee list with 304");
+            }
+        }
+        return loaded(fetched, expectedGeneration);
+    }
+
+    private EmployeeSnapshot revalidated(EmployeeSnapshot cached, long expectedGeneration) {
+        synchronized (current) {
+            if (generation.get() != expectedGeneration || current.get() != cached) {
+                return null;
+            }
+            EmployeeSnapshot snapshot = cached.revalidated(System.nanoTime());
+            current.set(snapshot);
+            revalidations.increment();
+            logger.debug("Revalidated employee snapshot version {}", snapshot.getVersion());
+            return snapshot;
+        }
+    }
+
+    private EmployeeSnapshot loaded(UpstreamEmployees fetched, long expectedGeneration) {
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(versions.incrementAndGet(), System.nanoTime(), fetched.getEmployees(), fetched.getETag());
+        publish(snapshot, expectedGeneration);
+        logger.debug("Loaded employee snapshot version {} with {} employees", snapshot.getVersion(), snapshot.getEmployees().size());
+        return snapshot;
+    }
+
+    private void publish(EmployeeSnapshot snapshot, long expectedGeneration) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (current) {
+            EmployeeSnapshot previous = current.get();
+            if (generation.get() == expectedGeneration && (previous == null || previous.getVersion() < snapshot.getVersion())) {
+                current.set(snapshot);
+            }
+        }
+    }
+
+    private void refreshAsync(Function<String, UpstreamEmployees> loader) {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                long expectedGeneration = generation.get();
+                load(loader, expectedGeneration);
+                refreshes.increment();
+            } catch (Exception e) {
+                logger.error("Error refreshing employee snapshot: {}", e.getMessage());
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return The number of snapshots the upstream confirmed as current instead of sending the list again.
+     */
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * @return A weak ETag for the list of {@code snapshot}, which changes whenever the list does. It is weak because
+     * it names the list in every representation, JSON or compressed alike; Tomcat does not compress responses with a
+     * strong ETag.
+     */
+    public String eTagOf(EmployeeSnapshot snapshot) {
+        return "W/\"" + epoch + "-" + snapshot.getVersion() + "\"";
+    }
+
+    /**
+     * @return The number of expired snapshots served because loading a new one failed.
+     */
+    public long getStaleIfError() {
+        return staleIfError.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+}
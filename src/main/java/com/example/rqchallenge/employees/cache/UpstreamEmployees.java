@@ -0,0 +1,45 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+
+import java.util.List;
+
+/**
+ * The answer of the upstream to a conditional read of the employee list: either the list with the ETag it was
+ * served with, or the news that the list named by the {@code If-None-Match} ETag is still current.
+ */
+public final class UpstreamEmployees {
+
+    private static final UpstreamEmployees NOT_MODIFIED = new UpstreamEmployees(null, null);
+
+    private final List<Employee> employees;
+    private final String eTag;
+
+    private UpstreamEmployees(List<Employee> employees, String eTag) {
+        this.employees = employees;
+        this.eTag = eTag;
+    }
+
+    /**
+     * @param eTag The ETag of the list, or {@code null} when the upstream sent none.
+     */
+    public static UpstreamEmployees of(List<Employee> employees, String eTag) {
+        return new UpstreamEmployees(employees, eTag);
+    }
+
+    public static UpstreamEmployees notModified() {
+        return NOT_MODIFIED;
+    }
+
+    public boolean isNotModified() {
+        return this == NOT_MODIFIED;
+    }
+
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rqchallenge.employees.config;
+
+import com.example.rqchallenge.employees.metrics.UpstreamMetrics;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking HTTP client used by the reactive employee service.
+ * <p>
+ * It shares the {@code upstream.http.*} limits and timeouts with {@link UpstreamHttpClientConfig}. Reactor
+ * Netty pools connections per remote host, so the per-route limit is the pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "employees.service.mode", havingValue = "reactive")
+public class ReactiveUpstreamClientConfig {
+
+    @Value("${upstream.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${upstream.http.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${upstream.http.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${upstream.http.pool-acquire-timeout-ms:500}")
+    private long poolAcquireTimeoutMs;
+
+    @Value("${upstream.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder("employee-upstream")
+                .maxConnections(maxConnectionsPerRoute)
+                .pendingAcquireTimeout(Duration.ofMillis(poolAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(keepAliveMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(WebClient.Builder webClientBuilder, ConnectionProvider upstreamConnectionProvider, UpstreamMetrics upstreamMetrics) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(upstreamMetrics)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.rqchallenge.employees.config;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Point-in-time utilisation of the upstream connection pool, summed over all routes.
+ */
+@Component
+public class UpstreamConnectionPoolGauges {
+
+    @Autowired
+    PoolingHttpClientConnectionManager upstreamConnectionManager;
+
+    /**
+     * @return Connections currently handed out to requests.
+     */
+    public int getLeased() {
+        return stats().getLeased();
+    }
+
+    /**
+     * @return Idle connections kept alive in the pool.
+     */
+    public int getAvailable() {
+        return stats().getAvailable();
+    }
+
+    /**
+     * @return Requests waiting for a connection to be released.
+     */
+    public int getPending() {
+        return stats().getPending();
+    }
+
+    public int getMax() {
+        return stats().getMax();
+    }
+
+    /**
+     * @return Leased connections as a fraction of the pool limit, between 0 and 1.
+     */
+    public double getUtilisation() {
+        PoolStats stats = stats();
+        return stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax();
+    }
+
+    private PoolStats stats() {
+        return upstreamConnectionManager.getTotalStats();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.rqchallenge.employees.config;
+
+import com.example.rqchallenge.employees.metrics.UpstreamMetrics;
+import com.example.rqchallenge.employees.resilience.Deadline;
+import com.example.rqchallenge.employees.resilience.DeadlinePropagation;
+import com.example.rqchallenge.employees.resilience.HedgedRequests;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client used by the {@link RestTemplate} that calls the employee upstream.
+ * <p>
+ * Connections are pooled and kept alive between calls, with a global limit, a default limit per route
+ * (scheme, host and port) and optional per-route overrides. Connect, read and pool-acquire timeouts bound
+ * how long a Tomcat thread can wait on the upstream, and are shortened further to what is left of the
+ * {@link Deadline} of the request being served. The format and compression of reads are negotiated by
+ * {@link UpstreamWireFormats}. Requests can be aborted by {@link HedgedRequests} when a hedge answers first.
+ */
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamHttpClientConfig.class);
+
+    @Value("${upstream.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${upstream.http.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    /**
+     * Comma-separated per-route overrides such as {@code localhost:8080=100,https://example.com:443=20}.
+     */
+    @Value("${upstream.http.route-limits:}")
+    private String routeLimits;
+
+    @Value("${upstream.http.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${upstream.http.read-timeout-ms:5000}")
+    private int readTimeoutMs;
+
+    @Value("${upstream.http.pool-acquire-timeout-ms:500}")
+    private int poolAcquireTimeoutMs;
+
+    @Value("${upstream.http.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("${upstream.http.validate-after-inactivity-ms:2000}")
+    private int validateAfterInactivityMs;
+
+    @Bean
+    public PoolingHttpClientConnectionManager upstreamConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAliveMs, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivityMs);
+        for (String routeLimit : routeLimits.split(",")) {
+            if (routeLimit.isBlank()) {
+                continue;
+            }
+            int separator = routeLimit.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected <host:port>=<limit> in upstream.http.route-limits: " + routeLimit);
+            }
+            HttpHost host = HttpHost.create(routeLimit.substring(0, separator).trim());
+            int limit;
+            try {
+                limit = Integer.parseInt(routeLimit.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected <host:port>=<limit> in upstream.http.route-limits: " + routeLimit, e);
+            }
+            if (limit < 1) {
+                throw new IllegalArgumentException("Expected <host:port>=<limit> in upstream.http.route-limits: " + routeLimit);
+            }
+            connectionManager.setMaxPerRoute(new HttpRoute(host), limit);
+            logger.info("Upstream connection limit for {} set to {}", host, limit);
+        }
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(requestConfig(null))
+                .setKeepAliveStrategy(keepAliveStrategy())
+                // Compression is negotiated per endpoint by UpstreamWireFormats.
+                .disableContentCompression()
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate getRestTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient upstreamHttpClient,
+                                        UpstreamWireFormats upstreamWireFormats, UpstreamMetrics upstreamMetrics,
+                                        DeadlinePropagation deadlinePropagation) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(upstreamHttpClient) {
+                    @Override
+                    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+                        Deadline deadline = Deadline.current();
+                        if (deadline == null) {
+                            return null;
+                        }
+                        HttpClientContext context = HttpClientContext.create();
+                        context.setRequestConfig(requestConfig(deadline));
+                        return context;
+                    }
+
+                    @Override
+                    protected void postProcessHttpRequest(HttpUriRequest request) {
+                        HedgedRequests.abortable(request::abort);
+                    }
+                })
+                .additionalInterceptors(upstreamWireFormats, upstreamMetrics, deadlinePropagation)
+                .build();
+    }
+
+    /**
+     * @param deadline The deadline of the request being served, or {@code null} for the client defaults.
+     */
+    private RequestConfig requestConfig(Deadline deadline) {
+        if (deadline == null) {
+            return RequestConfig.custom()
+                    .setConnectTimeout(connectTimeoutMs)
+                    .setSocketTimeout(readTimeoutMs)
+                    .setConnectionRequestTimeout(poolAcquireTimeoutMs)
+                    .build();
+        }
+        return RequestConfig.custom()
+                .setConnectTimeout(deadline.bound(connectTimeoutMs))
+                .setSocketTimeout(deadline.bound(readTimeoutMs))
+                .setConnectionRequestTimeout(deadline.bound(poolAcquireTimeoutMs))
+                .build();
+    }
+
+    /**
+     * Keeps a connection for as long as the upstream allows in its {@code Keep-Alive: timeout=} header, and
+     * for {@code upstream.http.keep-alive-ms} when it does not say.
+     */
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            BasicHeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (iterator.hasNext()) {
+                HeaderElement element = iterator.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(Long.parseLong(element.getValue()) * 1000, keepAliveMs);
+                    } catch (NumberFormatException e) {
+                        logger.debug("Ignoring invalid Keep-Alive timeout: {}", element.getValue());
+                    }
+                }
+            }
+            return keepAliveMs;
+        };
+    }
+}
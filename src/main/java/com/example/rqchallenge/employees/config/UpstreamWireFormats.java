@@ -0,0 +1,173 @@
+package com.example.rqchallenge.employees.config;
+
+import com.example.rqchallenge.employees.metrics.UpstreamMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Negotiates the format and compression of upstream reads, per upstream endpoint.
+ * <p>
+ * {@code upstream.wire.default} applies to every GET and {@code upstream.wire.overrides} to single endpoints by
+ * property name, e.g. {@code GET_ALL_EMPLOYEES=smile+gzip,GET_EMPLOYEE_BY_ID=json}. The format is {@code json},
+ * {@code smile} or {@code cbor}; the binary formats are asked for with JSON as a fallback, so an upstream that does
+ * not speak them still answers. With {@code +gzip} the upstream may compress the response, which is inflated here.
+ * Request bodies of writes stay JSON.
+ * <p>
+ * Registered in front of {@link UpstreamMetrics}, so that the upstream response sizes it records are the bytes on
+ * the wire.
+ */
+@Component
+public class UpstreamWireFormats implements ClientHttpRequestInterceptor {
+
+    static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final MediaType JSON_FALLBACK = MediaType.parseMediaType("application/json;q=0.5");
+
+    @Value("${upstream.wire.default:json+gzip}")
+    private String defaultEncoding;
+
+    @Value("${upstream.wire.overrides:}")
+    private String overrides;
+
+    @Autowired
+    UpstreamMetrics upstreamMetrics;
+
+    private Encoding fallback;
+
+    private final Map<String, Encoding> encodings = new HashMap<>();
+
+    enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        SMILE(APPLICATION_SMILE),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Format(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+    }
+
+    private static final class Encoding {
+        final List<MediaType> accept;
+        final boolean gzip;
+
+        Encoding(Format format, boolean gzip) {
+            this.accept = format == Format.JSON ? List.of(format.mediaType) : List.of(format.mediaType, JSON_FALLBACK);
+            this.gzip = gzip;
+        }
+    }
+
+    @PostConstruct
+    void parseEncodings() {
+        fallback = parse(defaultEncoding);
+        for (String override : overrides.split(",")) {
+            if (override.isBlank()) {
+                continue;
+            }
+            int separator = override.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <endpoint>=<format>[+gzip] in upstream.wire.overrides: " + override);
+            }
+            encodings.put(override.substring(0, separator).trim(), parse(override.substring(separator + 1)));
+        }
+    }
+
+    private static Encoding parse(String value) {
+        String[] parts = value.trim().toLowerCase(Locale.ROOT).split("\\+");
+        if (parts.length > 2 || (parts.length == 2 && !"gzip".equals(parts[1]))) {
+            throw new IllegalArgumentException("Expected <format>[+gzip] for an upstream wire format: " + value);
+        }
+        return new Encoding(Format.valueOf(parts[0].toUpperCase(Locale.ROOT)), parts.length == 2);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+        Encoding encoding = encodings.getOrDefault(upstreamMetrics.upstreamOf(HttpMethod.GET, request.getURI()), fallback);
+        request.getHeaders().setAccept(encoding.accept);
+        if (encoding.gzip) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        int status = response.getRawStatusCode();
+        // A 204 or 304 has no body, and so no gzip header to read.
+        return "gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)) && status != 204 && status != 304
+                ? new InflatingResponse(response)
+                : response;
+    }
+
+    /**
+     * A gzip-compressed response that reads as the uncompressed body.
+     */
+    private static final class InflatingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+
+        private final HttpHeaders headers;
+
+        private InputStream body;
+
+        InflatingResponse(ClientHttpResponse response) {
+            this.response = response;
+            HttpHeaders inflated = new HttpHeaders();
+            inflated.putAll(response.getHeaders());
+            inflated.remove(HttpHeaders.CONTENT_ENCODING);
+            inflated.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(inflated);
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new GZIPInputStream(response.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rqchallenge.employees.config;
+
+import org.apache.catalina.util.ServerInfo;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.net.SocketWrapperBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs Tomcat request handling, and with it the blocking upstream calls made by {@code EmployeeService},
+ * on virtual threads instead of the fixed {@code server.tomcat.threads.max} pool.
+ * <p>
+ * Opt in with {@code spring.threads.virtual.enabled=true} on Java 21 or later. The build still targets Java 11,
+ * so the virtual-thread executor is looked up reflectively and startup fails fast on an older runtime. With
+ * virtual threads the upstream connection pool becomes the concurrency limit, so raise
+ * {@code upstream.http.max-connections-per-route} accordingly.
+ * <p>
+ * The Tomcat 9.0.55 managed by this Spring Boot version processes each socket inside a {@code synchronized} block,
+ * which pins the virtual thread to its carrier for the whole request, including the upstream wait, so the gain is
+ * bounded by {@code jdk.virtualThreadScheduler.parallelism}, and under load requests can stall altogether. Build
+ * with {@code -PvirtualThreads} for Tomcat 9.0.83, which uses a lock there; startup fails on a Tomcat that still
+ * uses the block.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService virtualThreadExecutor() {
+        requireNonPinningTomcat();
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            logger.info("Handling requests on virtual threads");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires Java 21 or later, running on " + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Tomcat releases that process sockets under a lock rather than a {@code synchronized} block have
+     * {@code SocketWrapperBase.getLock()}.
+     */
+    static void requireNonPinningTomcat() {
+        try {
+            SocketWrapperBase.class.getMethod("getLock");
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requires a Tomcat that does not pin virtual threads, "
+                    + "running on " + ServerInfo.getServerNumber() + "; build with -PvirtualThreads");
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+}
@@ -1,15 +1,24 @@
 package com.example.rqchallenge.employees.controller;
 
+import com.example.rqchallenge.employees.dto.BatchItemResult;
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.exception.BadRequestException;
 import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
 import com.example.rqchallenge.employees.service.IEmployeeService;
+import com.example.rqchallenge.employees.stream.EmployeeStreamExecutor;
+import com.example.rqchallenge.employees.stream.EmployeeStreamFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -17,25 +26,32 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/employees")
+@ConditionalOnProperty(name = "employees.service.mode", havingValue = "blocking", matchIfMissing = true)
 public class EmployeeController implements IEmployeeController{
 
     @Autowired
     IEmployeeService employeeService;
 
+    @Autowired
+    EmployeeStreamExecutor streamExecutor;
+
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
     /**
      * Retrieves a list of all employees.
      * <p>
      * This method delegates the task of fetching all employees to the `employeeService`.
-     * It returns a `ResponseEntity` containing a list of `Employee` objects.
+     * It returns a `ResponseEntity` containing a list of `Employee` objects and their ETag. When the
+     * `If-None-Match` header of the request names that ETag, the list is not sent again and the
+     * response is a `304 Not Modified`.
      *
+     * @param request The request, for its `If-None-Match` header.
      * @return A `ResponseEntity` containing a list of all `Employee` objects, along with
-     *         an HTTP status.
+     *         an HTTP status, or {@code null} once a 304 has been prepared.
      *
      * @throws IOException If an input/output error occurs while retrieving the employee data.
      */
     @Override
-    public ResponseEntity<List<Employee>> getAllEmployees() throws IOException {
+    public ResponseEntity<List<Employee>> getAllEmployees(WebRequest request) throws IOException {
         ResponseEntity<List<Employee>> employeeResponse;
         List<Employee> employeeList;
         employeeResponse = employeeService.getAllEmployees();
@@ -44,8 +60,63 @@ public class EmployeeController implements IEmployeeController{
         if (employeeList.isEmpty()){
             throw new ResourceNotFoundException("No employee Information found");
         }
-        logger.info("Fetching all employees: {}", employeeService.getAllEmployees());
-        return employeeService.getAllEmployees();
+        String eTag = employeeResponse.getHeaders().getETag();
+        if (eTag != null && request.checkNotModified(eTag)){
+            logger.info("Employee list not modified since {}", eTag);
+            return null;
+        }
+        logger.info("Fetching all employees: {} employees", employeeList.size());
+        return employeeResponse;
+    }
+
+    /**
+     * Streams all employees instead of buffering them.
+     * <p>
+     * With `stream=ndjson` every employee is written as one line of `application/x-ndjson`; with
+     * `stream=array` the usual JSON array is written incrementally. The response is chunked and written
+     * off the request thread as the `employeeService` reads the employees, so large directories are
+     * served in constant memory. Streams beyond `employees.stream.max-concurrent` are rejected with 503.
+     *
+     * @param stream The streaming format, either `ndjson` or `array`.
+     * @return A `ResponseEntity` containing the streaming body, along with an HTTP status of OK.
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(String stream) {
+        EmployeeStreamFormat format = EmployeeStreamFormat.fromParameter(stream);
+        logger.info("Streaming all employees as {}", format);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(streamExecutor.admit(out -> employeeService.writeAllEmployees(out, format)));
+    }
+
+    /**
+     * Retrieves one page of the employee list.
+     * <p>
+     * This method delegates the task of fetching the page to the `employeeService`. The first page is
+     * requested without a cursor; every following page with the `nextCursor` of the previous one, which
+     * keeps all pages on the same version of the list.
+     *
+     * @param limit  The maximum number of employees on the page.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @return A `ResponseEntity` containing the `EmployeePage`, along with an HTTP status of OK.
+     */
+    @Override
+    public ResponseEntity<EmployeePage> getEmployeesPage(int limit, String cursor) {
+        logger.info("Fetching a page of up to {} employees", limit);
+        return employeeService.getEmployeesPage(limit, cursor);
+    }
+
+    /**
+     * Rejects requests for both a stream and a page of the list.
+     * <p>
+     * Both {@code streamAllEmployees} and {@code getEmployeesPage} would match such a request; this mapping names both
+     * parameters, so it is the more specific one and answers 400 instead of leaving the choice ambiguous.
+     *
+     * @throws BadRequestException Always.
+     */
+    @Override
+    public ResponseEntity<Void> rejectStreamedPage() {
+        throw new BadRequestException("stream and limit cannot be combined: stream the whole list or page through it");
     }
 
     /**
@@ -53,18 +124,20 @@ public class EmployeeController implements IEmployeeController{
      * <p>
      * This method delegates the task of searching for employees by name to the `employeeService`.
      * It takes a search string as input and returns a list of employees whose names match or contain
-     * the search string.
+     * the search string, optionally ignoring case and accents.
      *
      * @param searchString The string to search for in employee names.
+     * @param ignoreCase Whether names match regardless of letter case.
+     * @param ignoreAccents Whether names match regardless of accents.
      * @return A `ResponseEntity` containing a list of `Employee` objects that match the search string,
      *         along with an HTTP status.
      */
     @Override
-    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
+    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents) {
         logger.info("Fetching employees by name: {}", searchString);
         ResponseEntity<List<Employee>> employeeResponse;
         List<Employee> employeeList;
-        employeeResponse = employeeService.getEmployeesByNameSearch(searchString);
+        employeeResponse = employeeService.getEmployeesByNameSearch(searchString, ignoreCase, ignoreAccents);
         employeeList = employeeResponse.getBody();
         assert employeeList != null;
         if (employeeList.isEmpty()){
@@ -110,6 +183,22 @@ public class EmployeeController implements IEmployeeController{
         return salaryResponse;
     }
 
+    /**
+     * Retrieves the salary statistics of all employees.
+     * <p>
+     * This method delegates to the `employeeService`, which answers from statistics kept up to date
+     * with the employee list instead of reading every salary.
+     *
+     * @param percentiles The ranks of the percentiles to report, between 0 and 1.
+     * @param bounds      The upper bounds of the histogram buckets, or none for no histogram.
+     * @return A `ResponseEntity` containing the `SalaryStats`, along with an HTTP status of OK.
+     */
+    @Override
+    public ResponseEntity<SalaryStats> getSalaryStats(List<Double> percentiles, List<Integer> bounds) {
+        logger.info("Fetching salary statistics of all employees:");
+        return employeeService.getSalaryStats(percentiles, bounds == null ? List.of() : bounds);
+    }
+
     /**
      * Retrieves the names of the top ten highest-earning employees.
      * <p>
@@ -131,6 +220,29 @@ public class EmployeeController implements IEmployeeController{
         return response;
     }
 
+    /**
+     * Retrieves the top {@code n} employees ranked by salary or age.
+     * <p>
+     * This method delegates the ranking to the `employeeService`, which selects the
+     * employees in a single pass without sorting the whole list.
+     *
+     * @param n  The number of employees to return.
+     * @param by The field to rank by, either `salary` or `age`.
+     * @return A `ResponseEntity` containing up to {@code n} `Employee` objects, highest first,
+     *         along with an HTTP status of OK.
+     */
+    @Override
+    public ResponseEntity<List<Employee>> getTopEmployees(int n, String by) {
+        logger.info("Fetching the top {} employees by {}", n, by);
+        ResponseEntity<List<Employee>> response = employeeService.getTopEmployees(n, by);
+        List<Employee> employeeList = response.getBody();
+        assert employeeList != null;
+        if (employeeList.isEmpty()){
+            throw new ResourceNotFoundException("No employee information available");
+        }
+        return response;
+    }
+
     /**
      * Creates a new employee using the provided input data.
      * <p>
@@ -172,4 +284,36 @@ public class EmployeeController implements IEmployeeController{
         logger.info("Deleting an employee by their unique identifier: {}", id);
         return employeeService.deleteEmployee(id);
     }
+
+    /**
+     * Creates several employees in one request.
+     * <p>
+     * This method delegates to the `employeeService`, which sends the employees to the upstream
+     * in chunks. A failed item does not abort the batch; its outcome is reported in its result.
+     *
+     * @param employeeInput A map from employee ID to the input data of that employee.
+     * @return A `ResponseEntity` containing one `BatchItemResult` per employee, in input order, along with
+     *         an HTTP status of OK when every item succeeded and MULTI_STATUS (207) otherwise.
+     */
+    @Override
+    public ResponseEntity<List<BatchItemResult>> createEmployees(Map<String, Employee> employeeInput) {
+        logger.info("Creating {} employees in a batch", employeeInput.size());
+        return employeeService.createEmployees(employeeInput);
+    }
+
+    /**
+     * Deletes several employees in one request.
+     * <p>
+     * This method delegates to the `employeeService`, which sends the IDs to the upstream in chunks.
+     * An ID that cannot be deleted does not abort the batch; its outcome is reported in its result.
+     *
+     * @param ids The unique identifiers of the employees to be deleted.
+     * @return A `ResponseEntity` containing one `BatchItemResult` per distinct ID, in input order, along with
+     *         an HTTP status of OK when every item succeeded and MULTI_STATUS (207) otherwise.
+     */
+    @Override
+    public ResponseEntity<List<BatchItemResult>> deleteEmployees(List<String> ids) {
+        logger.info("Deleting {} employees in a batch", ids.size());
+        return employeeService.deleteEmployees(ids);
+    }
 }
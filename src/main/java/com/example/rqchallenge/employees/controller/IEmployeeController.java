@@ -1,7 +1,12 @@
 package com.example.rqchallenge.employees.controller;
+import com.example.rqchallenge.employees.dto.BatchItemResult;
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.dto.SalaryStats;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -11,10 +16,21 @@ import java.util.Map;
 public interface IEmployeeController {
 
     @GetMapping()
-    ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
+    ResponseEntity<List<Employee>> getAllEmployees(WebRequest request) throws IOException;
+
+    @GetMapping(params = "stream")
+    ResponseEntity<StreamingResponseBody> streamAllEmployees(@RequestParam String stream);
+
+    @GetMapping(params = "limit")
+    ResponseEntity<EmployeePage> getEmployeesPage(@RequestParam int limit, @RequestParam(required = false) String cursor);
+
+    @GetMapping(params = {"stream", "limit"})
+    ResponseEntity<Void> rejectStreamedPage();
 
     @GetMapping("/search/{searchString}")
-    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
+    ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                            @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                            @RequestParam(defaultValue = "false") boolean ignoreAccents);
 
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
@@ -22,13 +38,26 @@ public interface IEmployeeController {
     @GetMapping("/highestSalary")
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
+    @GetMapping("/salaryStats")
+    ResponseEntity<SalaryStats> getSalaryStats(@RequestParam(defaultValue = "0.5,0.9,0.95,0.99") List<Double> percentiles,
+                                               @RequestParam(required = false) List<Integer> bounds);
+
     @GetMapping("/topTenHighestEarningEmployeeNames")
     ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
 
+    @GetMapping("/top")
+    ResponseEntity<List<Employee>> getTopEmployees(@RequestParam(defaultValue = "10") int n, @RequestParam(defaultValue = "salary") String by);
+
     @PostMapping()
     ResponseEntity<Employee> createEmployee(@RequestBody Map<String, Employee> employeeInput) throws Exception;
 
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
 
+    @PostMapping("/batch")
+    ResponseEntity<List<BatchItemResult>> createEmployees(@RequestBody Map<String, Employee> employeeInput);
+
+    @DeleteMapping("/batch")
+    ResponseEntity<List<BatchItemResult>> deleteEmployees(@RequestBody List<String> ids);
+
 }
@@ -0,0 +1,39 @@
+package com.example.rqchallenge.employees.controller;
+import com.example.rqchallenge.employees.dto.Employee;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+public interface IReactiveEmployeeController {
+
+    @GetMapping()
+    Mono<ResponseEntity<List<Employee>>> getAllEmployees();
+
+    @GetMapping("/search/{searchString}")
+    Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@PathVariable String searchString,
+                                                                  @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                                  @RequestParam(defaultValue = "false") boolean ignoreAccents);
+
+    @GetMapping("/{id}")
+    Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id);
+
+    @GetMapping("/highestSalary")
+    Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees();
+
+    @GetMapping("/topTenHighestEarningEmployeeNames")
+    Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames();
+
+    @GetMapping("/top")
+    Mono<ResponseEntity<List<Employee>>> getTopEmployees(@RequestParam(defaultValue = "10") int n, @RequestParam(defaultValue = "salary") String by);
+
+    @PostMapping()
+    Mono<ResponseEntity<Employee>> createEmployee(@RequestBody Map<String, Employee> employeeInput);
+
+    @DeleteMapping("/{id}")
+    Mono<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id);
+
+}
@@ -0,0 +1,95 @@
+package com.example.rqchallenge.employees.controller;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.service.IReactiveEmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves the `/employees` routes from the {@link IReactiveEmployeeService}.
+ * <p>
+ * Handlers return a `Mono` and release the servlet thread immediately; the response is written once the
+ * upstream call completes. Replaces {@link EmployeeController} when {@code employees.service.mode=reactive}.
+ */
+@RestController
+@RequestMapping("/employees")
+@ConditionalOnProperty(name = "employees.service.mode", havingValue = "reactive")
+public class ReactiveEmployeeController implements IReactiveEmployeeController {
+
+    @Autowired
+    IReactiveEmployeeService employeeService;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeController.class);
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getAllEmployees() {
+        logger.info("Fetching all employees");
+        return nonEmpty(employeeService.getAllEmployees(), "No employee Information found");
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents) {
+        logger.info("Fetching employees by name: {}", searchString);
+        return nonEmpty(employeeService.getEmployeesByNameSearch(searchString, ignoreCase, ignoreAccents),
+                "No employee found with given name: " + searchString);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Employee>> getEmployeeById(String id) {
+        logger.info("Fetching employee by id: {}", id);
+        return employeeService.getEmployeeById(id).map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        logger.info("Fetching highest salary among all employees:");
+        return employeeService.getHighestSalaryOfEmployees()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No employee information available")))
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        logger.info("Fetching the names of the top ten highest-earning employees:");
+        return nonEmpty(employeeService.getTopTenHighestEarningEmployeeNames(), "No employee information available");
+    }
+
+    @Override
+    public Mono<ResponseEntity<List<Employee>>> getTopEmployees(int n, String by) {
+        logger.info("Fetching the top {} employees by {}", n, by);
+        return nonEmpty(employeeService.getTopEmployees(n, by), "No employee information available");
+    }
+
+    @Override
+    public Mono<ResponseEntity<Employee>> createEmployee(Map<String, Employee> employeeInput) {
+        logger.info("Creates a new employee using the provided input data: {}", employeeInput);
+        return employeeService.createEmployee(employeeInput)
+                .switchIfEmpty(Mono.error(() -> new Exception("An error occurred")))
+                .map(employee -> new ResponseEntity<>(employee, HttpStatus.CREATED));
+    }
+
+    @Override
+    public Mono<ResponseEntity<String>> deleteEmployeeById(String id) {
+        logger.info("Deleting an employee by their unique identifier: {}", id);
+        return employeeService.deleteEmployee(id).map(ResponseEntity::ok);
+    }
+
+    private static <T> Mono<ResponseEntity<List<T>>> nonEmpty(Flux<T> items, String notFoundMessage) {
+        return items.collectList()
+                .flatMap(list -> list.isEmpty()
+                        ? Mono.error(new ResourceNotFoundException(notFoundMessage))
+                        : Mono.just(ResponseEntity.ok(list)));
+    }
+}
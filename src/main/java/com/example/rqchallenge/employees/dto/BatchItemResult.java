@@ -0,0 +1,20 @@
+package com.example.rqchallenge.employees.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one item of a batch create or delete. {@code status} is the HTTP status the item would have had
+ * as a single request; {@code data} holds the created employee on a successful create.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchItemResult {
+
+    private String id;
+    private int status;
+    private String message;
+    private Employee data;
+
+}
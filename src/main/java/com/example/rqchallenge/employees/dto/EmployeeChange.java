@@ -0,0 +1,24 @@
+package com.example.rqchallenge.employees.dto;
+
+import lombok.*;
+
+/**
+ * One entry of the upstream change feed. {@code employee} holds the created employee on a create and is
+ * {@code null} on a delete.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeChange {
+
+    public enum Type {
+        CREATE, DELETE
+    }
+
+    private long version;
+    private Type type;
+    private String id;
+    private Employee employee;
+
+}
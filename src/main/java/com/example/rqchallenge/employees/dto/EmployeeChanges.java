@@ -0,0 +1,24 @@
+package com.example.rqchallenge.employees.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * The changes of the upstream employee list after a version, oldest first. {@code version} is the version the
+ * list is at once they are applied and is passed back as {@code since} to read on; {@code hasMore} is set when
+ * the changes were cut off at the limit. Versions only compare within one {@code epoch}, which changes whenever
+ * the upstream restarts.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeChanges {
+
+    private String epoch;
+    private long version;
+    private boolean hasMore;
+    private List<EmployeeChange> changes;
+
+}
@@ -0,0 +1,21 @@
+package com.example.rqchallenge.employees.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of the employee list. {@code nextCursor} is {@code null} on the last page; otherwise it is passed
+ * back unchanged to read the next page of the same {@code version} of the list.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeePage {
+
+    private List<Employee> data;
+    private String nextCursor;
+    private long version;
+
+}
@@ -0,0 +1,118 @@
+package com.example.rqchallenge.employees.dto;
+
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Compact, immutable employee with salary and age held as primitive {@code int}s.
+ * <p>
+ * The numeric fields are parsed and validated once, when the record is created, instead of every time they are
+ * compared. On the wire a record looks exactly like an {@link Employee}: salary and age are written as strings
+ * and read from either strings or numbers by {@link EmployeeRecordSerializer} and {@link EmployeeRecordDeserializer}.
+ * A missing salary or age is held as {@link #NO_VALUE}.
+ */
+@Value
+@Builder
+@JsonSerialize(using = EmployeeRecordSerializer.class)
+@JsonDeserialize(using = EmployeeRecordDeserializer.class)
+public class EmployeeRecord {
+
+    public static final int NO_VALUE = -1;
+
+    String id;
+    String employee_name;
+    @Builder.Default
+    int employee_salary = NO_VALUE;
+    @Builder.Default
+    int employee_age = NO_VALUE;
+    String profile_image;
+
+    /**
+     * Converts client input, rejecting salaries and ages that are not non-negative integers.
+     *
+     * @throws BadRequestException If a numeric field is invalid.
+     */
+    public static EmployeeRecord from(Employee employee) {
+        return EmployeeRecord.builder()
+                .id(employee.getId())
+                .employee_name(employee.getEmployee_name())
+                .employee_salary(parseValue("employee_salary", employee.getEmployee_salary()))
+                .employee_age(parseValue("employee_age", employee.getEmployee_age()))
+                .profile_image(employee.getProfile_image())
+                .build();
+    }
+
+    /**
+     * Converts upstream data, which is not validated again: invalid salaries and ages become {@link #NO_VALUE}.
+     */
+    public static EmployeeRecord lenient(Employee employee) {
+        return EmployeeRecord.builder()
+                .id(employee.getId())
+                .employee_name(employee.getEmployee_name())
+                .employee_salary(parseLenient(employee.getEmployee_salary()))
+                .employee_age(parseLenient(employee.getEmployee_age()))
+                .profile_image(employee.getProfile_image())
+                .build();
+    }
+
+    public boolean hasSalary() {
+        return employee_salary != NO_VALUE;
+    }
+
+    public boolean hasAge() {
+        return employee_age != NO_VALUE;
+    }
+
+    /**
+     * @return The wire representation, with salary and age formatted as strings.
+     */
+    public Employee toEmployee() {
+        return Employee.builder()
+                .id(id)
+                .employee_name(employee_name)
+                .employee_salary(format(employee_salary))
+                .employee_age(format(employee_age))
+                .profile_image(profile_image)
+                .build();
+    }
+
+    /**
+     * Parses a salary or age; surrounding whitespace is ignored and {@code null} means the field is missing.
+     *
+     * @throws BadRequestException If the value is not a non-negative integer.
+     */
+    public static int parseValue(String field, String value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        int parsed = parseLenient(value);
+        if (parsed == NO_VALUE) {
+            throw new BadRequestException(field + " must be a non-negative integer: " + value);
+        }
+        return parsed;
+    }
+
+    static String format(int value) {
+        return value == NO_VALUE ? null : Integer.toString(value);
+    }
+
+    /**
+     * Parses a salary or age like {@link #parseValue(String, String)}, without failing.
+     *
+     * @return The value, or {@link #NO_VALUE} when it is missing or not a non-negative integer.
+     */
+    public static int parseLenient(String value) {
+        if (value == null) {
+            return NO_VALUE;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            return parsed < 0 ? NO_VALUE : parsed;
+        } catch (NumberFormatException e) {
+            return NO_VALUE;
+        }
+    }
+}
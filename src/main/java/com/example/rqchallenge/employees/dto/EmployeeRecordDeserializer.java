@@ -0,0 +1,80 @@
+package com.example.rqchallenge.employees.dto;
+
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+
+import java.io.IOException;
+
+/**
+ * Reads an {@link EmployeeRecord} from the {@link Employee} wire format, parsing salary and age once.
+ * <p>
+ * Salary and age may be JSON strings or integers. Anything that is not a non-negative integer fails with an
+ * {@link InvalidFormatException}, which surfaces as a 400 response. Unknown fields are skipped.
+ */
+public class EmployeeRecordDeserializer extends StdDeserializer<EmployeeRecord> {
+
+    public EmployeeRecordDeserializer() {
+        super(EmployeeRecord.class);
+    }
+
+    @Override
+    public EmployeeRecord deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartObjectToken()) {
+            return (EmployeeRecord) context.handleUnexpectedToken(EmployeeRecord.class, parser);
+        }
+        EmployeeRecord.EmployeeRecordBuilder builder = EmployeeRecord.builder();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    builder.id(text(parser, value));
+                    break;
+                case "employee_name":
+                    builder.employee_name(text(parser, value));
+                    break;
+                case "employee_salary":
+                    builder.employee_salary(number(parser, field, value));
+                    break;
+                case "employee_age":
+                    builder.employee_age(number(parser, field, value));
+                    break;
+                case "profile_image":
+                    builder.profile_image(text(parser, value));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return builder.build();
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw InvalidFormatException.from(parser, parser.getCurrentName() + " must be a string", null, String.class);
+        }
+        return parser.getText();
+    }
+
+    private static int number(JsonParser parser, String field, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT && parser.getIntValue() >= 0) {
+            return parser.getIntValue();
+        }
+        if (value == JsonToken.VALUE_STRING || value == JsonToken.VALUE_NULL) {
+            try {
+                return EmployeeRecord.parseValue(field, text(parser, value));
+            } catch (BadRequestException e) {
+                throw InvalidFormatException.from(parser, e.getMessage(), parser.getText(), int.class);
+            }
+        }
+        throw InvalidFormatException.from(parser, field + " must be a non-negative integer: " + parser.getText(), parser.getText(), int.class);
+    }
+}
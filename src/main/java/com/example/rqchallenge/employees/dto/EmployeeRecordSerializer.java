@@ -0,0 +1,28 @@
+package com.example.rqchallenge.employees.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link EmployeeRecord} in the {@link Employee} wire format, with salary and age as strings.
+ */
+public class EmployeeRecordSerializer extends StdSerializer<EmployeeRecord> {
+
+    public EmployeeRecordSerializer() {
+        super(EmployeeRecord.class);
+    }
+
+    @Override
+    public void serialize(EmployeeRecord employee, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", employee.getId());
+        generator.writeStringField("employee_name", employee.getEmployee_name());
+        generator.writeStringField("employee_salary", EmployeeRecord.format(employee.getEmployee_salary()));
+        generator.writeStringField("employee_age", EmployeeRecord.format(employee.getEmployee_age()));
+        generator.writeStringField("profile_image", employee.getProfile_image());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.rqchallenge.employees.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Salary statistics of the employee list. {@code count}, {@code sum}, {@code mean}, {@code min} and {@code max} are
+ * exact; the {@code percentiles}, keyed by rank as requested (e.g. {@code "0.99"}), are within
+ * {@code relativeAccuracy} of the exact salary at that rank. Each {@code histogram} bucket counts the salaries
+ * above the previous bound up to its {@code upperBound}, the last one ({@code upperBound} {@code null}) the rest;
+ * salaries within twice {@code relativeAccuracy} above a bound may be counted in the bucket of that bound. Employees
+ * without a valid salary are left out.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SalaryStats {
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    public static class Bucket {
+        private Integer upperBound;
+        private long count;
+    }
+
+    private long count;
+    private long sum;
+    private Double mean;
+    private Integer min;
+    private Integer max;
+    private double relativeAccuracy;
+    private Map<String, Integer> percentiles;
+    private List<Bucket> histogram;
+
+}
@@ -1,7 +1,10 @@
 package com.example.rqchallenge.employees.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
@@ -43,4 +46,71 @@ public class ControllerExceptionHandler {
         );
         return new ResponseEntity<ErrorMessage>(message, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorMessage> badRequestException(BadRequestException exception, WebRequest request){
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.BAD_REQUEST.value(),
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CursorExpiredException.class)
+    public ResponseEntity<ErrorMessage> cursorExpiredException(CursorExpiredException exception, WebRequest request){
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.GONE.value(),
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorMessage> upstreamUnavailableException(UpstreamUnavailableException exception, WebRequest request){
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ErrorMessage> taskRejectedException(TaskRejectedException exception, WebRequest request){
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(UpstreamTimeoutException.class)
+    public ResponseEntity<ErrorMessage> upstreamTimeoutException(UpstreamTimeoutException exception, WebRequest request){
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                new Date(),
+                exception.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorMessage> messageNotReadableException(HttpMessageNotReadableException exception, WebRequest request){
+        Throwable cause = exception.getMostSpecificCause();
+        ErrorMessage message = new ErrorMessage(
+                HttpStatus.BAD_REQUEST.value(),
+                new Date(),
+                cause instanceof JsonProcessingException ? ((JsonProcessingException) cause).getOriginalMessage() : cause.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<ErrorMessage>(message, HttpStatus.BAD_REQUEST);
+    }
 }
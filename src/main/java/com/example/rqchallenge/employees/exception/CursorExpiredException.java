@@ -0,0 +1,7 @@
+package com.example.rqchallenge.employees.exception;
+
+public class CursorExpiredException extends RuntimeException {
+    public CursorExpiredException(String message){
+        super(message);
+    }
+}
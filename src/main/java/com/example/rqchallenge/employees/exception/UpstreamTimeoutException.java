@@ -0,0 +1,7 @@
+package com.example.rqchallenge.employees.exception;
+
+public class UpstreamTimeoutException extends RuntimeException {
+    public UpstreamTimeoutException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.rqchallenge.employees.exception;
+
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
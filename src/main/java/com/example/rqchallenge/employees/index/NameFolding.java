@@ -0,0 +1,56 @@
+package com.example.rqchallenge.employees.index;
+
+import java.text.Normalizer;
+
+/**
+ * Case and accent folding applied to employee names before they are indexed or compared.
+ * <p>
+ * Folding works one code point at a time, so whenever a name contains a search string, the folded name also
+ * contains the folded search string. That is what allows one fully folded trigram index to answer
+ * case-sensitive, case-insensitive and accent-insensitive searches alike.
+ */
+public final class NameFolding {
+
+    private NameFolding() {
+    }
+
+    /**
+     * @param value         Text to fold.
+     * @param ignoreCase    Lower-case every code point.
+     * @param ignoreAccents Decompose every code point and drop its combining marks, e.g. {@code é} becomes {@code e}.
+     * @return The folded text; {@code value} itself when neither option is set.
+     */
+    public static String fold(String value, boolean ignoreCase, boolean ignoreAccents) {
+        if (!ignoreCase && !ignoreAccents) {
+            return value;
+        }
+        StringBuilder folded = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); ) {
+            int codePoint = value.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (ignoreCase) {
+                codePoint = Character.toLowerCase(codePoint);
+            }
+            if (!ignoreAccents || codePoint < 0x80) {
+                folded.appendCodePoint(codePoint);
+                continue;
+            }
+            String decomposed = Normalizer.normalize(new String(Character.toChars(codePoint)), Normalizer.Form.NFD);
+            for (int j = 0; j < decomposed.length(); ) {
+                int part = decomposed.codePointAt(j);
+                j += Character.charCount(part);
+                if (!isCombiningMark(part)) {
+                    folded.appendCodePoint(ignoreCase ? Character.toLowerCase(part) : part);
+                }
+            }
+        }
+        return folded.toString();
+    }
+
+    private static boolean isCombiningMark(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.COMBINING_SPACING_MARK;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Trigram inverted index over {@code employee_name} for substring search.
+ * <p>
+ * Every case- and accent-folded name is split into overlapping three-character grams, and each gram maps to
+ * the sorted ordinals of the employees whose name contains it. A search intersects the posting lists of the
+ * query's grams, starting from the shortest, and only the surviving candidates are compared against the
+ * query in the requested matching mode. Queries shorter than three characters have no grams and fall back to
+ * a scan. Results are returned in list order.
+ * <p>
+ * The index is immutable. {@link #withAdded(Employee)} appends one ordinal to the posting lists of the new
+ * name; {@link #withReplaced(Employee)} keeps the ordinal of the employee it replaces, so it stays in list order;
+ * {@link #withRemoved(String)} leaves a tombstone that searches skip, and the index is rebuilt compacted once
+ * tombstones outnumber live employees.
+ */
+public final class NameIndex {
+
+    private static final int GRAM = 3;
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final Employee[] rows;
+    private final Map<Long, int[]> postings;
+    private final int tombstones;
+
+    private NameIndex(Employee[] rows, Map<Long, int[]> postings, int tombstones) {
+        this.rows = rows;
+        this.postings = postings;
+        this.tombstones = tombstones;
+    }
+
+    public static NameIndex build(List<Employee> employeeList) {
+        Employee[] rows = employeeList.toArray(new Employee[0]);
+        Map<Long, int[]> postings = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int ordinal = 0; ordinal < rows.length; ordinal++) {
+            for (long gram : grams(indexedName(rows[ordinal]))) {
+                int[] list = postings.getOrDefault(gram, NO_POSTINGS);
+                int size = sizes.getOrDefault(gram, 0);
+                if (size == list.length) {
+                    list = Arrays.copyOf(list, Math.max(4, size * 2));
+                    postings.put(gram, list);
+                }
+                list[size] = ordinal;
+                sizes.put(gram, size + 1);
+            }
+        }
+        postings.replaceAll((gram, list) -> Arrays.copyOf(list, sizes.get(gram)));
+        return new NameIndex(rows, postings, 0);
+    }
+
+    /**
+     * Finds the employees whose name contains {@code searchString}.
+     *
+     * @param searchString  Text to look for.
+     * @param ignoreCase    Match regardless of letter case.
+     * @param ignoreAccents Match regardless of accents, e.g. {@code Jose} matches {@code José}.
+     * @return The matching employees in list order.
+     */
+    public List<Employee> search(String searchString, boolean ignoreCase, boolean ignoreAccents) {
+        String query = NameFolding.fold(searchString, ignoreCase, ignoreAccents);
+        long[] queryGrams = grams(NameFolding.fold(searchString, true, true));
+        List<Employee> result = new ArrayList<>();
+        if (queryGrams.length == 0) {
+            for (Employee employee : rows) {
+                if (matches(employee, query, ignoreCase, ignoreAccents)) {
+                    result.add(employee);
+                }
+            }
+            return result;
+        }
+        int[][] lists = new int[queryGrams.length][];
+        for (int i = 0; i < queryGrams.length; i++) {
+            lists[i] = postings.get(queryGrams[i]);
+            if (lists[i] == null) {
+                return result;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        int[] candidates = lists[0];
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            candidates = intersect(candidates, count, lists[i]);
+            count = candidates.length;
+        }
+        for (int i = 0; i < count; i++) {
+            Employee employee = rows[candidates[i]];
+            if (matches(employee, query, ignoreCase, ignoreAccents)) {
+                result.add(employee);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of this index that also contains {@code employee}, after all current employees.
+     */
+    public NameIndex withAdded(Employee employee) {
+        int ordinal = rows.length;
+        Employee[] newRows = Arrays.copyOf(rows, ordinal + 1);
+        newRows[ordinal] = employee;
+        Map<Long, int[]> newPostings = new HashMap<>(postings);
+        for (long gram : grams(indexedName(employee))) {
+            int[] list = newPostings.getOrDefault(gram, NO_POSTINGS);
+            int[] newList = Arrays.copyOf(list, list.length + 1);
+            newList[list.length] = ordinal;
+            newPostings.put(gram, newList);
+        }
+        return new NameIndex(newRows, newPostings, tombstones);
+    }
+
+    /**
+     * Returns a copy of this index with {@code employee} in place of the employee with the same id, at the same
+     * position in the results, or with {@code employee} added if there is none.
+     */
+    public NameIndex withReplaced(Employee employee) {
+        int ordinal = ordinalOf(employee.getId());
+        if (ordinal < 0) {
+            return withAdded(employee);
+        }
+        Employee[] newRows = rows.clone();
+        newRows[ordinal] = employee;
+        long[] oldGrams = grams(indexedName(rows[ordinal]));
+        long[] newGrams = grams(indexedName(employee));
+        if (Arrays.equals(oldGrams, newGrams)) {
+            return new NameIndex(newRows, postings, tombstones);
+        }
+        Map<Long, int[]> newPostings = new HashMap<>(postings);
+        for (long gram : oldGrams) {
+            if (Arrays.binarySearch(newGrams, gram) < 0) {
+                int[] list = newPostings.get(gram);
+                int at = Arrays.binarySearch(list, ordinal);
+                int[] newList = new int[list.length - 1];
+                System.arraycopy(list, 0, newList, 0, at);
+                System.arraycopy(list, at + 1, newList, at, list.length - at - 1);
+                if (newList.length == 0) {
+                    newPostings.remove(gram);
+                } else {
+                    newPostings.put(gram, newList);
+                }
+            }
+        }
+        for (long gram : newGrams) {
+            if (Arrays.binarySearch(oldGrams, gram) < 0) {
+                int[] list = newPostings.getOrDefault(gram, NO_POSTINGS);
+                // Posting lists stay sorted for the intersection.
+                int at = -Arrays.binarySearch(list, ordinal) - 1;
+                int[] newList = new int[list.length + 1];
+                System.arraycopy(list, 0, newList, 0, at);
+                newList[at] = ordinal;
+                System.arraycopy(list, at, newList, at + 1, list.length - at);
+                newPostings.put(gram, newList);
+            }
+        }
+        return new NameIndex(newRows, newPostings, tombstones);
+    }
+
+    /**
+     * Returns a copy of this index without the employee with the given id, or this index if it is not present.
+     */
+    public NameIndex withRemoved(String id) {
+        int ordinal = ordinalOf(id);
+        if (ordinal < 0) {
+            return this;
+        }
+        Employee[] newRows = rows.clone();
+        newRows[ordinal] = null;
+        if (tombstones + 1 > rows.length - tombstones - 1) {
+            List<Employee> live = new ArrayList<>();
+            for (Employee employee : newRows) {
+                if (employee != null) {
+                    live.add(employee);
+                }
+            }
+            return build(live);
+        }
+        return new NameIndex(newRows, postings, tombstones + 1);
+    }
+
+    private int ordinalOf(String id) {
+        for (int ordinal = 0; ordinal < rows.length; ordinal++) {
+            if (rows[ordinal] != null && Objects.equals(rows[ordinal].getId(), id)) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(Employee employee, String query, boolean ignoreCase, boolean ignoreAccents) {
+        return employee != null
+                && employee.getEmployee_name() != null
+                && NameFolding.fold(employee.getEmployee_name(), ignoreCase, ignoreAccents).contains(query);
+    }
+
+    private static String indexedName(Employee employee) {
+        String name = employee.getEmployee_name();
+        return name == null ? "" : NameFolding.fold(name, true, true);
+    }
+
+    /**
+     * Distinct trigrams of {@code text}, each packed as three 16-bit chars into a {@code long}.
+     */
+    private static long[] grams(String text) {
+        int count = text.length() - GRAM + 1;
+        if (count <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int[] intersect(int[] left, int leftSize, int[] right) {
+        int[] result = new int[Math.min(leftSize, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < leftSize && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Numeric employee fields that employees can be ranked by.
+ */
+public enum RankingField {
+    SALARY(Employee::getEmployee_salary, EmployeeRecord::getEmployee_salary),
+    AGE(Employee::getEmployee_age, EmployeeRecord::getEmployee_age);
+
+    private final Function<Employee, String> accessor;
+    private final ToIntFunction<EmployeeRecord> recordAccessor;
+
+    RankingField(Function<Employee, String> accessor, ToIntFunction<EmployeeRecord> recordAccessor) {
+        this.accessor = accessor;
+        this.recordAccessor = recordAccessor;
+    }
+
+    /**
+     * Parses the field value of {@code employee}.
+     *
+     * @return The value, or {@code null} when it is missing or not a valid integer.
+     */
+    public Integer valueOf(Employee employee) {
+        return parse(accessor.apply(employee));
+    }
+
+    /**
+     * Reads the already parsed field value of {@code record}.
+     *
+     * @return The value, or {@link EmployeeRecord#NO_VALUE} when it is missing.
+     */
+    public int valueOf(EmployeeRecord record) {
+        return recordAccessor.applyAsInt(record);
+    }
+
+    /**
+     * Parses a raw field value the way {@link #valueOf(Employee)} does.
+     *
+     * @return The value, or {@code null} when it is missing or not a non-negative integer.
+     */
+    public static Integer parse(String value) {
+        int parsed = EmployeeRecord.parseLenient(value);
+        return parsed == EmployeeRecord.NO_VALUE ? null : parsed;
+    }
+
+    /**
+     * Resolves a request parameter such as {@code salary} or {@code age}, ignoring case.
+     *
+     * @throws BadRequestException If the name does not match a field.
+     */
+    public static RankingField fromParameter(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cannot rank employees by: " + name);
+        }
+    }
+}
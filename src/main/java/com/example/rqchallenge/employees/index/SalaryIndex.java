@@ -0,0 +1,183 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Employees ordered by salary, highest first, with the salaries held as primitive {@code int} keys.
+ * <p>
+ * Salaries are parsed once when the index is built, so the highest salary is a single array read and the
+ * top N employees are the first N entries. The index is immutable; {@link #withAdded(Employee)},
+ * {@link #withReplaced(Employee)} and {@link #withRemoved(String)} return a patched copy in O(n) array copies
+ * instead of re-sorting and re-parsing the whole list. Employees whose salary is not a non-negative integer, which
+ * {@link EmployeeRecord} would reject, are left out of the index.
+ */
+public final class SalaryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalaryIndex.class);
+
+    private static final SalaryIndex EMPTY = new SalaryIndex(new int[0], new Employee[0]);
+
+    private final int[] salaries;
+    private final Employee[] employees;
+
+    private SalaryIndex(int[] salaries, Employee[] employees) {
+        this.salaries = salaries;
+        this.employees = employees;
+    }
+
+    /**
+     * Builds the index for a list of employees. Employees with the same salary keep their list order.
+     */
+    public static SalaryIndex build(List<Employee> employeeList) {
+        int size = employeeList.size();
+        long[] keys = new long[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            Integer salary = parseSalary(employeeList.get(i));
+            if (salary != null) {
+                // Inverted salary in the high half sorts highest first; the ordinal in the low half keeps ties stable.
+                keys[count++] = ((long) ~salary << 32) | i;
+            }
+        }
+        if (count == 0) {
+            return EMPTY;
+        }
+        Arrays.sort(keys, 0, count);
+        int[] salaries = new int[count];
+        Employee[] employees = new Employee[count];
+        for (int i = 0; i < count; i++) {
+            int ordinal = (int) keys[i];
+            employees[i] = employeeList.get(ordinal);
+            salaries[i] = ~(int) (keys[i] >> 32);
+        }
+        return new SalaryIndex(salaries, employees);
+    }
+
+    public static SalaryIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return salaries.length;
+    }
+
+    /**
+     * @return The highest salary, or {@code null} when the index is empty.
+     */
+    public Integer highestSalary() {
+        return salaries.length == 0 ? null : salaries[0];
+    }
+
+    /**
+     * @return The lowest salary, or {@code null} when the index is empty.
+     */
+    public Integer lowestSalary() {
+        return salaries.length == 0 ? null : salaries[salaries.length - 1];
+    }
+
+    /**
+     * @return Up to {@code n} employees with the highest salaries, highest first.
+     */
+    public List<Employee> top(int n) {
+        int limit = Math.min(Math.max(n, 0), employees.length);
+        List<Employee> result = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            result.add(employees[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a copy of this index that also contains {@code employee}, placed after any employees
+     * that already earn the same salary.
+     */
+    public SalaryIndex withAdded(Employee employee) {
+        Integer salary = parseSalary(employee);
+        if (salary == null) {
+            return this;
+        }
+        int position = insertionPoint(salary);
+        int[] newSalaries = new int[salaries.length + 1];
+        Employee[] newEmployees = new Employee[employees.length + 1];
+        System.arraycopy(salaries, 0, newSalaries, 0, position);
+        System.arraycopy(employees, 0, newEmployees, 0, position);
+        newSalaries[position] = salary;
+        newEmployees[position] = employee;
+        System.arraycopy(salaries, position, newSalaries, position + 1, salaries.length - position);
+        System.arraycopy(employees, position, newEmployees, position + 1, employees.length - position);
+        return new SalaryIndex(newSalaries, newEmployees);
+    }
+
+    /**
+     * Returns a copy of this index with {@code employee} in place of the employee with the same id, which must earn
+     * the same salary, so that it keeps its position among equal salaries; or with {@code employee} added if there
+     * is none.
+     */
+    public SalaryIndex withReplaced(Employee employee) {
+        for (int i = 0; i < employees.length; i++) {
+            if (Objects.equals(employees[i].getId(), employee.getId())) {
+                Employee[] newEmployees = employees.clone();
+                newEmployees[i] = employee;
+                return new SalaryIndex(salaries, newEmployees);
+            }
+        }
+        return withAdded(employee);
+    }
+
+    /**
+     * Returns a copy of this index without the employee with the given id, or this index if it is not present.
+     */
+    public SalaryIndex withRemoved(String id) {
+        for (int i = 0; i < employees.length; i++) {
+            if (Objects.equals(employees[i].getId(), id)) {
+                int[] newSalaries = new int[salaries.length - 1];
+                Employee[] newEmployees = new Employee[employees.length - 1];
+                System.arraycopy(salaries, 0, newSalaries, 0, i);
+                System.arraycopy(employees, 0, newEmployees, 0, i);
+                System.arraycopy(salaries, i + 1, newSalaries, i, salaries.length - i - 1);
+                System.arraycopy(employees, i + 1, newEmployees, i, employees.length - i - 1);
+                return new SalaryIndex(newSalaries, newEmployees);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * First position whose salary is strictly lower than {@code salary}, found by binary search over the
+     * descending salary array.
+     */
+    private int insertionPoint(int salary) {
+        int low = 0;
+        int high = salaries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (salaries[mid] >= salary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Integer parseSalary(Employee employee) {
+        String salary = employee.getEmployee_salary();
+        if (salary == null) {
+            return null;
+        }
+        int parsed = EmployeeRecord.parseLenient(salary);
+        if (parsed == EmployeeRecord.NO_VALUE) {
+            logger.warn("Ignoring employee {} with invalid salary: {}", employee.getId(), salary);
+            return null;
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Count, sum and distribution of salaries, kept in a quantile sketch with relative error guarantees (DDSketch).
+ * <p>
+ * Salaries are counted in logarithmic bins: bin {@code k >= 1} holds the salaries in
+ * {@code (gamma^(k-2), gamma^(k-1)]} with {@code gamma = (1 + a) / (1 - a)} and {@code a = }{@link #RELATIVE_ACCURACY},
+ * bin 0 holds the salaries of 0. Every salary of a bin is within {@code a} of the bin's value, so:
+ * <ul>
+ *     <li>{@link #quantile(double)} answers within 1% of the salary at that rank, rounded to a whole salary;</li>
+ *     <li>{@link #countAtMost(int)} counts exactly except for salaries within 2% above the bound, which may be
+ *     counted as well;</li>
+ *     <li>count and sum are exact.</li>
+ * </ul>
+ * The bins of every salary up to {@link Integer#MAX_VALUE} fit in about a thousand counters, whatever the number of
+ * employees. Unlike t-digest or KLL sketches, the bins are plain counts, so a salary is removed as exactly as it was
+ * added and sketches of disjoint lists merge by adding their bins.
+ * <p>
+ * The sketch is immutable; {@link #withAdded(Employee)}, {@link #withRemoved(Employee)} and
+ * {@link #patched(Collection, Collection)} return a patched copy. Employees whose salary is not a non-negative
+ * integer are left out.
+ */
+public final class SalarySketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private static final int BINS = binOf(Integer.MAX_VALUE) + 1;
+
+    private static final SalarySketch EMPTY = new SalarySketch(new long[BINS], 0, 0);
+
+    private final long[] bins;
+    private final long count;
+    private final long sum;
+
+    private SalarySketch(long[] bins, long count, long sum) {
+        this.bins = bins;
+        this.count = count;
+        this.sum = sum;
+    }
+
+    public static SalarySketch build(List<Employee> employeeList) {
+        return EMPTY.patched(List.of(), employeeList);
+    }
+
+    public static SalarySketch empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return The number of salaries in the sketch.
+     */
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /**
+     * @return The mean salary, or {@code null} when the sketch is empty.
+     */
+    public Double mean() {
+        return count == 0 ? null : (double) sum / count;
+    }
+
+    /**
+     * @param q The rank as a fraction between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return The salary at rank {@code q}, within {@link #RELATIVE_ACCURACY}, or {@code null} when the sketch is
+     *         empty.
+     */
+    public Integer quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return null;
+        }
+        // The lower quantile: the salary with (count - 1) * q salaries below it.
+        long rank = (long) (q * (count - 1));
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += bins[bin];
+            if (seen > rank) {
+                return valueOf(bin);
+            }
+        }
+        throw new IllegalStateException("Salary sketch counts " + count + " salaries but its bins " + seen);
+    }
+
+    /**
+     * @return The number of salaries up to {@code bound}, plus any salaries in the same bin above it.
+     */
+    public long countAtMost(int bound) {
+        if (bound < 0) {
+            return 0;
+        }
+        long counted = 0;
+        for (int bin = 0, last = binOf(bound); bin <= last; bin++) {
+            counted += bins[bin];
+        }
+        return counted;
+    }
+
+    /**
+     * @return A sketch of the salaries of both sketches.
+     */
+    public SalarySketch merge(SalarySketch other) {
+        long[] merged = bins.clone();
+        for (int bin = 0; bin < BINS; bin++) {
+            merged[bin] += other.bins[bin];
+        }
+        return new SalarySketch(merged, count + other.count, sum + other.sum);
+    }
+
+    public SalarySketch withAdded(Employee employee) {
+        return patched(List.of(), List.of(employee));
+    }
+
+    public SalarySketch withRemoved(Employee employee) {
+        return patched(List.of(employee), List.of());
+    }
+
+    /**
+     * Returns a copy of this sketch without the salaries of {@code removed} and with those of {@code added}, which
+     * copies the bins once for the whole batch. The removed employees must have been added before.
+     */
+    public SalarySketch patched(Collection<Employee> removed, Collection<Employee> added) {
+        long[] newBins = bins.clone();
+        long newCount = count;
+        long newSum = sum;
+        for (Employee employee : removed) {
+            int salary = salaryOf(employee);
+            if (salary >= 0) {
+                newBins[binOf(salary)]--;
+                newCount--;
+                newSum -= salary;
+            }
+        }
+        for (Employee employee : added) {
+            int salary = salaryOf(employee);
+            if (salary >= 0) {
+                newBins[binOf(salary)]++;
+                newCount++;
+                newSum += salary;
+            }
+        }
+        return new SalarySketch(newBins, newCount, newSum);
+    }
+
+    private static int binOf(int salary) {
+        return salary == 0 ? 0 : 1 + (int) Math.ceil(Math.log(salary) / LOG_GAMMA);
+    }
+
+    /**
+     * The value within {@link #RELATIVE_ACCURACY} of every salary of the bin.
+     */
+    private static int valueOf(int bin) {
+        return bin == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.round(2 * Math.pow(GAMMA, bin - 1) / (GAMMA + 1)));
+    }
+
+    /**
+     * @return The salary of {@code employee}, or {@link EmployeeRecord#NO_VALUE} when it is missing or invalid.
+     */
+    private static int salaryOf(Employee employee) {
+        return EmployeeRecord.parseLenient(employee.getEmployee_salary());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Selects the {@code k} employees with the highest value of a {@link RankingField} in a single pass.
+ * <p>
+ * Candidates are kept in a bounded min-heap of primitive keys whose root is the weakest of the current top
+ * {@code k}, so a new employee costs one comparison when it does not qualify and O(log k) when it does.
+ * Memory is O(k) regardless of how many employees are offered. Employees with equal values keep the order
+ * in which they were offered; employees without a valid value are skipped.
+ */
+public final class TopK {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int limit;
+    private final RankingField field;
+    private int[] keys;
+    private long[] sequences;
+    private Employee[] employees;
+    private int size;
+    private long offered;
+
+    /**
+     * @param k     Number of employees to keep. The heap grows on demand, so a {@code k} larger than the
+     *              number of employees offered does not allocate up front.
+     * @param field Field to rank by.
+     */
+    public TopK(int k, RankingField field) {
+        this.limit = Math.max(k, 0);
+        this.field = field;
+        int capacity = Math.min(limit, INITIAL_CAPACITY);
+        this.keys = new int[capacity];
+        this.sequences = new long[capacity];
+        this.employees = new Employee[capacity];
+    }
+
+    /**
+     * Selects the top {@code k} employees of {@code employeeList}, highest first.
+     */
+    public static List<Employee> select(Iterable<Employee> employeeList, int k, RankingField field) {
+        TopK topK = new TopK(k, field);
+        for (Employee employee : employeeList) {
+            topK.offer(employee);
+        }
+        return topK.result();
+    }
+
+    /**
+     * Selects the top {@code k} employees of {@code employeeList}, highest first, ranking by the values already
+     * parsed into {@code records}, which must hold the record of each employee at the same position.
+     */
+    public static List<Employee> select(List<Employee> employeeList, List<EmployeeRecord> records, int k, RankingField field) {
+        TopK topK = new TopK(k, field);
+        for (int i = 0; i < records.size(); i++) {
+            int value = field.valueOf(records.get(i));
+            if (value != EmployeeRecord.NO_VALUE) {
+                topK.offer(value, employeeList.get(i));
+            }
+        }
+        return topK.result();
+    }
+
+    public void offer(Employee employee) {
+        Integer value = field.valueOf(employee);
+        if (value != null) {
+            offer(value, employee);
+        }
+    }
+
+    /**
+     * Offers an employee whose ranking value has already been parsed.
+     */
+    public void offer(int key, Employee employee) {
+        long sequence = offered++;
+        if (limit == 0) {
+            return;
+        }
+        if (size < limit) {
+            if (size == keys.length) {
+                grow();
+            }
+            keys[size] = key;
+            sequences[size] = sequence;
+            employees[size] = employee;
+            siftUp(size++);
+        } else if (key > keys[0]) {
+            keys[0] = key;
+            sequences[0] = sequence;
+            employees[0] = employee;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Tells whether an employee with ranking value {@code key} offered now would be kept, so callers can skip
+     * building employees that would be discarded straight away.
+     */
+    public boolean accepts(int key) {
+        return size < limit || (limit > 0 && key > keys[0]);
+    }
+
+    /**
+     * @return The selected employees, highest first.
+     */
+    public List<Employee> result() {
+        List<Employee> result = new ArrayList<>(size);
+        TopK copy = copy();
+        while (copy.size > 0) {
+            result.add(copy.employees[0]);
+            copy.removeRoot();
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void grow() {
+        int capacity = (int) Math.min(limit, Math.max(INITIAL_CAPACITY, 2L * keys.length));
+        keys = Arrays.copyOf(keys, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+        employees = Arrays.copyOf(employees, capacity);
+    }
+
+    private TopK copy() {
+        TopK copy = new TopK(limit, field);
+        copy.keys = Arrays.copyOf(keys, size);
+        copy.sequences = Arrays.copyOf(sequences, size);
+        copy.employees = Arrays.copyOf(employees, size);
+        copy.size = size;
+        return copy;
+    }
+
+    private void removeRoot() {
+        size--;
+        keys[0] = keys[size];
+        sequences[0] = sequences[size];
+        employees[0] = employees[size];
+        employees[size] = null;
+        siftDown(0);
+    }
+
+    /**
+     * Heap order: the root is the weakest entry, i.e. the lowest key and, among equal keys, the one offered last.
+     */
+    private boolean weaker(int i, int j) {
+        return keys[i] < keys[j] || (keys[i] == keys[j] && sequences[i] > sequences[j]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!weaker(i, parent)) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int weakest = left + 1 < size && weaker(left + 1, left) ? left + 1 : left;
+            if (!weaker(weakest, i)) {
+                return;
+            }
+            swap(i, weakest);
+            i = weakest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long sequence = sequences[i];
+        sequences[i] = sequences[j];
+        sequences[j] = sequence;
+        Employee employee = employees[i];
+        employees[i] = employees[j];
+        employees[j] = employee;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.rqchallenge.employees.metrics;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.SingleFlight;
+import com.example.rqchallenge.employees.config.UpstreamConnectionPoolGauges;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the gateway's own counters and gauges: snapshot cache hits, misses, background refreshes and
+ * stale-if-error fallbacks, and the utilisation of the blocking upstream connection pool. {@link #bindSingleFlight}
+ * lets the services publish their {@link SingleFlight}s, which they own.
+ */
+@Component
+public class EmployeeMetrics implements MeterBinder {
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    @Autowired
+    UpstreamConnectionPoolGauges connectionPool;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employees.cache.requests", snapshotCache, EmployeeSnapshotCache::getHits)
+                .description("Snapshot reads served from the cache, including stale ones")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("employees.cache.requests", snapshotCache, EmployeeSnapshotCache::getMisses)
+                .description("Snapshot reads that loaded the employee list from the upstream")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("employees.cache.refreshes", snapshotCache, EmployeeSnapshotCache::getRefreshes)
+                .description("Background refreshes of a stale snapshot")
+                .register(registry);
+        FunctionCounter.builder("employees.cache.revalidations", snapshotCache, EmployeeSnapshotCache::getRevalidations)
+                .description("Snapshot loads the upstream answered with 304 Not Modified")
+                .register(registry);
+        FunctionCounter.builder("employees.cache.stale.if.error", snapshotCache, EmployeeSnapshotCache::getStaleIfError)
+                .description("Expired snapshots served because the upstream failed")
+                .register(registry);
+
+        connectionGauge(registry, "leased", "Connections handed out to requests", UpstreamConnectionPoolGauges::getLeased);
+        connectionGauge(registry, "available", "Idle connections kept alive", UpstreamConnectionPoolGauges::getAvailable);
+        connectionGauge(registry, "pending", "Requests waiting for a connection", UpstreamConnectionPoolGauges::getPending);
+        connectionGauge(registry, "max", "Pool limit over all routes", UpstreamConnectionPoolGauges::getMax);
+    }
+
+    private void connectionGauge(MeterRegistry registry, String state, String description, ToDoubleFunction<UpstreamConnectionPoolGauges> value) {
+        Gauge.builder("upstream.connections", connectionPool, value)
+                .description(description)
+                .tag("state", state)
+                .register(registry);
+    }
+
+    /**
+     * Publishes the calls started by {@code flight} and the callers that shared another caller's call, tagged
+     * with {@code name}. The ratio of the two is the fan-in saved on the upstream.
+     */
+    public static void bindSingleFlight(MeterRegistry registry, String name, SingleFlight<?, ?> flight) {
+        FunctionCounter.builder("employees.singleflight.calls", flight, SingleFlight::getCalls)
+                .description("Upstream calls started")
+                .tag("flight", name)
+                .register(registry);
+        FunctionCounter.builder("employees.singleflight.shared", flight, SingleFlight::getShared)
+                .description("Callers that received the result of a call already in flight")
+                .tag("flight", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.rqchallenge.employees.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records every call to the employee upstream, tagged with the property that configures its URL
+ * ({@code GET_ALL_EMPLOYEES}, {@code CREATE_EMPLOYEE}, ...) rather than the URL itself, so employee ids never
+ * become tag values.
+ * <ul>
+ *     <li>{@code upstream.requests}: a timer from sending the request until the response body is closed, tagged
+ *     with {@code upstream}, {@code method}, {@code status} and {@code outcome};</li>
+ *     <li>{@code upstream.errors}: a counter of error statuses and failed exchanges, tagged with {@code upstream}
+ *     and {@code error}, the status code or the exception class;</li>
+ *     <li>{@code upstream.request.size} and {@code upstream.response.size}: the bytes of each body.</li>
+ * </ul>
+ * Installed as an interceptor on the {@code RestTemplate} and as a filter on the reactive {@code WebClient}. The
+ * reactive client serializes request bodies while sending them, so it only records response sizes.
+ */
+@Component
+public class UpstreamMetrics implements ClientHttpRequestInterceptor, ExchangeFilterFunction {
+
+    static final String OTHER = "OTHER";
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${GET_ALL_EMPLOYEES}")
+    private String getAllEmployees;
+
+    @Value("${GET_EMPLOYEES_BY_NAME_SEARCH:${GET_ALL_EMPLOYEES}}")
+    private String getEmployeesByNameSearch;
+
+    @Value("${GET_EMPLOYEE_BY_ID}")
+    private String getEmployeeById;
+
+    @Value("${CREATE_EMPLOYEE}")
+    private String createEmployee;
+
+    @Value("${DELETE_EMPLOYEE}")
+    private String deleteEmployee;
+
+    @Value("${CREATE_EMPLOYEES_BATCH:}")
+    private String createEmployeesBatch;
+
+    @Value("${DELETE_EMPLOYEES_BATCH:}")
+    private String deleteEmployeesBatch;
+
+    @Value("${GET_CHANGES:}")
+    private String getChanges;
+
+    @Value("${employees.aggregation.streaming-url:${GET_ALL_EMPLOYEES}}")
+    private String streamingAggregationUrl;
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+
+    @PostConstruct
+    void resolveEndpoints() {
+        // On equal URLs the first one wins, so the list read is GET_ALL_EMPLOYEES unless configured apart.
+        endpoints.add(new Endpoint("GET_ALL_EMPLOYEES", HttpMethod.GET, getAllEmployees));
+        endpoints.add(new Endpoint("GET_EMPLOYEES_BY_NAME_SEARCH", HttpMethod.GET, getEmployeesByNameSearch));
+        endpoints.add(new Endpoint("STREAMING_AGGREGATION", HttpMethod.GET, streamingAggregationUrl));
+        endpoints.add(new Endpoint("GET_EMPLOYEE_BY_ID", HttpMethod.GET, getEmployeeById));
+        endpoints.add(new Endpoint("CREATE_EMPLOYEE", HttpMethod.POST, createEmployee));
+        endpoints.add(new Endpoint("DELETE_EMPLOYEE", HttpMethod.DELETE, deleteEmployee));
+        endpoints.add(new Endpoint("CREATE_EMPLOYEES_BATCH", HttpMethod.POST, createEmployeesBatch));
+        endpoints.add(new Endpoint("DELETE_EMPLOYEES_BATCH", HttpMethod.DELETE, deleteEmployeesBatch));
+        endpoints.add(new Endpoint("GET_CHANGES", HttpMethod.GET, getChanges));
+    }
+
+    /**
+     * @return The property whose URL is the longest prefix of {@code uri}, ignoring the query, among the upstream
+     *         endpoints called with {@code method}; {@value #OTHER} when none matches.
+     */
+    public String upstreamOf(HttpMethod method, URI uri) {
+        String url = uri.toString();
+        int query = url.indexOf('?');
+        if (query >= 0) {
+            url = url.substring(0, query);
+        }
+        Endpoint best = null;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.matches(method, url) && (best == null || endpoint.url.length() > best.url.length())) {
+                best = endpoint;
+            }
+        }
+        return best == null ? OTHER : best.key;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String upstream = upstreamOf(request.getMethod(), request.getURI());
+        String method = String.valueOf(request.getMethod());
+        summary("upstream.request.size", upstream).record(body.length);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            failed(sample, upstream, method, e);
+            throw e;
+        }
+        return new MeteredResponse(response, sample, upstream, method);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String upstream = upstreamOf(request.method(), request.url());
+        String method = request.method().name();
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return next.exchange(request)
+                    .doOnError(e -> failed(sample, upstream, method, e))
+                    .map(response -> {
+                        LongAdder bytes = new LongAdder();
+                        AtomicBoolean recorded = new AtomicBoolean();
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnNext(buffer -> bytes.add(buffer.readableByteCount()))
+                                        .doFinally(signal -> {
+                                            if (recorded.compareAndSet(false, true)) {
+                                                completed(sample, upstream, method, response.rawStatusCode(), bytes.sum());
+                                            }
+                                        }))
+                                .build();
+                    });
+        });
+    }
+
+    private void completed(Timer.Sample sample, String upstream, String method, int status, long responseBytes) {
+        sample.stop(timer(upstream, method, String.valueOf(status), Outcome.forStatus(status).name()));
+        summary("upstream.response.size", upstream).record(responseBytes);
+        if (status >= 400) {
+            errors(upstream, String.valueOf(status)).increment();
+        }
+    }
+
+    private void failed(Timer.Sample sample, String upstream, String method, Throwable e) {
+        sample.stop(timer(upstream, method, "IO_ERROR", Outcome.UNKNOWN.name()));
+        errors(upstream, e.getClass().getSimpleName()).increment();
+    }
+
+    private Timer timer(String upstream, String method, String status, String outcome) {
+        return Timer.builder("upstream.requests")
+                .description("Calls to the employee upstream")
+                .tags(Tags.of("upstream", upstream, "method", method, "status", status, "outcome", outcome))
+                .register(meterRegistry);
+    }
+
+    private Counter errors(String upstream, String error) {
+        return Counter.builder("upstream.errors")
+                .description("Error responses and failed calls to the employee upstream")
+                .tags(Tags.of("upstream", upstream, "error", error))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary summary(String name, String upstream) {
+        return DistributionSummary.builder(name)
+                .baseUnit("bytes")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    private static final class Endpoint {
+
+        private final String key;
+        private final HttpMethod method;
+        private final String url;
+
+        Endpoint(String key, HttpMethod method, String url) {
+            this.key = key;
+            this.method = method;
+            this.url = url == null ? "" : url;
+        }
+
+        boolean matches(HttpMethod method, String url) {
+            if (this.url.isEmpty() || this.method != method || !url.startsWith(this.url)) {
+                return false;
+            }
+            return url.length() == this.url.length() || url.charAt(this.url.length()) == '/';
+        }
+    }
+
+    /**
+     * Counts the body bytes as they are read and records the call when the body is closed, which the
+     * {@code RestTemplate} does once the response has been extracted, including streamed extractions.
+     */
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final Timer.Sample sample;
+        private final String upstream;
+        private final String method;
+        private long bytes;
+        private boolean recorded;
+
+        MeteredResponse(ClientHttpResponse response, Timer.Sample sample, String upstream, String method) {
+            this.response = response;
+            this.sample = sample;
+            this.upstream = upstream;
+            this.method = method;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(response.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        bytes++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    if (read > 0) {
+                        bytes += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    bytes += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public boolean markSupported() {
+                    // A reset would count the re-read bytes twice.
+                    return false;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                int status;
+                try {
+                    status = response.getRawStatusCode();
+                } catch (IOException e) {
+                    status = 0;
+                }
+                completed(sample, upstream, method, status, bytes);
+            }
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rqchallenge.employees.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The point in time by which the current request must be answered.
+ * <p>
+ * {@link DeadlineFilter} starts one for every gateway request and binds it to the request thread; upstream calls
+ * made on that thread read it with {@link #current()} to bound their timeouts and pass the remaining time on in the
+ * {@value #HEADER} header. Work handed to other threads carries it along with {@link #callWith}.
+ */
+public final class Deadline {
+
+    /**
+     * Request header with the time in milliseconds the caller is prepared to wait for the response.
+     */
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * @return The deadline bound to the calling thread, or {@code null} when it has none.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code call} with {@code deadline} bound to the calling thread, restoring the previous binding after.
+     */
+    public static <T> T callWith(Deadline deadline, Supplier<T> call) {
+        Deadline previous = CURRENT.get();
+        set(deadline);
+        try {
+            return call.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    static void set(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public long remainingNanos() {
+        return expiresAtNanos - System.nanoTime();
+    }
+
+    /**
+     * @return The time left, rounded down, and never negative.
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos()));
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @return {@code timeoutMs}, shortened to the time left before the deadline but at least 1 ms, since 0
+     *         means no timeout to the HTTP client.
+     */
+    public int bound(int timeoutMs) {
+        return (int) Math.max(1, Math.min(timeoutMs, remainingMillis()));
+    }
+}
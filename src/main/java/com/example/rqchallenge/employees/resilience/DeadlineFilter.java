@@ -0,0 +1,62 @@
+package com.example.rqchallenge.employees.resilience;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Binds a {@link Deadline} to every {@code /employees} request for the duration of its handling.
+ * <p>
+ * The deadline is the {@value Deadline#HEADER} header of the request when the client sends one, capped at
+ * {@code employees.deadline.max-ms}, and {@code employees.deadline.default-ms} otherwise; 0 disables the default.
+ * Streamed responses are written after the request thread has returned and are not bound by it.
+ */
+@Component
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    @Value("${employees.deadline.default-ms:10000}")
+    private long defaultMs;
+
+    @Value("${employees.deadline.max-ms:60000}")
+    private long maxMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/employees");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long timeoutMs = timeoutMs(request.getHeader(Deadline.HEADER));
+        if (timeoutMs <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Deadline previous = Deadline.current();
+        Deadline.set(Deadline.after(Math.min(timeoutMs, maxMs)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Deadline.set(previous);
+        }
+    }
+
+    private long timeoutMs(String header) {
+        if (header == null || header.isBlank()) {
+            return defaultMs;
+        }
+        try {
+            // A client that has already run out of time gets the shortest deadline rather than none.
+            return Math.max(1, Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return defaultMs;
+        }
+    }
+}
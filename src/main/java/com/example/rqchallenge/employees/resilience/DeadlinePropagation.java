@@ -0,0 +1,43 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+/**
+ * Carries the {@link Deadline} of the current request over to upstream calls.
+ * <p>
+ * The upstream learns the time left from the {@value Deadline#HEADER} header. A call is not sent at all once the
+ * deadline has passed, and a timeout that the deadline cut short is reported as an {@link UpstreamTimeoutException}
+ * rather than an I/O error, so that it is neither retried nor counted against the upstream by the circuit breaker.
+ */
+@Component
+public class DeadlinePropagation implements ClientHttpRequestInterceptor {
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return execution.execute(request, body);
+        }
+        if (deadline.isExpired()) {
+            throw new UpstreamTimeoutException("Request deadline exceeded before calling " + request.getURI().getPath(), null);
+        }
+        request.getHeaders().set(Deadline.HEADER, Long.toString(deadline.remainingMillis()));
+        try {
+            return execution.execute(request, body);
+        } catch (SocketTimeoutException | ConnectionPoolTimeoutException e) {
+            if (deadline.isExpired()) {
+                throw new UpstreamTimeoutException("Request deadline exceeded waiting for " + request.getURI().getPath(), e);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedged upstream reads: when a call has not answered within the recent {@code employees.hedging.percentile}
+ * latency of its upstream, the same call is sent a second time and whichever answers first is used.
+ * <p>
+ * The delay is only known once {@code employees.hedging.min-samples} calls have succeeded; until then calls are not
+ * hedged. Each upstream has a budget that every call adds {@code employees.hedging.budget-percent} of a hedge to, up
+ * to a burst of {@code employees.hedging.max-burst} hedges, so a slow upstream sees at most that many extra calls
+ * rather than twice its load. Only idempotent reads may be hedged.
+ * <p>
+ * The call itself runs on the calling thread; only the hedge runs on a pool of at most {@code max-burst} threads,
+ * and is skipped rather than queued when they are all busy. Whichever call loses is aborted: the HTTP client
+ * registers every request it sends with {@link #abortable(Runnable)}, and an aborted call is neither retried nor
+ * counted against the upstream by {@link UpstreamResilience}.
+ * <p>
+ * With {@code employees.hedging.enabled=false} calls run on the calling thread as before.
+ */
+@Component
+public class HedgedRequests {
+
+    private static final long MILLI_HEDGES_PER_HEDGE = 1000;
+
+    private static final ThreadLocal<Attempt> CURRENT = new ThreadLocal<>();
+
+    @Value("${employees.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${employees.hedging.percentile:0.95}")
+    private double percentile;
+
+    @Value("${employees.hedging.min-samples:100}")
+    private int minSamples;
+
+    @Value("${employees.hedging.window:1000}")
+    private int window;
+
+    @Value("${employees.hedging.min-delay-ms:1}")
+    private long minDelayMs;
+
+    @Value("${employees.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${employees.hedging.max-burst:10}")
+    private int maxBurst;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Upstream> upstreams = new ConcurrentHashMap<>();
+
+    private ScheduledThreadPoolExecutor timer;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        timer = new ScheduledThreadPoolExecutor(1, daemon("employee-hedge-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        executor = new ThreadPoolExecutor(0, Math.max(maxBurst, 1), 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                daemon("employee-hedge-"));
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.endsWith("-") ? name + threads.incrementAndGet() : name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            timer.shutdownNow();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Registers {@code abort} to stop the upstream request the calling thread is about to send, should the hedged
+     * call it belongs to lose. Does nothing outside a hedged call.
+     */
+    public static void abortable(Runnable abort) {
+        Attempt attempt = CURRENT.get();
+        if (attempt != null) {
+            attempt.register(abort);
+        }
+    }
+
+    /**
+     * @return Whether the calling thread is running a hedged call that lost and was aborted.
+     */
+    static boolean isAborted() {
+        Attempt attempt = CURRENT.get();
+        return attempt != null && attempt.aborted;
+    }
+
+    /**
+     * Runs the read {@code call} against {@code upstream}, hedged when it is slower than usual. The {@link Deadline}
+     * of the calling thread is carried over to the hedge and bounds the wait for it.
+     *
+     * @throws UpstreamTimeoutException If the deadline passes before the hedge has answered.
+     */
+    public <T> T execute(String upstream, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        Upstream state = upstreams.computeIfAbsent(upstream, this::newUpstream);
+        state.deposit();
+        Deadline deadline = Deadline.current();
+        long delayNanos = state.latencies.percentileNanos();
+        if (delayNanos < 0) {
+            return timed(state, call);
+        }
+        delayNanos = Math.max(delayNanos, TimeUnit.MILLISECONDS.toNanos(minDelayMs));
+        if (deadline != null && deadline.remainingNanos() <= delayNanos) {
+            return timed(state, call);
+        }
+        Race<T> race = new Race<>();
+        ScheduledFuture<?> hedging = timer.schedule(() -> hedge(state, race, deadline, call), delayNanos, TimeUnit.NANOSECONDS);
+        T result;
+        try {
+            result = race.primary.run(() -> timed(state, call));
+        } catch (RuntimeException e) {
+            if (race.decided.compareAndSet(false, true)) {
+                hedging.cancel(false);
+                throw e;
+            }
+            // Either the hedge answered first and the call was aborted, or the call failed while hedged.
+            try {
+                return await(race.hedge, deadline, upstream);
+            } catch (CancellationException notHedged) {
+                throw e;
+            }
+        }
+        if (race.settled.compareAndSet(false, true)) {
+            race.secondary.abort();
+        }
+        hedging.cancel(false);
+        return result;
+    }
+
+    /**
+     * Sends the hedge of a call still running after the delay, if the budget allows and a thread is free; cancels
+     * {@code race.hedge} otherwise.
+     */
+    private <T> void hedge(Upstream state, Race<T> race, Deadline deadline, Supplier<T> call) {
+        if (!race.decided.compareAndSet(false, true)) {
+            return;
+        }
+        if (race.settled.get()) {
+            race.hedge.cancel(false);
+            return;
+        }
+        if (!state.withdraw()) {
+            state.skipped.increment();
+            race.hedge.cancel(false);
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                state.sent.increment();
+                try {
+                    T result = race.secondary.run(() -> Deadline.callWith(deadline, () -> timed(state, call)));
+                    if (race.settled.compareAndSet(false, true)) {
+                        state.won.increment();
+                        race.primary.abort();
+                    }
+                    race.hedge.complete(result);
+                } catch (RuntimeException e) {
+                    race.hedge.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            state.skipped.increment();
+            race.hedge.cancel(false);
+        }
+    }
+
+    private static <T> T timed(Upstream state, Supplier<T> call) {
+        long start = System.nanoTime();
+        T result = call.get();
+        state.latencies.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, Deadline deadline, String upstream) {
+        try {
+            return deadline == null ? future.get() : future.get(Math.max(deadline.remainingNanos(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new UpstreamTimeoutException("Request deadline exceeded waiting for " + upstream, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamUnavailableException("Interrupted waiting for " + upstream, e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        while (error instanceof ExecutionException || error instanceof CompletionException) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException && !(error instanceof CancellationException)) {
+            return (RuntimeException) error;
+        }
+        return new UpstreamUnavailableException("Upstream call failed: " + error, error);
+    }
+
+    private Upstream newUpstream(String name) {
+        Upstream state = new Upstream(name);
+        if (meterRegistry != null) {
+            Gauge.builder("upstream.hedging.delay", state.latencies, latencies -> Math.max(latencies.percentileNanos(), 0) / 1e9)
+                    .description("Time after which a call is hedged")
+                    .tag("upstream", name)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+        return state;
+    }
+
+    private Counter counter(String upstream, String result) {
+        if (meterRegistry == null) {
+            return null;
+        }
+        return Counter.builder("upstream.hedges")
+                .description("Hedged calls sent, won by the hedge, or skipped because the budget was spent")
+                .tag("upstream", upstream)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return How many hedges were sent to {@code upstream}.
+     */
+    public long getHedges(String upstream) {
+        Upstream state = upstreams.get(upstream);
+        return state == null ? 0 : state.sent.get();
+    }
+
+    private final class Upstream {
+
+        private final LatencyPercentile latencies = new LatencyPercentile(window, percentile, minSamples);
+
+        /**
+         * Thousandths of a hedge left in the budget.
+         */
+        private final AtomicLong budget = new AtomicLong();
+
+        private final MeteredCount sent;
+
+        private final MeteredCount won;
+
+        private final MeteredCount skipped;
+
+        Upstream(String name) {
+            sent = new MeteredCount(counter(name, "sent"));
+            won = new MeteredCount(counter(name, "won"));
+            skipped = new MeteredCount(counter(name, "skipped"));
+        }
+
+        void deposit() {
+            long amount = Math.round(budgetPercent * MILLI_HEDGES_PER_HEDGE / 100);
+            long cap = maxBurst * MILLI_HEDGES_PER_HEDGE;
+            budget.getAndUpdate(current -> Math.min(cap, current + amount));
+        }
+
+        boolean withdraw() {
+            long current;
+            do {
+                current = budget.get();
+                if (current < MILLI_HEDGES_PER_HEDGE) {
+                    return false;
+                }
+            } while (!budget.compareAndSet(current, current - MILLI_HEDGES_PER_HEDGE));
+            return true;
+        }
+    }
+
+    /**
+     * A call and its hedge; the first of them to succeed settles the race and aborts the other.
+     */
+    private static final class Race<T> {
+
+        private final Attempt primary = new Attempt();
+
+        private final Attempt secondary = new Attempt();
+
+        /**
+         * The result of the hedge, cancelled when no hedge is sent.
+         */
+        private final CompletableFuture<T> hedge = new CompletableFuture<>();
+
+        /**
+         * Set by the first of the timer, which then decides on the hedge, and the call failing first, which then
+         * gives up on it.
+         */
+        private final AtomicBoolean decided = new AtomicBoolean();
+
+        private final AtomicBoolean settled = new AtomicBoolean();
+    }
+
+    /**
+     * One of the calls of a race, with the means to abort the upstream request it is sending.
+     */
+    private static final class Attempt {
+
+        private volatile boolean aborted;
+
+        private Runnable abort;
+
+        <T> T run(Supplier<T> call) {
+            Attempt previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                return call.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        }
+
+        synchronized void register(Runnable abort) {
+            this.abort = abort;
+            if (aborted) {
+                abort.run();
+            }
+        }
+
+        synchronized void abort() {
+            aborted = true;
+            if (abort != null) {
+                abort.run();
+            }
+        }
+    }
+
+    private static final class MeteredCount {
+
+        private final AtomicLong count = new AtomicLong();
+
+        private final Counter counter;
+
+        MeteredCount(Counter counter) {
+            this.counter = counter;
+        }
+
+        void increment() {
+            count.incrementAndGet();
+            if (counter != null) {
+                counter.increment();
+            }
+        }
+
+        long get() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.rqchallenge.employees.resilience;
+
+import java.util.Arrays;
+
+/**
+ * A percentile of the most recent call latencies, kept in a ring of {@code window} samples.
+ * <p>
+ * The percentile is recomputed by sorting a copy of the ring every tenth of a window, so recording stays cheap and
+ * readers see a value that is at most that many calls old.
+ */
+final class LatencyPercentile {
+
+    private final long[] samples;
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private final int recomputeEvery;
+
+    private long count;
+
+    private volatile long percentileNanos = -1;
+
+    LatencyPercentile(int window, double percentile, int minSamples) {
+        this.samples = new long[Math.max(window, 1)];
+        this.percentile = percentile;
+        this.minSamples = Math.max(minSamples, 1);
+        this.recomputeEvery = Math.max(samples.length / 10, 1);
+    }
+
+    synchronized void record(long nanos) {
+        samples[(int) (count % samples.length)] = nanos;
+        count++;
+        if (count >= minSamples && (count == minSamples || count % recomputeEvery == 0)) {
+            int size = (int) Math.min(count, samples.length);
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile * size) - 1;
+            percentileNanos = sorted[Math.min(Math.max(rank, 0), size - 1)];
+        }
+    }
+
+    /**
+     * @return The percentile in nanoseconds, or -1 until {@code minSamples} latencies have been recorded.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Guards the calls to each upstream endpoint, named after the property that configures its URL
+ * ({@code GET_ALL_EMPLOYEES}, {@code CREATE_EMPLOYEE}, ...), so one slow or failing endpoint cannot tie up the
+ * whole gateway.
+ * <ul>
+ *     <li>A circuit breaker per endpoint opens when {@code failure-rate-threshold} percent of the last
+ *     {@code sliding-window-size} calls failed, or {@code slow-call-rate-threshold} percent took longer than
+ *     {@code slow-call-ms}. While open, calls fail at once; after {@code open-ms} a few trial calls decide
+ *     whether it closes again.</li>
+ *     <li>A bulkhead per endpoint admits at most {@code max-concurrent-calls} at a time and rejects the rest
+ *     without waiting, so request threads never queue behind a slow endpoint.</li>
+ *     <li>{@link #retried} calls, meant for idempotent GETs, are retried up to {@code max-attempts} times with
+ *     exponential backoff from {@code backoff-ms} and random jitter of {@code jitter} either way.</li>
+ *     <li>{@link #streamed} calls, whose duration depends on how fast the client reads, get breakers and bulkheads
+ *     of their own that only count them as slow after {@code stream-slow-call-ms}, so slow clients cannot open the
+ *     breaker of, or take the permits from, the reads that share their upstream.</li>
+ * </ul>
+ * Only I/O errors and 5xx responses count as failures and are retried; a 4xx is a valid answer, and a call aborted
+ * because its {@link HedgedRequests hedge} answered first did not fail. Rejected calls throw
+ * {@link UpstreamUnavailableException}, other failures are propagated for the caller to translate. Breaker states
+ * and transitions, bulkhead usage and retries are published as metrics. All of it is bypassed with
+ * {@code upstream.resilience.enabled=false}.
+ */
+@Component
+public class UpstreamResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpstreamResilience.class);
+
+    private static final Predicate<Throwable> UPSTREAM_FAILURE = e -> !HedgedRequests.isAborted()
+            && (e instanceof ResourceAccessException
+            || e instanceof HttpServerErrorException
+            || e instanceof WebClientRequestException
+            || e instanceof WebClientResponseException && ((WebClientResponseException) e).getStatusCode().is5xxServerError());
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    @Value("${upstream.resilience.enabled:true}")
+    private boolean enabled;
+
+    @Value("${upstream.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${upstream.resilience.slow-call-ms:2000}")
+    private long slowCallMs;
+
+    @Value("${upstream.resilience.stream-slow-call-ms:600000}")
+    private long streamSlowCallMs;
+
+    @Value("${upstream.resilience.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${upstream.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${upstream.resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${upstream.resilience.open-ms:5000}")
+    private long openMs;
+
+    @Value("${upstream.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${upstream.resilience.max-concurrent-calls:25}")
+    private int maxConcurrentCalls;
+
+    @Value("${upstream.resilience.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${upstream.resilience.backoff-ms:50}")
+    private long backoffMs;
+
+    @Value("${upstream.resilience.backoff-multiplier:2}")
+    private double backoffMultiplier;
+
+    @Value("${upstream.resilience.jitter:0.5}")
+    private double jitter;
+
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private RetryRegistry retries;
+    private CircuitBreakerConfig streamCircuitBreakerConfig;
+
+    @PostConstruct
+    void createRegistries() {
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .recordException(UPSTREAM_FAILURE)
+                .build());
+        streamCircuitBreakerConfig = CircuitBreakerConfig.from(circuitBreakers.getDefaultConfig())
+                .slowCallDurationThreshold(Duration.ofMillis(streamSlowCallMs))
+                .build();
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        retries = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(backoffMs), backoffMultiplier, jitter))
+                .retryOnException(UPSTREAM_FAILURE)
+                .build());
+        circuitBreakers.getEventPublisher().onEntryAdded(added -> onStateTransitions(added.getAddedEntry()));
+        if (meterRegistry != null) {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+            TaggedRetryMetrics.ofRetryRegistry(retries).bindTo(meterRegistry);
+        }
+    }
+
+    private void onStateTransitions(CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            logger.warn("Circuit breaker for {} went from {} to {}", event.getCircuitBreakerName(), transition.getFromState(), transition.getToState());
+            if (meterRegistry != null) {
+                Counter.builder("upstream.circuitbreaker.transitions")
+                        .description("Circuit breaker state transitions")
+                        .tags("name", event.getCircuitBreakerName(), "from", transition.getFromState().name(), "to", transition.getToState().name())
+                        .register(meterRegistry)
+                        .increment();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code call} through the circuit breaker and bulkhead of {@code upstream}, without retrying.
+     *
+     * @throws UpstreamUnavailableException If the circuit breaker is open or the bulkhead is full.
+     */
+    public <T> T call(String upstream, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return guarded(upstream, circuitBreakers.circuitBreaker(upstream), call);
+    }
+
+    /**
+     * Like {@link #call}, for a call that copies an upstream response to a client as it is read, such as a streamed
+     * list. {@code upstream} names the breaker and bulkhead of the streams and has to differ from the name of the
+     * other calls to the same endpoint.
+     *
+     * @throws UpstreamUnavailableException If the circuit breaker is open or the bulkhead is full.
+     */
+    public <T> T streamed(String upstream, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return guarded(upstream, circuitBreakers.circuitBreaker(upstream, streamCircuitBreakerConfig), call);
+    }
+
+    private <T> T guarded(String upstream, CircuitBreaker circuitBreaker, Supplier<T> call) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(bulkheads.bulkhead(upstream), call));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            throw unavailable(upstream, e);
+        }
+    }
+
+    /**
+     * Like {@link #call}, retrying upstream failures with backoff. Only for calls that are safe to repeat.
+     */
+    public <T> T retried(String upstream, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        return Retry.decorateSupplier(retries.retry(upstream), () -> call(upstream, call)).get();
+    }
+
+    /**
+     * Non-blocking variant of {@link #call}: subscribes to {@code call} through the circuit breaker and bulkhead
+     * of {@code upstream}.
+     */
+    public <T> Mono<T> call(String upstream, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return call.transformDeferred(BulkheadOperator.of(bulkheads.bulkhead(upstream)))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakers.circuitBreaker(upstream)))
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException, e -> unavailable(upstream, e));
+    }
+
+    /**
+     * Non-blocking variant of {@link #retried}; the backoff does not hold a thread.
+     */
+    public <T> Mono<T> retried(String upstream, Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return call(upstream, call).transformDeferred(RetryOperator.of(retries.retry(upstream)));
+    }
+
+    /**
+     * @return The state of the circuit breaker of {@code upstream}.
+     */
+    public CircuitBreaker.State getState(String upstream) {
+        return circuitBreakers.circuitBreaker(upstream).getState();
+    }
+
+    private static UpstreamUnavailableException unavailable(String upstream, Throwable e) {
+        String reason = e instanceof CallNotPermittedException ? "circuit breaker is open" : "too many calls in flight";
+        return new UpstreamUnavailableException("Employee upstream " + upstream + " is unavailable: " + reason, e);
+    }
+}
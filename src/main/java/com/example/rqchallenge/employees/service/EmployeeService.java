@@ -1,32 +1,95 @@
 package com.example.rqchallenge.employees.service;
 
+import com.example.rqchallenge.employees.cache.EmployeeReplica;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.SingleFlight;
+import com.example.rqchallenge.employees.cache.UpstreamEmployees;
+import com.example.rqchallenge.employees.dto.BatchItemResult;
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChanges;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
 import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.index.RankingField;
+import com.example.rqchallenge.employees.index.TopK;
+import com.example.rqchallenge.employees.metrics.EmployeeMetrics;
+import com.example.rqchallenge.employees.resilience.Deadline;
+import com.example.rqchallenge.employees.resilience.HedgedRequests;
+import com.example.rqchallenge.employees.resilience.UpstreamResilience;
+import com.example.rqchallenge.employees.stream.EmployeeStream;
+import com.example.rqchallenge.employees.stream.EmployeeStreamFormat;
+import com.example.rqchallenge.employees.stream.EmployeeStreamWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 @Service
 public class EmployeeService implements IEmployeeService{
     @Autowired
     RestTemplate restTemplate;
 
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    @Autowired
+    EmployeeReplica replica;
+
+    @Autowired
+    UpstreamResilience resilience;
+
+    @Autowired
+    HedgedRequests hedging;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
     private static final Logger logger = LoggerFactory.getLogger(EmployeeService.class);
 
+    private static final String SNAPSHOT_ATTRIBUTE = EmployeeService.class.getName() + ".snapshot";
+
+    private final SingleFlight<String, UpstreamEmployees> employeeListFlights = new SingleFlight<>();
+
+    private final SingleFlight<String, ResponseEntity<Employee>> employeeFlights = new SingleFlight<>();
+
     @Value("${GET_ALL_EMPLOYEES}")
     private String getAllEmployees;
 
-    @Value("${GET_EMPLOYEES_BY_NAME_SEARCH}")
-    private String getEmployeesByNameSearch;
-
     @Value("${GET_EMPLOYEE_BY_ID}")
     private String getEmployeesById;
 
@@ -36,40 +99,268 @@ public class EmployeeService implements IEmployeeService{
     @Value("${CREATE_EMPLOYEE}")
     private String createEmployee;
 
+    @Value("${CREATE_EMPLOYEES_BATCH}")
+    private String createEmployeesBatch;
+
+    @Value("${DELETE_EMPLOYEES_BATCH}")
+    private String deleteEmployeesBatch;
+
+    @Value("${GET_CHANGES:}")
+    private String getChanges;
+
+    @Value("${employees.batch.chunk-size:100}")
+    private int batchChunkSize;
+
+    @Value("${employees.batch.parallelism:4}")
+    private int batchParallelism;
+
+    @Value("${employees.batch.max-items:50000}")
+    private int batchMaxItems;
+
+    @Value("${employees.stream.flush-every:256}")
+    private int streamFlushEvery;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final int MAX_SALARY_STATS_POINTS = 100;
+
+    private static final ParameterizedTypeReference<List<BatchItemResult>> BATCH_RESULTS = new ParameterizedTypeReference<List<BatchItemResult>>() {};
+
+    private ExecutorService batchExecutor;
+
+    @Value("${employees.aggregation.streaming:false}")
+    private boolean streamingAggregation;
+
+    @Value("${employees.aggregation.streaming-url:${GET_ALL_EMPLOYEES}}")
+    private String streamingAggregationUrl;
+
+    @PostConstruct
+    void startBatchExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        batchExecutor = Executors.newFixedThreadPool(Math.max(batchParallelism, 1), runnable -> {
+            Thread thread = new Thread(runnable, "employee-batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (meterRegistry != null) {
+            batchExecutor = ExecutorServiceMetrics.monitor(meterRegistry, batchExecutor, "employee-batch");
+            EmployeeMetrics.bindSingleFlight(meterRegistry, "employee-list", employeeListFlights);
+            EmployeeMetrics.bindSingleFlight(meterRegistry, "employee-by-id", employeeFlights);
+        }
+    }
+
+    /**
+     * Starts the replica once the application serves requests, as the change feed may be served by this very
+     * application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void startReplica() {
+        replica.start(this::fetchChanges, this::fetchAllEmployees);
+    }
+
+    @PreDestroy
+    void stopBatchExecutor() {
+        batchExecutor.shutdownNow();
+    }
+
     public HttpEntity<List<Employee>> httpEntity(){
         HttpHeaders headers = new HttpHeaders();
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         return  new HttpEntity<>(headers);
     }
+
+    /**
+     * Fetches the full employee list from the upstream. Reads go through the {@link EmployeeSnapshotCache},
+     * which calls this method only when it has no usable snapshot; concurrent misses share one upstream call.
+     * With the ETag of the cached snapshot the read is conditional, and a 304 costs no body at all.
+     *
+     * @param eTag The ETag to send in {@code If-None-Match}, or {@code null} for an unconditional read.
+     */
+    private UpstreamEmployees fetchAllEmployees(String eTag) {
+        return employeeListFlights.execute(getAllEmployees + " " + eTag, () -> resilience.retried("GET_ALL_EMPLOYEES", () -> {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+            if (eTag != null) {
+                headers.setIfNoneMatch(eTag);
+            }
+            ResponseEntity<List<Employee>> result = restTemplate.exchange(getAllEmployees, HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<List<Employee>>() {});
+            if (eTag != null && result.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                return UpstreamEmployees.notModified();
+            }
+            return UpstreamEmployees.of(Objects.requireNonNull(result.getBody()), result.getHeaders().getETag());
+        }));
+    }
+
+    /**
+     * Reads a page of the upstream change feed for the {@link EmployeeReplica}.
+     *
+     * @param since The version to read the changes after, or {@code null} to read only the current version.
+     * @throws CursorExpiredException If the upstream no longer retains the changes after {@code since}.
+     */
+    private EmployeeChanges fetchChanges(Long since) {
+        String url = UriComponentsBuilder.fromHttpUrl(getChanges)
+                .queryParamIfPresent("since", Optional.ofNullable(since))
+                .queryParam("limit", MAX_PAGE_SIZE)
+                .toUriString();
+        try {
+            return Objects.requireNonNull(resilience.retried("GET_CHANGES",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, httpEntity(), EmployeeChanges.class).getBody()));
+        } catch (HttpClientErrorException.Gone e) {
+            throw new CursorExpiredException("Changes since version " + since + " are no longer retained");
+        }
+    }
+
+    /**
+     * Returns the employee snapshot for the current request. Within an HTTP request the first snapshot read is
+     * memoized as a request attribute, so one controller invocation never fetches twice and sees one version.
+     */
+    private EmployeeSnapshot snapshot() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return snapshotCache.getConditionally(this::fetchAllEmployees);
+        }
+        EmployeeSnapshot snapshot = (EmployeeSnapshot) attributes.getAttribute(SNAPSHOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (snapshot == null) {
+            snapshot = snapshotCache.getConditionally(this::fetchAllEmployees);
+            attributes.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot, RequestAttributes.SCOPE_REQUEST);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Reads the upstream employee list as a stream and hands it to {@code aggregation}, bypassing the snapshot
+     * cache so the list is never held in memory as a whole. The aggregation has no side effects, so a failed read
+     * is retried.
+     */
+    private <T> T streamEmployees(ResponseExtractor<T> aggregation) {
+        return resilience.retried("STREAMING_AGGREGATION", () -> readEmployeeStream(aggregation));
+    }
+
+    private <T> T readEmployeeStream(ResponseExtractor<T> extractor) {
+        return restTemplate.execute(streamingAggregationUrl, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                extractor);
+    }
+
+    /**
+     * Translates a failure to reach the upstream into a 503 for the client, or a 504 when the upstream did not
+     * answer in time.
+     */
+    private static RuntimeException unavailable(RuntimeException e) {
+        if (e instanceof UpstreamUnavailableException || e instanceof UpstreamTimeoutException) {
+            return e;
+        }
+        if (e instanceof ResourceAccessException && e.getCause() instanceof SocketTimeoutException) {
+            return new UpstreamTimeoutException("Employee upstream timed out: " + e.getMessage(), e);
+        }
+        return new UpstreamUnavailableException("Employee upstream is unavailable: " + e.getMessage(), e);
+    }
+
+    private void forgetRequestSnapshot() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(SNAPSHOT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
     /**
      * Retrieves a list of all employees by making an HTTP GET request.
      * <p>
-     * This method sends a GET request to a specified URL using the `RestTemplate`
-     * and returns the list of employees wrapped in a `ResponseEntity`.
+     * This method serves the list from the current employee snapshot, sending a GET request
+     * to the upstream through the `RestTemplate` only when the snapshot is missing or expired.
+     * The response carries the ETag of the snapshot, so clients can revalidate the list.
      *
      * @return A `ResponseEntity` containing the list of all employees and an HTTP status of OK.
      */
     @Override
     public ResponseEntity<List<Employee>> getAllEmployees() {
-        HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<List<Employee>> result = null;
+        EmployeeSnapshot snapshot;
         try{
             logger.debug("Fetching employee details");
-            result = restTemplate.exchange(getAllEmployees, HttpMethod.GET, entity, new ParameterizedTypeReference<List<Employee>>() {});
-        }catch (Exception e){
+            snapshot = snapshot();
+        }catch (RuntimeException e){
             logger.error("Error fetching employee details: {}", e.getMessage());
+            throw unavailable(e);
         }
-        assert result != null;
         logger.info("Employee details fetched successfully!");
-        return new ResponseEntity<>(result.getBody(), HttpStatus.OK);
+        return ResponseEntity.ok().eTag(snapshotCache.eTagOf(snapshot)).body(snapshot.getEmployees());
+    }
+
+    /**
+     * Writes all employees to {@code out} one at a time, in the given format.
+     * <p>
+     * When the snapshot cache holds a usable snapshot its employees are written from it. Otherwise the
+     * upstream list is read as a token stream and every employee is copied to the response as soon as it
+     * has been parsed, without building the list and without caching it. Either way memory use does not
+     * depend on the number of employees, and a slow client slows down the upstream read.
+     *
+     * @param out    The response body.
+     * @param format NDJSON, or a JSON array written incrementally.
+     * @throws IOException If writing to the client fails.
+     */
+    @Override
+    public void writeAllEmployees(OutputStream out, EmployeeStreamFormat format) throws IOException {
+        logger.info("Inside writeAllEmployees method");
+        try (EmployeeStreamWriter writer = new EmployeeStreamWriter(out, format, streamFlushEvery)) {
+            EmployeeSnapshot snapshot = snapshotCache.peek(this::fetchAllEmployees);
+            if (snapshot != null) {
+                logger.debug("Streaming employees from snapshot version {}", snapshot.getVersion());
+                for (Employee employee : snapshot.getEmployees()) {
+                    writer.write(employee);
+                }
+            } else {
+                logger.debug("Streaming employees from the upstream");
+                // Not retried: part of the list may already have been written to the client. Guarded apart from the
+                // aggregations, since a slow client makes the call slow however healthy the upstream is.
+                resilience.streamed("GET_ALL_EMPLOYEES_STREAM", () -> readEmployeeStream(response -> EmployeeStream.copy(response.getBody(), response.getHeaders().getContentType(), writer)));
+            }
+            logger.info("Streamed {} employees as {}", writer.getWritten(), format);
+        }
+    }
+
+    /**
+     * Retrieves one page of the employee list by making an HTTP GET request.
+     * <p>
+     * This method passes `limit` and the opaque `cursor` through to the upstream, which serves every
+     * page of a listing from the snapshot version the first page was read from. Pages therefore stay
+     * stable while employees are created and deleted, and no page requires the whole list.
+     *
+     * @param limit  The maximum number of employees on the page, between 1 and 1000.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @return A `ResponseEntity` containing the `EmployeePage` and an HTTP status of OK.
+     * @throws BadRequestException     If the limit is out of range or the cursor is malformed.
+     * @throws CursorExpiredException If the snapshot version of the cursor is no longer retained.
+     */
+    @Override
+    public ResponseEntity<EmployeePage> getEmployeesPage(int limit, String cursor) {
+        logger.info("Inside getEmployeesPage method");
+        if (limit < 1 || limit > MAX_PAGE_SIZE){
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        String url = UriComponentsBuilder.fromHttpUrl(getAllEmployees)
+                .queryParam("limit", limit)
+                .queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+                .toUriString();
+        EmployeePage page;
+        try{
+            logger.debug("Fetching employee page");
+            page = resilience.retried("GET_ALL_EMPLOYEES", () -> restTemplate.exchange(url, HttpMethod.GET, httpEntity(), EmployeePage.class).getBody());
+        }catch (HttpClientErrorException.Gone e){
+            throw new CursorExpiredException("Cursor has expired, restart from the first page");
+        }catch (HttpClientErrorException.BadRequest e){
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }catch (ResourceAccessException | HttpServerErrorException | UpstreamUnavailableException | UpstreamTimeoutException e){
+            logger.error("Error fetching employee page: {}", e.getMessage());
+            throw unavailable(e);
+        }
+        logger.info("Employee page fetched successfully!");
+        return new ResponseEntity<>(page, HttpStatus.OK);
     }
 
     /**
      * Retrieves a list of employees whose names match the given search string.
      * <p>
-     * This method sends an HTTP GET request to search for employees by name. The
-     * search is performed using the provided search string, which is appended to
-     * the request URL.
+     * This performs a case-sensitive search; see {@link #getEmployeesByNameSearch(String, boolean, boolean)}.
      *
      * @param searchString The string used to search for employees by name.
      * @return A `ResponseEntity` containing the list of employees that match the
@@ -77,19 +368,40 @@ public class EmployeeService implements IEmployeeService{
      */
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
+        return getEmployeesByNameSearch(searchString, false, false);
+    }
+
+    /**
+     * Retrieves a list of employees whose names contain the given search string.
+     * <p>
+     * This method looks the search string up in the trigram name index of the current
+     * employee snapshot, so only employees sharing every trigram with the search string
+     * are compared. The snapshot is fetched from the upstream only when it is missing or expired.
+     * With `employees.aggregation.streaming` enabled the upstream list is instead scanned as a
+     * token stream and only the matching employees are kept.
+     *
+     * @param searchString The string used to search for employees by name.
+     * @param ignoreCase Whether names match regardless of letter case.
+     * @param ignoreAccents Whether names match regardless of accents.
+     * @return A `ResponseEntity` containing the list of employees that match the
+     *         search string and an HTTP status of OK.
+     * @throws UpstreamUnavailableException If the employee list cannot be read, rather than answering with no match.
+     */
+    @Override
+    public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents) {
         logger.info("Inside getEmployeesByNameSearch method");
-        HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<List<Employee>> result = null;
-        List<Employee> employeeList = new ArrayList<>();
+        List<Employee> employeeList;
         try{
             logger.debug("Fetching employee details by name");
-            result = restTemplate.exchange(getEmployeesByNameSearch, HttpMethod.GET, entity, new ParameterizedTypeReference<List<Employee>>() {});
-            employeeList = Objects.requireNonNull(result.getBody()).stream().filter(emp -> emp.getEmployee_name().contains(searchString)).collect(Collectors.toList());
+            employeeList = streamingAggregation
+                    ? streamEmployees(response -> EmployeeStream.search(response.getBody(), response.getHeaders().getContentType(), searchString, ignoreCase, ignoreAccents))
+                    : snapshot().getNameIndex().search(searchString, ignoreCase, ignoreAccents);
 
-        }catch (Exception e){
+        }catch (RuntimeException e){
             logger.error("Error fetching employee names: {}", e.getMessage());
+            throw unavailable(e);
         }
-        logger.info("Employee details by name fetched successfully!: {}", employeeList);
+        logger.info("Employee details by name fetched successfully!: {} employees", employeeList.size());
         return new ResponseEntity<>(employeeList, HttpStatus.OK);
     }
 
@@ -98,21 +410,41 @@ public class EmployeeService implements IEmployeeService{
      * <p>
      * This method sends an HTTP GET request to the specified URL with the given employee ID.
      * It uses `RestTemplate` to exchange the request and retrieve the employee details from
-     * an external service.
+     * an external service. Concurrent requests for the same ID share one upstream call, which is hedged
+     * by {@link HedgedRequests} when the upstream is slower than usual. While the {@link EmployeeReplica} is in
+     * step with the upstream, employees it holds are answered from it; the others are still asked for upstream,
+     * as they may have been created since the last poll.
      *
      * @param id The unique identifier of the employee to be retrieved.
      * @return A `ResponseEntity` containing the `Employee` object if found, along with an HTTP status of OK.
+     * @throws ResourceNotFoundException    If the upstream does not know the employee.
+     * @throws UpstreamUnavailableException If the upstream cannot be reached or fails.
+     * @throws UpstreamTimeoutException     If the upstream does not answer within the request deadline.
      */
     @Override
     public ResponseEntity<Employee> getEmployeeById(String id) {
         logger.info("Inside getEmployeeById method");
+        EmployeeSnapshot replicated = replica.snapshot();
+        Employee local = replicated == null ? null : replicated.findById(id);
+        if (local != null) {
+            logger.info("Employee details by id read from the replica:{}", local);
+            return new ResponseEntity<>(local, HttpStatus.OK);
+        }
         HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<Employee> result = null;
+        ResponseEntity<Employee> result;
         try{
             logger.debug("Fetching employee details by id");
-            result = restTemplate.exchange(getEmployeesById +"/"+id, HttpMethod.GET, entity, Employee.class);
-        }catch(Exception e) {
+            String url = getEmployeesById + "/" + id;
+            result = employeeFlights.execute(url, () -> hedging.execute("GET_EMPLOYEE_BY_ID",
+                    () -> resilience.retried("GET_EMPLOYEE_BY_ID", () -> restTemplate.exchange(url, HttpMethod.GET, entity, Employee.class))));
+        }catch(HttpClientErrorException e) {
+            logger.error("Error fetching employee by id: {}", e.getMessage());
+            throw new ResourceNotFoundException("Employee not found with ID: " + id);
+        }catch(RuntimeException e) {
             logger.error("Error fetching employee by id: {}", e.getMessage());
+            throw unavailable(e);
+        }
+        if (result == null || result.getBody() == null) {
             throw new ResourceNotFoundException("Employee not found with ID: " + id);
         }
         logger.info("Employee details by id fetched successfully:{}", result.getBody());
@@ -122,36 +454,73 @@ public class EmployeeService implements IEmployeeService{
     /**
      * Retrieves the highest salary from the list of employees.
      * <p>
-     * This method sends an HTTP GET request to fetch all employee details,
-     * sorts the employees by their salary in descending order, and returns
-     * the highest salary.
+     * This method reads the highest salary from the salary index of the current
+     * employee snapshot, which compares salaries numerically. With `employees.aggregation.streaming`
+     * enabled it is instead computed while the upstream list is read, keeping a single value.
      *
      * @return A `ResponseEntity` containing the highest employee salary as an `Integer`,
      *         along with an HTTP status of OK.
+     * @throws UpstreamUnavailableException If the employee list cannot be read, rather than answering with no salary.
      */
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees(){
         logger.info("Inside getHighestSalaryOfEmployees method");
-        HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<List<Employee>> result;
-        Integer highestSalary = null;
+        Integer highestSalary;
         try {
             logger.debug("Fetching highest salary of employees");
-            result = restTemplate.exchange(getAllEmployees, HttpMethod.GET, entity, new ParameterizedTypeReference<List<Employee>>() {});
-            highestSalary = Integer.parseInt(Objects.requireNonNull(result.getBody()).stream().sorted(Comparator.comparing(Employee::getEmployee_salary).reversed()).findFirst().get().getEmployee_salary()) ;
-        }catch (Exception e){
+            highestSalary = streamingAggregation
+                    ? streamEmployees(response -> EmployeeStream.highestSalary(response.getBody(), response.getHeaders().getContentType()))
+                    : snapshot().getSalaryIndex().highestSalary();
+        }catch (RuntimeException e){
             logger.error("Error fetching highest salary: {}", e.getMessage());
+            throw unavailable(e);
         }
         logger.info("Highest salary fetched successfully!: {}", highestSalary);
         return new ResponseEntity<>(highestSalary, HttpStatus.OK);
     }
 
+    /**
+     * Retrieves the salary statistics of the employees.
+     * <p>
+     * This method reads the statistics of the current employee snapshot: count, sum, mean and a quantile
+     * sketch are patched on every create and delete, and min and max come from the salary index, so no
+     * salary is read again. Percentiles are accurate to `SalarySketch.RELATIVE_ACCURACY` (1%). Unlike the other
+     * aggregations, this one is served from the snapshot even with `employees.aggregation.streaming` enabled.
+     *
+     * @param percentiles The ranks of the percentiles to report, between 0 and 1.
+     * @param bounds      The upper bounds of the histogram buckets, in any order.
+     * @return A `ResponseEntity` containing the `SalaryStats`, along with an HTTP status of OK.
+     * @throws BadRequestException          If a rank is out of range, or there are too many ranks or bounds.
+     * @throws UpstreamUnavailableException If the employee list cannot be read.
+     */
+    @Override
+    public ResponseEntity<SalaryStats> getSalaryStats(List<Double> percentiles, List<Integer> bounds) {
+        logger.info("Inside getSalaryStats method");
+        if (percentiles.size() > MAX_SALARY_STATS_POINTS || bounds.size() > MAX_SALARY_STATS_POINTS) {
+            throw new BadRequestException("At most " + MAX_SALARY_STATS_POINTS + " percentiles and bounds can be requested");
+        }
+        for (Double percentile : percentiles) {
+            if (percentile == null || !(percentile >= 0 && percentile <= 1)) {
+                throw new BadRequestException("Percentiles must be between 0 and 1: " + percentile);
+            }
+        }
+        List<Integer> sortedBounds = new ArrayList<>(new TreeSet<>(bounds));
+        SalaryStats stats;
+        try {
+            stats = snapshot().getSalaryStats(percentiles, sortedBounds);
+        }catch (RuntimeException e){
+            logger.error("Error fetching salary statistics: {}", e.getMessage());
+            throw unavailable(e);
+        }
+        logger.info("Salary statistics fetched successfully!: {} employees", stats.getCount());
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
     /**
      * Retrieves the names of the top ten highest-earning employees.
      * <p>
-     * This method sends an HTTP GET request to fetch all employee details,
-     * sorts the employees by salary in descending order, and extracts the names
-     * of the top ten employees with the highest salaries. If there are fewer than
+     * This method delegates to {@link #getTopEmployees(int, String)} ranked by salary
+     * and extracts the names of the employees it returns. If there are fewer than
      * ten employees, it returns the names of all available employees.
      *
      * @return A `ResponseEntity` containing a list of names of the top ten highest-earning
@@ -160,22 +529,53 @@ public class EmployeeService implements IEmployeeService{
     @Override
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
         logger.info("Inside getTopTenHighestEarningEmployeeNames method");
-        HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<List<Employee>> result = null;
         List<String> nameList = new ArrayList<>();
+        for (Employee emp : Objects.requireNonNull(getTopEmployees(10, "salary").getBody())){
+            nameList.add(emp.getEmployee_name());
+        }
+        logger.info("Highest earning employees fetched successfully!");
+        return new ResponseEntity<>(nameList, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the top {@code n} employees ranked by salary or age.
+     * <p>
+     * Salary rankings are read from the salary index of the current employee snapshot.
+     * Other fields are selected in a single pass over the snapshot with a bounded heap,
+     * which needs O(n) memory and O(total log n) time. With `employees.aggregation.streaming`
+     * enabled that heap is fed directly from the upstream token stream for every field.
+     *
+     * @param n  The number of employees to return; must be positive.
+     * @param by The field to rank by, either `salary` or `age`.
+     * @return A `ResponseEntity` containing up to {@code n} employees, highest first,
+     *         along with an HTTP status of OK.
+     * @throws BadRequestException          If {@code n} is not positive or {@code by} is not a known field.
+     * @throws UpstreamUnavailableException If the employee list cannot be read.
+     */
+    @Override
+    public ResponseEntity<List<Employee>> getTopEmployees(int n, String by) {
+        logger.info("Inside getTopEmployees method");
+        if (n < 1){
+            throw new BadRequestException("Number of employees must be positive: " + n);
+        }
+        RankingField field = RankingField.fromParameter(by);
+        List<Employee> employeeList;
         try{
-            logger.debug("Fetching top ten highest earning employees");
-            result = restTemplate.exchange(getAllEmployees, HttpMethod.GET, entity, new ParameterizedTypeReference<List<Employee>>() {});
-            Objects.requireNonNull(result.getBody()).sort((e1, e2) -> Integer.compare(Integer.parseInt(e2.getEmployee_salary()), Integer.parseInt(e1.getEmployee_salary())));
-            nameList = new ArrayList<>();
-            for (Employee emp : result.getBody()){
-                nameList.add(emp.getEmployee_name());
+            logger.debug("Fetching top {} employees by {}", n, field);
+            if (streamingAggregation) {
+                employeeList = streamEmployees(response -> EmployeeStream.top(response.getBody(), response.getHeaders().getContentType(), n, field));
+            } else {
+                EmployeeSnapshot snapshot = snapshot();
+                employeeList = field == RankingField.SALARY
+                        ? snapshot.getSalaryIndex().top(n)
+                        : TopK.select(snapshot.getEmployees(), snapshot.getRecords(), n, field);
             }
-        }catch (Exception e){
-            logger.error("Error fetching highest earning employees: {}", e.getMessage());
+        }catch (RuntimeException e){
+            logger.error("Error fetching top employees: {}", e.getMessage());
+            throw unavailable(e);
         }
-        logger.info("Highest earning employees fetched successfully!");
-        return new ResponseEntity<>(nameList.size() > 10 ? nameList.subList(0, 10) : nameList, HttpStatus.OK);
+        logger.info("Top employees by {} fetched successfully!", field);
+        return new ResponseEntity<>(employeeList, HttpStatus.OK);
     }
 
     /**
@@ -188,16 +588,35 @@ public class EmployeeService implements IEmployeeService{
      *                      necessary fields required for creation.
      * @return A `ResponseEntity` containing the created `Employee` object along with an
      *         HTTP status of CREATED (201).
+     * @throws BadRequestException If a salary or age in the input is not a non-negative integer, or the upstream
+     *                             rejects the employee.
+     * @throws UpstreamUnavailableException If the upstream cannot be reached or fails. Creates are not retried.
      */
     @Override
     public ResponseEntity<Employee> createEmployee(Map<String, Employee> employeeInput) {
         logger.info("Inside createEmployee method");
-        ResponseEntity<Employee> result = null;
+        for (Employee employee : employeeInput.values()) {
+            if (employee != null) {
+                EmployeeRecord.from(employee);
+            }
+        }
+        ResponseEntity<Employee> result;
         try{
             logger.debug("Creating employee");
-            result  = restTemplate.postForEntity(createEmployee, employeeInput, Employee.class);
-        }catch (Exception e){
+            result = resilience.call("CREATE_EMPLOYEE", () -> restTemplate.postForEntity(createEmployee, employeeInput, Employee.class));
+        }catch (HttpClientErrorException e){
+            logger.error("Error creating employee : {}", e.getMessage());
+            throw new BadRequestException("Employee rejected by the upstream: " + e.getMessage());
+        }catch (RuntimeException e){
             logger.error("Error creating employee : {}", e.getMessage(), e);
+            throw unavailable(e);
+        }
+        forgetRequestSnapshot();
+        Employee created = result.getBody();
+        if (created != null && created.getId() != null) {
+            snapshotCache.applyCreated(created);
+        } else {
+            snapshotCache.invalidate();
         }
 
         logger.info("Employee created successfully1 : {}", result.getBody());
@@ -213,20 +632,155 @@ public class EmployeeService implements IEmployeeService{
      * @param id The unique identifier of the employee to be deleted.
      * @return A `ResponseEntity` containing a message indicating the result of the deletion
      *         (e.g., success or failure), along with an HTTP status of OK.
+     * @throws ResourceNotFoundException    If the upstream does not know the employee.
+     * @throws UpstreamUnavailableException If the upstream cannot be reached or fails. Deletes are not retried.
      */
     @Override
     public ResponseEntity<String> deleteEmployee(String id) {
         logger.info("Inside deleteEmployeeById method");
         HttpEntity<List<Employee>> entity = httpEntity();
-        ResponseEntity<String> result = null;
+        ResponseEntity<String> result;
         try{
             logger.debug("Deleting employee");
-            result = restTemplate.exchange(deleteEmployeesById+"/"+id, HttpMethod.DELETE, entity, String.class);
-        }catch (Exception e){
+            result = resilience.call("DELETE_EMPLOYEE", () -> restTemplate.exchange(deleteEmployeesById+"/"+id, HttpMethod.DELETE, entity, String.class));
+        }catch (HttpClientErrorException e){
             logger.info("Error deleting employee: {}", e.getMessage());
             throw new ResourceNotFoundException("Employee not found with ID: " + id);
+        }catch (RuntimeException e){
+            logger.error("Error deleting employee: {}", e.getMessage());
+            throw unavailable(e);
         }
+        forgetRequestSnapshot();
+        snapshotCache.applyDeleted(id);
         logger.info("Employee deleted successfully! : {}", id);
         return new ResponseEntity<>(result.getBody(), HttpStatus.OK);
     }
+
+    /**
+     * Creates several employees with batched upstream calls.
+     * <p>
+     * Every employee is validated first; invalid ones are reported with a status of 400 and never sent.
+     * The valid ones are split into chunks of `employees.batch.chunk-size`, and the chunks are posted to
+     * the upstream batch endpoint with at most `employees.batch.parallelism` in flight. A chunk that fails
+     * as a whole only fails its own items, so one bad chunk does not abort the batch.
+     *
+     * @param employeeInput A map from employee ID to the input data of that employee.
+     * @return A `ResponseEntity` containing one `BatchItemResult` per employee, in input order, along with
+     *         an HTTP status of OK when every item was created and MULTI_STATUS (207) otherwise.
+     * @throws BadRequestException If the batch is empty or larger than `employees.batch.max-items`.
+     */
+    @Override
+    public ResponseEntity<List<BatchItemResult>> createEmployees(Map<String, Employee> employeeInput) {
+        logger.info("Inside createEmployees method");
+        checkBatchSize(employeeInput.size());
+        Map<String, BatchItemResult> results = new ConcurrentHashMap<>();
+        Map<String, Employee> valid = new LinkedHashMap<>();
+        for (Map.Entry<String, Employee> entry : employeeInput.entrySet()) {
+            try {
+                if (entry.getValue() == null) {
+                    throw new BadRequestException("Employee input is missing");
+                }
+                EmployeeRecord.from(entry.getValue());
+                valid.put(entry.getKey(), entry.getValue());
+            } catch (BadRequestException e) {
+                results.put(entry.getKey(), BatchItemResult.builder().id(entry.getKey()).status(HttpStatus.BAD_REQUEST.value()).message(e.getMessage()).build());
+            }
+        }
+        runInChunks(new ArrayList<>(valid.keySet()), results, chunk -> {
+            Map<String, Employee> body = new LinkedHashMap<>();
+            for (String id : chunk) {
+                body.put(id, valid.get(id));
+            }
+            return resilience.call("CREATE_EMPLOYEES_BATCH", () -> restTemplate.exchange(createEmployeesBatch, HttpMethod.POST, new HttpEntity<>(body, httpEntity().getHeaders()), BATCH_RESULTS).getBody());
+        });
+        return batchResponse(employeeInput.keySet(), results, "created");
+    }
+
+    /**
+     * Deletes several employees with batched upstream calls.
+     * <p>
+     * Duplicate IDs are deleted once. The IDs are split into chunks of `employees.batch.chunk-size`, and the
+     * chunks are sent to the upstream batch endpoint with at most `employees.batch.parallelism` in flight.
+     * A chunk that fails as a whole only fails its own items.
+     *
+     * @param ids The unique identifiers of the employees to be deleted.
+     * @return A `ResponseEntity` containing one `BatchItemResult` per distinct ID, in input order, along with
+     *         an HTTP status of OK when every item was deleted and MULTI_STATUS (207) otherwise.
+     * @throws BadRequestException If the batch is empty or larger than `employees.batch.max-items`.
+     */
+    @Override
+    public ResponseEntity<List<BatchItemResult>> deleteEmployees(List<String> ids) {
+        logger.info("Inside deleteEmployees method");
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        checkBatchSize(distinctIds.size());
+        Map<String, BatchItemResult> results = new ConcurrentHashMap<>();
+        runInChunks(new ArrayList<>(distinctIds), results, chunk ->
+                resilience.call("DELETE_EMPLOYEES_BATCH", () -> restTemplate.exchange(deleteEmployeesBatch, HttpMethod.DELETE, new HttpEntity<>(chunk, httpEntity().getHeaders()), BATCH_RESULTS).getBody()));
+        return batchResponse(distinctIds, results, "deleted");
+    }
+
+    private void checkBatchSize(int size) {
+        if (size == 0 || size > batchMaxItems) {
+            throw new BadRequestException("A batch must contain between 1 and " + batchMaxItems + " employees: " + size);
+        }
+    }
+
+    /**
+     * Sends {@code ids} to the upstream in chunks on the batch executor and waits for all of them. Results are
+     * recorded per ID; every ID of a chunk whose call fails is recorded with the upstream status, 503 when the
+     * call was rejected by the circuit breaker or bulkhead, 504 when it ran past the request deadline, or 502.
+     */
+    private void runInChunks(List<String> ids, Map<String, BatchItemResult> results, Function<List<String>, List<BatchItemResult>> call) {
+        Deadline deadline = Deadline.current();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchChunkSize) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + batchChunkSize));
+            chunks.add(CompletableFuture.supplyAsync(() -> Deadline.callWith(deadline, () -> call.apply(chunk)), batchExecutor)
+                    .handle((chunkResults, error) -> {
+                        if (error != null) {
+                            Throwable cause = error.getCause() != null ? error.getCause() : error;
+                            logger.error("Error in batch chunk of {} employees: {}", chunk.size(), cause.getMessage());
+                            int status = cause instanceof HttpStatusCodeException
+                                    ? ((HttpStatusCodeException) cause).getRawStatusCode()
+                                    : cause instanceof UpstreamUnavailableException
+                                    ? HttpStatus.SERVICE_UNAVAILABLE.value()
+                                    : cause instanceof UpstreamTimeoutException
+                                    ? HttpStatus.GATEWAY_TIMEOUT.value()
+                                    : HttpStatus.BAD_GATEWAY.value();
+                            for (String id : chunk) {
+                                results.put(id, BatchItemResult.builder().id(id).status(status).message(cause.getMessage()).build());
+                            }
+                        } else if (chunkResults != null) {
+                            for (BatchItemResult result : chunkResults) {
+                                if (result != null && result.getId() != null) {
+                                    results.put(result.getId(), result);
+                                }
+                            }
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(chunks.toArray(CompletableFuture<?>[]::new)).join();
+    }
+
+    private ResponseEntity<List<BatchItemResult>> batchResponse(Collection<String> ids, Map<String, BatchItemResult> results, String action) {
+        List<BatchItemResult> ordered = new ArrayList<>(ids.size());
+        int succeeded = 0;
+        for (String id : ids) {
+            BatchItemResult result = results.getOrDefault(id, BatchItemResult.builder()
+                    .id(id).status(HttpStatus.BAD_GATEWAY.value()).message("No result from upstream").build());
+            if (result.getStatus() >= 200 && result.getStatus() < 300) {
+                succeeded++;
+            }
+            ordered.add(result);
+        }
+        if (succeeded > 0) {
+            forgetRequestSnapshot();
+            if (!replica.catchUp()) {
+                snapshotCache.invalidate();
+            }
+        }
+        logger.info("Batch {} {} of {} employees", action, succeeded, ids.size());
+        return new ResponseEntity<>(ordered, succeeded == ids.size() ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+    }
 }
@@ -1,23 +1,43 @@
 package com.example.rqchallenge.employees.service;
 
+import com.example.rqchallenge.employees.dto.BatchItemResult;
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.stream.EmployeeStreamFormat;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
 public interface IEmployeeService {
     ResponseEntity<List<Employee>> getAllEmployees();
 
+    ResponseEntity<EmployeePage> getEmployeesPage(int limit, String cursor);
+
+    void writeAllEmployees(OutputStream out, EmployeeStreamFormat format) throws IOException;
+
     ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString);
 
+    ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents);
+
     ResponseEntity<Employee> getEmployeeById(String id);
 
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
+    ResponseEntity<SalaryStats> getSalaryStats(List<Double> percentiles, List<Integer> bounds);
+
     ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
 
+    ResponseEntity<List<Employee>> getTopEmployees(int n, String by);
+
     ResponseEntity<Employee> createEmployee(Map<String, Employee> employeeInput);
 
     ResponseEntity<String> deleteEmployee(String id);
+
+    ResponseEntity<List<BatchItemResult>> createEmployees(Map<String, Employee> employeeInput);
+
+    ResponseEntity<List<BatchItemResult>> deleteEmployees(List<String> ids);
 }
@@ -0,0 +1,25 @@
+package com.example.rqchallenge.employees.service;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface IReactiveEmployeeService {
+    Flux<Employee> getAllEmployees();
+
+    Flux<Employee> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents);
+
+    Mono<Employee> getEmployeeById(String id);
+
+    Mono<Integer> getHighestSalaryOfEmployees();
+
+    Flux<String> getTopTenHighestEarningEmployeeNames();
+
+    Flux<Employee> getTopEmployees(int n, String by);
+
+    Mono<Employee> createEmployee(Map<String, Employee> employeeInput);
+
+    Mono<String> deleteEmployee(String id);
+}
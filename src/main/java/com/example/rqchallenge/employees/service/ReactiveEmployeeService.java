@@ -0,0 +1,204 @@
+package com.example.rqchallenge.employees.service;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshot;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.cache.SingleFlight;
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.index.RankingField;
+import com.example.rqchallenge.employees.index.TopK;
+import com.example.rqchallenge.employees.metrics.EmployeeMetrics;
+import com.example.rqchallenge.employees.resilience.UpstreamResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking implementation of the employee service contract.
+ * <p>
+ * Upstream calls go through a {@link WebClient}, so no thread waits on the upstream while a call is in flight.
+ * List reads share the {@link EmployeeSnapshotCache} and its indexes with the blocking {@link EmployeeService};
+ * only cache misses reach the upstream. Calls are guarded by the same {@link UpstreamResilience} circuit breakers
+ * and bulkheads; retry backoffs are scheduled rather than slept. Active when {@code employees.service.mode=reactive}.
+ */
+@Service
+@ConditionalOnProperty(name = "employees.service.mode", havingValue = "reactive")
+public class ReactiveEmployeeService implements IReactiveEmployeeService {
+
+    @Autowired
+    WebClient upstreamWebClient;
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    @Autowired
+    UpstreamResilience resilience;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveEmployeeService.class);
+
+    private final SingleFlight<String, List<Employee>> employeeListFlights = new SingleFlight<>();
+
+    @Value("${GET_ALL_EMPLOYEES}")
+    private String getAllEmployees;
+
+    @Value("${GET_EMPLOYEE_BY_ID}")
+    private String getEmployeesById;
+
+    @Value("${DELETE_EMPLOYEE}")
+    private String deleteEmployeesById;
+
+    @Value("${CREATE_EMPLOYEE}")
+    private String createEmployee;
+
+    @PostConstruct
+    void bindMetrics() {
+        if (meterRegistry != null) {
+            EmployeeMetrics.bindSingleFlight(meterRegistry, "employee-list", employeeListFlights);
+        }
+    }
+
+    private CompletableFuture<List<Employee>> fetchAllEmployees() {
+        return employeeListFlights.executeAsync(getAllEmployees, () -> {
+            logger.debug("Fetching employee details");
+            return resilience.retried("GET_ALL_EMPLOYEES", upstreamWebClient.get()
+                    .uri(getAllEmployees)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .retrieve()
+                    .bodyToFlux(Employee.class)
+                    .collectList())
+                    .toFuture();
+        });
+    }
+
+    private Mono<EmployeeSnapshot> snapshot() {
+        return Mono.defer(() -> Mono.fromFuture(snapshotCache.getAsync(this::fetchAllEmployees)));
+    }
+
+    /**
+     * Translates a failure to reach the upstream into a 503 for the client.
+     */
+    private static Throwable unavailable(Throwable e) {
+        if (e instanceof WebClientRequestException
+                || e instanceof WebClientResponseException && ((WebClientResponseException) e).getStatusCode().is5xxServerError()) {
+            return new UpstreamUnavailableException("Employee upstream is unavailable: " + e.getMessage(), e);
+        }
+        return e;
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        return snapshot()
+                .flatMapIterable(EmployeeSnapshot::getEmployees)
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error fetching employee details: {}", e.getMessage()));
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesByNameSearch(String searchString, boolean ignoreCase, boolean ignoreAccents) {
+        return snapshot()
+                .flatMapIterable(snapshot -> snapshot.getNameIndex().search(searchString, ignoreCase, ignoreAccents))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error fetching employee names: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(String id) {
+        return resilience.retried("GET_EMPLOYEE_BY_ID", upstreamWebClient.get()
+                .uri(getEmployeesById + "/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(Employee.class))
+                .onErrorMap(WebClientResponseException.NotFound.class, e -> new ResourceNotFoundException("Employee not found with ID: " + id))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error fetching employee by id: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Integer> getHighestSalaryOfEmployees() {
+        return snapshot()
+                .flatMap(snapshot -> Mono.justOrEmpty(snapshot.getSalaryIndex().highestSalary()))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error fetching highest salary: {}", e.getMessage()));
+    }
+
+    @Override
+    public Flux<String> getTopTenHighestEarningEmployeeNames() {
+        return getTopEmployees(10, "salary").map(Employee::getEmployee_name);
+    }
+
+    @Override
+    public Flux<Employee> getTopEmployees(int n, String by) {
+        if (n < 1) {
+            return Flux.error(new BadRequestException("Number of employees must be positive: " + n));
+        }
+        RankingField field;
+        try {
+            field = RankingField.fromParameter(by);
+        } catch (BadRequestException e) {
+            return Flux.error(e);
+        }
+        return snapshot()
+                .flatMapIterable(snapshot -> field == RankingField.SALARY
+                        ? snapshot.getSalaryIndex().top(n)
+                        : TopK.select(snapshot.getEmployees(), snapshot.getRecords(), n, field))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error fetching top employees: {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<Employee> createEmployee(Map<String, Employee> employeeInput) {
+        for (Employee employee : employeeInput.values()) {
+            if (employee != null) {
+                EmployeeRecord.from(employee);
+            }
+        }
+        return resilience.call("CREATE_EMPLOYEE", upstreamWebClient.post()
+                .uri(createEmployee)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeInput)
+                .retrieve()
+                .bodyToMono(Employee.class))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnNext(created -> {
+                    if (created.getId() != null) {
+                        snapshotCache.applyCreated(created);
+                    } else {
+                        snapshotCache.invalidate();
+                    }
+                })
+                .doOnError(e -> logger.error("Error creating employee : {}", e.getMessage()));
+    }
+
+    @Override
+    public Mono<String> deleteEmployee(String id) {
+        return resilience.call("DELETE_EMPLOYEE", upstreamWebClient.delete()
+                .uri(deleteEmployeesById + "/{id}", id)
+                .retrieve()
+                .bodyToMono(String.class))
+                .doOnNext(message -> snapshotCache.applyDeleted(id))
+                .onErrorMap(WebClientResponseException.NotFound.class, e -> new ResourceNotFoundException("Employee not found with ID: " + id))
+                .onErrorMap(ReactiveEmployeeService::unavailable)
+                .doOnError(e -> logger.error("Error deleting employee: {}", e.getMessage()));
+    }
+}
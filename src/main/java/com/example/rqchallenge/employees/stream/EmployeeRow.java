@@ -0,0 +1,46 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.dto.Employee;
+
+/**
+ * The fields of the employee currently under the parser, reused for every row of a stream.
+ * <p>
+ * Salary and age are parsed straight from the token characters into {@code int}s. The string fields are only
+ * decoded when the row was read with text capture enabled; otherwise they stay {@code null}.
+ */
+final class EmployeeRow {
+
+    String id;
+    String name;
+    String salaryText;
+    String ageText;
+    String profileImage;
+
+    int salary;
+    boolean hasSalary;
+    int age;
+    boolean hasAge;
+
+    void reset() {
+        id = null;
+        name = null;
+        salaryText = null;
+        ageText = null;
+        profileImage = null;
+        hasSalary = false;
+        hasAge = false;
+    }
+
+    /**
+     * Copies the captured fields into a new {@link Employee}; only called for rows that are kept.
+     */
+    Employee toEmployee() {
+        return Employee.builder()
+                .id(id)
+                .employee_name(name)
+                .employee_salary(salaryText)
+                .employee_age(ageText)
+                .profile_image(profileImage)
+                .build();
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.index.NameFolding;
+import com.example.rqchallenge.employees.index.RankingField;
+import com.example.rqchallenge.employees.index.TopK;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Aggregates an upstream employee list while it is being read, without materializing it as a list.
+ * <p>
+ * The response is walked as a Jackson token stream, one row at a time into a reused {@link EmployeeRow}, so
+ * memory stays proportional to the result (one value for the highest salary, {@code n} employees for a top-n,
+ * the matches for a search) regardless of the payload size. Both a bare array of employees and the
+ * {@code {"status": ..., "data": [...]}} envelope are accepted. Salaries and ages may be JSON strings or
+ * numbers; rows whose value is not a valid integer are skipped, as in the snapshot indexes.
+ * <p>
+ * The overloads taking a content type also read the Smile ({@code application/x-jackson-smile}) and CBOR
+ * ({@code application/cbor}) encodings of the same structure; any other content type is read as JSON.
+ */
+public final class EmployeeStream {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
+    private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final long INVALID = Long.MIN_VALUE;
+
+    private EmployeeStream() {
+    }
+
+    /**
+     * @return The highest salary in the stream, or {@code null} when no row has a valid salary.
+     */
+    public static Integer highestSalary(InputStream body) throws IOException {
+        return highestSalary(body, null);
+    }
+
+    /**
+     * @return The highest salary in the stream, or {@code null} when no row has a valid salary.
+     */
+    public static Integer highestSalary(InputStream body, MediaType contentType) throws IOException {
+        int[] highest = new int[1];
+        boolean[] found = new boolean[1];
+        forEachRow(body, contentType, false, row -> {
+            if (row.hasSalary && (!found[0] || row.salary > highest[0])) {
+                highest[0] = row.salary;
+                found[0] = true;
+            }
+        });
+        return found[0] ? highest[0] : null;
+    }
+
+    /**
+     * @return Up to {@code n} employees with the highest value of {@code field}, highest first. Employees with
+     * equal values keep their order in the stream.
+     */
+    public static List<Employee> top(InputStream body, int n, RankingField field) throws IOException {
+        return top(body, null, n, field);
+    }
+
+    /**
+     * @return Up to {@code n} employees with the highest value of {@code field}, highest first.
+     */
+    public static List<Employee> top(InputStream body, MediaType contentType, int n, RankingField field) throws IOException {
+        TopK topK = new TopK(n, field);
+        boolean bySalary = field == RankingField.SALARY;
+        forEachRow(body, contentType, true, row -> {
+            boolean valid = bySalary ? row.hasSalary : row.hasAge;
+            int key = bySalary ? row.salary : row.age;
+            if (valid && topK.accepts(key)) {
+                topK.offer(key, row.toEmployee());
+            }
+        });
+        return topK.result();
+    }
+
+    /**
+     * @return The employees whose name contains {@code searchString}, in stream order, folded the same way as
+     * {@link com.example.rqchallenge.employees.index.NameIndex#search(String, boolean, boolean)}.
+     */
+    public static List<Employee> search(InputStream body, String searchString, boolean ignoreCase, boolean ignoreAccents) throws IOException {
+        return search(body, null, searchString, ignoreCase, ignoreAccents);
+    }
+
+    /**
+     * @return The employees whose name contains {@code searchString}, in stream order.
+     */
+    public static List<Employee> search(InputStream body, MediaType contentType, String searchString, boolean ignoreCase,
+                                        boolean ignoreAccents) throws IOException {
+        String query = NameFolding.fold(searchString, ignoreCase, ignoreAccents);
+        List<Employee> matches = new ArrayList<>();
+        forEachRow(body, contentType, true, row -> {
+            if (row.name != null && NameFolding.fold(row.name, ignoreCase, ignoreAccents).contains(query)) {
+                matches.add(row.toEmployee());
+            }
+        });
+        return matches;
+    }
+
+    /**
+     * Copies every employee of {@code body} to {@code writer} as it is read, without building the employees.
+     *
+     * @return The number of employees copied.
+     */
+    public static long copy(InputStream body, EmployeeStreamWriter writer) throws IOException {
+        return copy(body, null, writer);
+    }
+
+    /**
+     * Copies every employee of {@code body}, encoded as {@code contentType}, to {@code writer} as it is read.
+     *
+     * @return The number of employees copied.
+     */
+    public static long copy(InputStream body, MediaType contentType, EmployeeStreamWriter writer) throws IOException {
+        long before = writer.getWritten();
+        forEachRow(body, contentType, true, row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return writer.getWritten() - before;
+    }
+
+    /**
+     * Feeds every employee object of {@code body} to {@code consumer}. The row is only valid for the duration of
+     * the call.
+     *
+     * @param contentType The encoding of {@code body}, or {@code null} for JSON.
+     * @param captureText Whether the string fields are decoded; aggregations that only need numbers leave them
+     *                    undecoded.
+     */
+    static void forEachRow(InputStream body, MediaType contentType, boolean captureText, Consumer<EmployeeRow> consumer) throws IOException {
+        try (JsonParser parser = factoryFor(contentType).createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                readRows(parser, captureText, consumer);
+            } else if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.START_ARRAY && "data".equals(fieldName)) {
+                        readRows(parser, captureText, consumer);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (token != null) {
+                throw new JsonParseException(parser, "Expected an employee array or a {status, data} envelope but got " + token);
+            }
+        } catch (UncheckedIOException e) {
+            // Consumers that write, such as copy(), tunnel their IOExceptions through the Consumer.
+            throw e.getCause();
+        }
+    }
+
+    private static JsonFactory factoryFor(MediaType contentType) {
+        if (contentType == null) {
+            return JSON_FACTORY;
+        }
+        if (APPLICATION_SMILE.isCompatibleWith(contentType)) {
+            return SMILE_FACTORY;
+        }
+        return MediaType.APPLICATION_CBOR.isCompatibleWith(contentType) ? CBOR_FACTORY : JSON_FACTORY;
+    }
+
+    private static void readRows(JsonParser parser, boolean captureText, Consumer<EmployeeRow> consumer) throws IOException {
+        EmployeeRow row = new EmployeeRow();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new JsonParseException(parser, "Unexpected end of the employee array");
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            row.reset();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    parser.skipChildren();
+                    continue;
+                }
+                readField(parser, fieldName, value, captureText, row);
+            }
+            consumer.accept(row);
+        }
+    }
+
+    private static void readField(JsonParser parser, String fieldName, JsonToken value, boolean captureText, EmployeeRow row) throws IOException {
+        switch (fieldName) {
+            case "employee_salary":
+                long salary = intValue(parser, value);
+                row.hasSalary = salary != INVALID;
+                row.salary = (int) salary;
+                row.salaryText = captureText ? text(parser, value) : null;
+                break;
+            case "employee_age":
+                long age = intValue(parser, value);
+                row.hasAge = age != INVALID;
+                row.age = (int) age;
+                row.ageText = captureText ? text(parser, value) : null;
+                break;
+            case "employee_name":
+                row.name = captureText ? text(parser, value) : null;
+                break;
+            case "id":
+                row.id = captureText ? text(parser, value) : null;
+                break;
+            case "profile_image":
+                row.profileImage = captureText ? text(parser, value) : null;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    /**
+     * Parses an integer field from a number token or, without allocating a string, from the characters of a
+     * string token, accepting what {@link RankingField#parse(String)} accepts.
+     *
+     * @return The value, or {@link #INVALID} when it is missing or not a valid integer.
+     */
+    private static long intValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getNumberType() == JsonParser.NumberType.INT ? parser.getIntValue() : INVALID;
+        }
+        if (value != JsonToken.VALUE_STRING) {
+            return INVALID;
+        }
+        char[] chars = parser.getTextCharacters();
+        int start = parser.getTextOffset();
+        int end = start + parser.getTextLength();
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (chars[start] == '-' || chars[start] == '+')) {
+            negative = chars[start++] == '-';
+        }
+        if (start == end) {
+            return INVALID;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            result = result * 10 + (c - '0');
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                return INVALID;
+            }
+        }
+        result = negative ? -result : result;
+        return result < Integer.MIN_VALUE || result > Integer.MAX_VALUE ? INVALID : result;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.rqchallenge.employees.stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Writes streamed responses on a bounded pool of their own, the MVC async executor.
+ * <p>
+ * A streamed body is written after the request thread has returned, for as long as the client takes to read it.
+ * Boot's default executor queues work beyond its 8 core threads without bound, so a stream could wait up to
+ * {@code spring.mvc.async.request-timeout} for its first byte, and with {@code spring.threads.virtual.enabled=true}
+ * it is not created at all and every stream gets a new thread. Here {@link #admit(StreamingResponseBody)} lets at
+ * most {@code employees.stream.max-concurrent} streams in at a time, each of which gets a thread at once, and
+ * rejects one more with a {@link TaskRejectedException}, which answers 503, before the response is started.
+ * {@code spring.task.execution.pool.*} does not apply to streams.
+ */
+@Component
+public class EmployeeStreamExecutor implements WebMvcConfigurer {
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    @Value("${employees.stream.max-concurrent:32}")
+    private int maxConcurrent;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private Semaphore permits;
+
+    @PostConstruct
+    void startExecutor() {
+        permits = new Semaphore(maxConcurrent);
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        // Only holds a stream admitted while the thread of a finished one is still returning its permit.
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("employee-stream-");
+        executor.initialize();
+        if (meterRegistry != null) {
+            new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "employee-stream", List.of()).bindTo(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(executor);
+    }
+
+    /**
+     * @return {@code body}, holding one of the stream permits until it has been written.
+     * @throws TaskRejectedException If {@code employees.stream.max-concurrent} streams are being written.
+     */
+    public StreamingResponseBody admit(StreamingResponseBody body) {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Too many responses being streamed, try again later");
+        }
+        return out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                permits.release();
+            }
+        };
+    }
+}
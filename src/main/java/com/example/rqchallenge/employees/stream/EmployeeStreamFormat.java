@@ -0,0 +1,43 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formats in which the employee list can be streamed to a client.
+ */
+public enum EmployeeStreamFormat {
+    /**
+     * One JSON object per line, {@code application/x-ndjson}.
+     */
+    NDJSON(new MediaType("application", "x-ndjson")),
+    /**
+     * A single JSON array written incrementally, with the same body as the buffered response.
+     */
+    ARRAY(MediaType.APPLICATION_JSON);
+
+    private final MediaType mediaType;
+
+    EmployeeStreamFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves a request parameter such as {@code ndjson} or {@code array}, ignoring case.
+     *
+     * @throws BadRequestException If the name does not match a format.
+     */
+    public static EmployeeStreamFormat fromParameter(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cannot stream employees as: " + name);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes employees to a response one at a time, in the {@link Employee} wire format.
+ * <p>
+ * Nothing but the generator's small buffer is held, so any number of employees can be written in constant
+ * memory. The output is flushed after the first employee, to get the first byte out early, and then every
+ * {@code flushEvery} employees; each flush becomes one chunk of a chunked response. Writes block while the
+ * client is not reading, which throttles whatever feeds the writer to the client's pace.
+ */
+public final class EmployeeStreamWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final EmployeeStreamFormat format;
+    private final int flushEvery;
+    private long written;
+
+    public EmployeeStreamWriter(OutputStream out, EmployeeStreamFormat format, int flushEvery) throws IOException {
+        this.generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+        // NDJSON lines are separated by the newline alone, not by the default space between root values.
+        this.generator.setRootValueSeparator(null);
+        this.format = format;
+        this.flushEvery = Math.max(flushEvery, 1);
+        if (format == EmployeeStreamFormat.ARRAY) {
+            generator.writeStartArray();
+        }
+    }
+
+    public void write(Employee employee) throws IOException {
+        write(employee.getId(), employee.getEmployee_name(), employee.getEmployee_salary(),
+                employee.getEmployee_age(), employee.getProfile_image());
+    }
+
+    void write(EmployeeRow row) throws IOException {
+        write(row.id, row.name, row.salaryText, row.ageText, row.profileImage);
+    }
+
+    private void write(String id, String name, String salary, String age, String profileImage) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", id);
+        generator.writeStringField("employee_name", name);
+        generator.writeStringField("employee_salary", salary);
+        generator.writeStringField("employee_age", age);
+        generator.writeStringField("profile_image", profileImage);
+        generator.writeEndObject();
+        if (format == EmployeeStreamFormat.NDJSON) {
+            generator.writeRaw('\n');
+        }
+        if (++written == 1 || written % flushEvery == 0) {
+            generator.flush();
+        }
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Ends the array, if any, and flushes. The underlying stream is closed as well.
+     */
+    @Override
+    public void close() throws IOException {
+        if (format == EmployeeStreamFormat.ARRAY && !generator.isClosed()) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
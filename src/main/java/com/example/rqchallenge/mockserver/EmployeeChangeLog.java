@@ -0,0 +1,104 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangeResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent creates and deletes of {@link MockRepository}, in version order, for the change feed.
+ * <p>
+ * The last {@code capacity} changes are kept in a ring indexed by version. Versions are consecutive but taken by
+ * concurrent writers without a common lock, so changes may be appended out of order; a change is only published to
+ * readers once every change before it has been appended, which {@link #append(EmployeeChangeResponse)} does without
+ * blocking by advancing the published version over every appended successor. Every version taken has to be
+ * appended, or the log stops publishing at it.
+ * <p>
+ * {@link #reset(long)} restarts the log at a version reached without logged changes, such as after generating or
+ * recovering employees, and must not race with appends. Reading from a version before the oldest retained change,
+ * or from one this log never reached, fails with {@link CursorExpiredException}; the reader has to load the list
+ * again.
+ */
+final class EmployeeChangeLog {
+
+    private final AtomicReferenceArray<EmployeeChangeResponse> ring;
+
+    /**
+     * The version up to which every change has been appended.
+     */
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * The version the log was last reset to; no change before it is retained.
+     */
+    private volatile long start;
+
+    EmployeeChangeLog(int capacity) {
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    void append(EmployeeChangeResponse change) {
+        ring.set(slot(change.getVersion()), change);
+        long head;
+        EmployeeChangeResponse next;
+        // Whichever writer appends the last missing change publishes it and every successor already appended.
+        while ((next = ring.get(slot((head = published.get()) + 1))) != null && next.getVersion() == head + 1) {
+            published.compareAndSet(head, head + 1);
+        }
+    }
+
+    void reset(long version) {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+        start = version;
+        published.set(version);
+    }
+
+    /**
+     * Waits until every change up to {@code version} has been appended. Writers append right after applying a
+     * change, so this only spins for the few changes in flight.
+     */
+    void awaitPublished(long version) {
+        while (published.get() < version) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * @param since The version to read the changes after, or {@code null} for none, to learn the current version.
+     * @return Up to {@code limit} changes after {@code since}, oldest first.
+     */
+    EmployeeChangesResponse read(String epoch, Long since, int limit) {
+        long head = published.get();
+        if (since == null) {
+            return new EmployeeChangesResponse(epoch, head, false, List.of());
+        }
+        if (since < Math.max(start, head - ring.length()) || since > head) {
+            throw expired(since);
+        }
+        int count = (int) Math.min(limit, head - since);
+        List<EmployeeChangeResponse> changes = new ArrayList<>(count);
+        for (long version = since + 1; version <= since + count; version++) {
+            EmployeeChangeResponse change = ring.get(slot(version));
+            if (change == null || change.getVersion() != version) {
+                // Overwritten by a newer change while reading.
+                throw expired(since);
+            }
+            changes.add(change);
+        }
+        return new EmployeeChangesResponse(epoch, since + count, since + count < head, changes);
+    }
+
+    private static CursorExpiredException expired(long since) {
+        return new CursorExpiredException("Changes since version " + since + " are not retained, reload the employee list");
+    }
+
+    private int slot(long version) {
+        return (int) (version % ring.length());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+/**
+ * Generates pseudo-random employees for load tests of the gateway against the mock upstream.
+ * <p>
+ * Employee {@code i} is derived from {@code (seed, i)} alone, so a seed always yields the same employees however
+ * many threads generate them and in whatever order. Ids are {@value #FIRST_ID} plus the index, all of the same
+ * length, so they sort the same as strings and as numbers. Names mix accented and unaccented spellings to exercise
+ * the name search; salaries follow a skewed distribution with a long tail of high earners. The JMH benchmarks use
+ * the same data sets.
+ */
+public final class EmployeeGenerator {
+
+    public static final long FIRST_ID = 1_000_000_000L;
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Jay", "Manoj", "Anna", "Ana", "José", "Jose", "Zoë", "Zoe", "Chloé", "Priya", "Wei", "Fatima",
+            "Lars", "Søren", "Mateo", "Amélie", "Noah", "Olivia", "Hiroshi", "Aisha", "Liam", "Renée", "Björn"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Kumar", "Müller", "Mueller", "García", "Garcia", "Nguyen", "Okafor", "Dubois",
+            "Rossi", "Kowalski", "Andersen", "Núñez", "Tanaka", "Silva", "O'Brien", "Haddad", "Lefèvre", "Novák"
+    };
+
+    private EmployeeGenerator() {
+    }
+
+    /**
+     * @return Employee {@code index} of the data set generated from {@code seed}.
+     */
+    public static EmployeeRecord employee(long seed, long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        // Log-normal around 60k: most salaries between 30k and 120k, a few in the millions.
+        int salary = (int) Math.min(Integer.MAX_VALUE, Math.round(60_000 * Math.exp(0.5 * gaussian(random))));
+        return EmployeeRecord.builder()
+                .id(Long.toString(FIRST_ID + index))
+                .employee_name(name)
+                .employee_salary(salary)
+                .employee_age(18 + random.nextInt(50))
+                .profile_image("https://picsum.photos/id/" + random.nextInt(1000) + "/200/300")
+                .build();
+    }
+
+    /**
+     * Puts employees {@code 0} to {@code count - 1} of the data set generated from {@code seed} into
+     * {@code employees}, on {@code parallelism} threads.
+     */
+    public static void generate(Map<String, EmployeeRecord> employees, long count, long seed, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> LongStream.range(0, count).parallel().forEach(index -> {
+                EmployeeRecord employee = employee(seed, index);
+                employees.put(employee.getId(), employee);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating employees", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not generate employees", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian.
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
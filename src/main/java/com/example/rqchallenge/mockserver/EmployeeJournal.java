@@ -0,0 +1,676 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Makes the employees of {@link MockRepository} durable: a write-ahead log with group commit, compacted into
+ * snapshots that are read back with memory-mapped I/O.
+ * <p>
+ * A change is applied to the map and appended to an in-memory buffer in one step, under the map's per-key lock,
+ * so the log holds the changes of each id in the order they were applied. A single writer thread drains the
+ * buffer, writes everything appended so far with one {@code write} and one {@code force}, and then releases every
+ * caller waiting in {@link #awaitDurable(long)}; under load one fsync commits many changes.
+ * <p>
+ * Compaction starts a new log segment, writes every employee to {@value #SNAPSHOT} together with the first
+ * segment to replay, and deletes the older segments. Recovery maps the snapshot in windows of up to
+ * {@value #MAP_WINDOW} bytes, decodes it straight from the mapping, and replays the remaining segments on top. A
+ * torn entry at the end of the last segment, left by a crash during a write, is truncated away.
+ * <p>
+ * On disk, a log entry is {@code [int length][int crc32c][payload]}, a snapshot is a header followed by
+ * {@code [int length][record]} entries and a trailer with the CRC32C of all records.
+ */
+class EmployeeJournal implements Closeable {
+
+    static final String SNAPSHOT = "employees.snapshot";
+
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeJournal.class);
+
+    private static final String SEGMENT_PREFIX = "employees-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SNAPSHOT_MAGIC = 0x454d504c;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int SNAPSHOT_HEADER = 16;
+    private static final int SNAPSHOT_END = -1;
+    private static final int MAP_WINDOW = 256 << 20;
+    private static final int MAX_ENTRY = 16 << 20;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    private final Path dir;
+    private final ConcurrentMap<String, EmployeeRecord> employees;
+    private final boolean fsync;
+    private final long snapshotIntervalMs;
+
+    /**
+     * Held shared while a change is applied and appended, and exclusively by compaction while it switches
+     * segments, so that every change logged to the old segments is in the map before the snapshot reads it.
+     */
+    private final ReadWriteLock appendLock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes all file I/O: group commits and compaction.
+     */
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    /**
+     * Guards the fields below; waiters and the writer thread wait and notify on it.
+     */
+    private final Object monitor = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(64 << 10);
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean closing;
+    private IOException failure;
+
+    private ByteBuffer spare = ByteBuffer.allocate(64 << 10);
+    private FileChannel log;
+    private long segment;
+    private long segmentBytes;
+    private long nextCompaction;
+    private Thread writer;
+
+    private long commits;
+
+    EmployeeJournal(Path dir, ConcurrentMap<String, EmployeeRecord> employees, boolean fsync, long snapshotIntervalMs) {
+        this.dir = dir;
+        this.employees = employees;
+        this.fsync = fsync;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+
+    /**
+     * @return Whether {@code dir} holds employees to recover.
+     */
+    static boolean hasSnapshot(Path dir) {
+        return Files.exists(dir.resolve(SNAPSHOT));
+    }
+
+    /**
+     * Loads the employees from the snapshot and log in {@code dir} into the map, if there are any, and starts
+     * logging. Without a snapshot the current content of the map, such as seed data, is kept and written as the
+     * first snapshot.
+     */
+    void open() throws IOException {
+        Files.createDirectories(dir);
+        long started = System.nanoTime();
+        Path snapshot = dir.resolve(SNAPSHOT);
+        boolean hasSnapshot = hasSnapshot(dir);
+        long replayFrom = 0;
+        if (hasSnapshot) {
+            employees.clear();
+            replayFrom = loadSnapshot(snapshot);
+        }
+        List<Long> segments = segments();
+        long replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i) >= replayFrom) {
+                replayed += replay(segmentPath(segments.get(i)), i == segments.size() - 1);
+            }
+        }
+        logger.info("Recovered {} employees from {} ({} log entries) in {} ms", employees.size(), dir, replayed,
+                (System.nanoTime() - started) / 1_000_000);
+
+        if (hasSnapshot && replayed == 0) {
+            // Nothing to compact: the remaining segments hold no entries.
+            for (long number : segments) {
+                Files.delete(segmentPath(number));
+            }
+            openSegment(replayFrom);
+        } else {
+            long next = segments.isEmpty() ? replayFrom : Math.max(replayFrom, segments.get(segments.size() - 1) + 1);
+            openSegment(next);
+            writeSnapshot(next);
+            deleteSegmentsBefore(next);
+        }
+        nextCompaction = System.currentTimeMillis() + snapshotIntervalMs;
+        writer = new Thread(this::run, "employee-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Adds {@code employee} unless its id exists, and logs the addition.
+     *
+     * @return The sequence number to pass to {@link #awaitDurable(long)}, or {@code 0} if the id exists.
+     */
+    long putIfAbsent(EmployeeRecord employee) {
+        return putIfAbsent(employee, () -> {});
+    }
+
+    /**
+     * Like {@link #putIfAbsent(EmployeeRecord)}, running {@code logged} once the addition is logged and before it
+     * is in the map, while no other change of the id can be applied.
+     */
+    long putIfAbsent(EmployeeRecord employee, Runnable logged) {
+        long[] seq = new long[1];
+        appendLock.readLock().lock();
+        try {
+            employees.computeIfAbsent(employee.getId(), id -> {
+                seq[0] = append(PUT, employee, id);
+                logged.run();
+                return employee;
+            });
+        } finally {
+            appendLock.readLock().unlock();
+        }
+        return seq[0];
+    }
+
+    /**
+     * Removes the employee with {@code id}, if any, and logs the removal.
+     *
+     * @return The sequence number to pass to {@link #awaitDurable(long)}, or {@code 0} if there was no such employee.
+     */
+    long remove(String id) {
+        return remove(id, () -> {});
+    }
+
+    /**
+     * Like {@link #remove(String)}, running {@code logged} once the removal is logged and before it is applied to
+     * the map, while no other change of the id can be applied.
+     */
+    long remove(String id, Runnable logged) {
+        long[] seq = new long[1];
+        appendLock.readLock().lock();
+        try {
+            employees.computeIfPresent(id, (key, existing) -> {
+                seq[0] = append(DELETE, null, key);
+                logged.run();
+                return null;
+            });
+        } finally {
+            appendLock.readLock().unlock();
+        }
+        return seq[0];
+    }
+
+    /**
+     * Blocks until the change with sequence number {@code seq}, and every change before it, is on disk.
+     *
+     * @throws UncheckedIOException If the log could not be written.
+     */
+    void awaitDurable(long seq) {
+        synchronized (monitor) {
+            boolean interrupted = false;
+            while (durableSeq < seq && failure == null) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableSeq < seq) {
+                throw new UncheckedIOException("Employee log could not be written", failure);
+            }
+        }
+    }
+
+    private long append(byte op, EmployeeRecord employee, String id) {
+        byte[][] strings = op == PUT
+                ? new byte[][]{utf8(id), utf8(employee.getEmployee_name()), utf8(employee.getProfile_image())}
+                : new byte[][]{utf8(id)};
+        int payloadLength = 1 + stringsLength(strings) + (op == PUT ? 8 : 0);
+        synchronized (monitor) {
+            if (failure != null) {
+                throw new UncheckedIOException("Employee log could not be written", failure);
+            }
+            if (closing) {
+                throw new IllegalStateException("Employee log is closed");
+            }
+            if (pending.remaining() < 8 + payloadLength) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + 8 + payloadLength));
+                pending.flip();
+                pending = grown.put(pending);
+            }
+            int start = pending.position();
+            pending.position(start + 8);
+            pending.put(op);
+            if (op == PUT) {
+                putRecord(pending, strings, employee);
+            } else {
+                putString(pending, strings[0]);
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(pending.array(), start + 8, payloadLength);
+            pending.putInt(start, payloadLength).putInt(start + 4, (int) crc.getValue());
+            monitor.notifyAll();
+            return ++appendedSeq;
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                synchronized (monitor) {
+                    while (pending.position() == 0 && !closing && !compactionDue()) {
+                        long wait = snapshotIntervalMs > 0 ? Math.max(1, nextCompaction - System.currentTimeMillis()) : 0;
+                        monitor.wait(wait);
+                    }
+                    if (pending.position() == 0 && closing) {
+                        return;
+                    }
+                }
+                if (compactionDue()) {
+                    compact();
+                } else {
+                    commit();
+                }
+            }
+        } catch (IOException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(new IOException(e));
+        } catch (InterruptedException e) {
+            fail(new IOException("Employee log writer interrupted", e));
+        }
+    }
+
+    private boolean compactionDue() {
+        return snapshotIntervalMs > 0 && segmentBytes > 0 && System.currentTimeMillis() >= nextCompaction;
+    }
+
+    private void fail(IOException e) {
+        logger.error("Employee log failed, further changes are rejected", e);
+        synchronized (monitor) {
+            failure = e;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Writes everything appended so far to the current segment as one group commit.
+     */
+    private void commit() throws IOException {
+        ioLock.lock();
+        try {
+            ByteBuffer batch;
+            long batchSeq;
+            synchronized (monitor) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                batchSeq = appendedSeq;
+            }
+            batch.flip();
+            segmentBytes += batch.remaining();
+            while (batch.hasRemaining()) {
+                log.write(batch);
+            }
+            if (fsync) {
+                log.force(false);
+            }
+            spare = batch.clear();
+            commits++;
+            synchronized (monitor) {
+                durableSeq = batchSeq;
+                monitor.notifyAll();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and writes a snapshot that replays from it, then deletes the older segments.
+     */
+    void compact() throws IOException {
+        ioLock.lock();
+        try {
+            long replayFrom;
+            appendLock.writeLock().lock();
+            try {
+                commit();
+                openSegment(segment + 1);
+                replayFrom = segment;
+            } finally {
+                appendLock.writeLock().unlock();
+            }
+            long started = System.nanoTime();
+            writeSnapshot(replayFrom);
+            deleteSegmentsBefore(replayFrom);
+            logger.debug("Compacted {} employees in {} ms", employees.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            nextCompaction = System.currentTimeMillis() + snapshotIntervalMs;
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Commits what is pending and stops the writer thread. The log is not compacted; the next {@link #open()}
+     * replays it.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (monitor) {
+            closing = true;
+            monitor.notifyAll();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ioLock.lock();
+        try {
+            if (log != null) {
+                log.close();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of group commits written, each covering one or more changes.
+     */
+    long getCommits() {
+        ioLock.lock();
+        try {
+            return commits;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        if (log != null) {
+            log.force(false);
+            log.close();
+        }
+        log = FileChannel.open(segmentPath(number), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        forceDirectory();
+        segment = number;
+        segmentBytes = 0;
+    }
+
+    private Path segmentPath(long number) {
+        return dir.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void deleteSegmentsBefore(long number) throws IOException {
+        for (long older : segments()) {
+            if (older < number) {
+                Files.delete(segmentPath(older));
+            }
+        }
+    }
+
+    private void forceDirectory() {
+        // Makes file creation and renames durable; not supported on every platform, where it is skipped.
+        try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            logger.trace("Could not sync directory {}", dir, e);
+        }
+    }
+
+    /**
+     * Replays the entries of a segment into the map.
+     *
+     * @param last Whether this is the newest segment, the only one a crash may have left with a torn entry.
+     * @return The number of entries replayed.
+     */
+    private long replay(Path path, boolean last) throws IOException {
+        long entries = 0;
+        long position = 0;
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+            byte[] payload = new byte[256];
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                    if (length < 1 || length > MAX_ENTRY) {
+                        throw new EOFException("Invalid entry length " + length);
+                    }
+                    if (payload.length < length) {
+                        payload = new byte[Math.max(length, payload.length * 2)];
+                    }
+                    in.readFully(payload, 0, length);
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        throw new EOFException("Checksum mismatch");
+                    }
+                } catch (EOFException e) {
+                    if (position == Files.size(path)) {
+                        break;
+                    }
+                    if (!last) {
+                        throw new IllegalStateException("Corrupt log segment " + path + " at offset " + position, e);
+                    }
+                    logger.warn("Truncating torn log entry in {} at offset {}: {}", path, position, e.getMessage());
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                        channel.truncate(position);
+                        channel.force(true);
+                    }
+                    break;
+                }
+                apply(ByteBuffer.wrap(payload, 0, length));
+                position += 8 + length;
+                entries++;
+            }
+        }
+        return entries;
+    }
+
+    private void apply(ByteBuffer payload) {
+        byte op = payload.get();
+        if (op == PUT) {
+            EmployeeRecord employee = getRecord(payload);
+            employees.put(employee.getId(), employee);
+        } else if (op == DELETE) {
+            employees.remove(getString(payload));
+        } else {
+            throw new IllegalStateException("Unknown log entry type " + op);
+        }
+    }
+
+    private void writeSnapshot(long replayFrom) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        CRC32C crc = new CRC32C();
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_FORMAT).putLong(replayFrom);
+            for (EmployeeRecord employee : employees.values()) {
+                byte[][] strings = {utf8(employee.getId()), utf8(employee.getEmployee_name()), utf8(employee.getProfile_image())};
+                int length = stringsLength(strings) + 8;
+                if (buffer.remaining() < 4 + length) {
+                    drain(channel, buffer);
+                    if (buffer.capacity() < 4 + length) {
+                        buffer = ByteBuffer.allocate(4 + length);
+                    }
+                }
+                buffer.putInt(length);
+                int start = buffer.position();
+                putRecord(buffer, strings, employee);
+                crc.update(buffer.duplicate().position(start).limit(start + length));
+                count++;
+            }
+            if (buffer.remaining() < 12) {
+                drain(channel, buffer);
+            }
+            buffer.putInt(SNAPSHOT_END).putLong(crc.getValue());
+            drain(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory();
+        logger.debug("Wrote snapshot of {} employees replaying from segment {}", count, replayFrom);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Loads the snapshot into the map straight from memory-mapped windows of the file.
+     *
+     * @return The first log segment to replay on top of the snapshot.
+     */
+    private long loadSnapshot(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedWindow in = new MappedWindow(channel);
+            ByteBuffer header = in.require(SNAPSHOT_HEADER);
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != SNAPSHOT_FORMAT) {
+                throw new IllegalStateException("Not an employee snapshot: " + path);
+            }
+            long replayFrom = header.getLong();
+            CRC32C crc = new CRC32C();
+            while (true) {
+                int length = in.require(4).getInt();
+                if (length == SNAPSHOT_END) {
+                    break;
+                }
+                if (length < 0 || length > MAX_ENTRY) {
+                    throw new IllegalStateException("Corrupt employee snapshot " + path);
+                }
+                ByteBuffer record = in.require(length);
+                int start = record.position();
+                crc.update(record.duplicate().limit(start + length));
+                record.position(start);
+                EmployeeRecord employee = getRecord(record);
+                employees.put(employee.getId(), employee);
+            }
+            if (in.require(8).getLong() != crc.getValue()) {
+                throw new IllegalStateException("Checksum mismatch in employee snapshot " + path);
+            }
+            return replayFrom;
+        }
+    }
+
+    /**
+     * Reads a file through read-only mappings of at most {@link #MAP_WINDOW} bytes, remapping as the reader
+     * moves past the end of the current one.
+     */
+    private static final class MappedWindow {
+        private final FileChannel channel;
+        private final long size;
+        private long base;
+        private ByteBuffer window = ByteBuffer.allocate(0);
+
+        MappedWindow(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        /**
+         * @return The window, positioned at the next {@code bytes} bytes.
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (window.remaining() < bytes) {
+                base += window.position();
+                long length = Math.min(size - base, Math.max(MAP_WINDOW, bytes));
+                if (length < bytes) {
+                    throw new EOFException("Employee snapshot is truncated");
+                }
+                window = channel.map(FileChannel.MapMode.READ_ONLY, base, length);
+            }
+            return window;
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, byte[][] strings, EmployeeRecord employee) {
+        putString(buffer, strings[0]);
+        putString(buffer, strings[1]);
+        buffer.putInt(employee.getEmployee_salary()).putInt(employee.getEmployee_age());
+        putString(buffer, strings[2]);
+    }
+
+    private static EmployeeRecord getRecord(ByteBuffer buffer) {
+        return EmployeeRecord.builder()
+                .id(getString(buffer))
+                .employee_name(getString(buffer))
+                .employee_salary(buffer.getInt())
+                .employee_age(buffer.getInt())
+                .profile_image(getString(buffer))
+                .build();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringsLength(byte[][] strings) {
+        int length = 0;
+        for (byte[] string : strings) {
+            length += 4 + (string == null ? 0 : string.length);
+        }
+        return length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.duplicate().get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.rqchallenge.mockserver;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the mock upstream behave like a loaded production service, so the gateway's tail latency can be
+ * reproduced on one machine.
+ * <p>
+ * For every request whose path matches {@code mock.faults.path-pattern}:
+ * <ul>
+ *     <li>waits {@code latency-ms} plus an exponentially distributed jitter with a mean of {@code jitter-ms}, which
+ *     gives the long tail typical of real services;</li>
+ *     <li>fails a fraction {@code error-rate} of the requests with {@code error-status}, without reaching the
+ *     controller;</li>
+ *     <li>throttles the response body to {@code slow-body-bytes-per-second}, flushing as it goes, so clients see the
+ *     headers early and then a slowly arriving body.</li>
+ * </ul>
+ * Each knob is off at 0. The delays block the Tomcat thread like a slow backend would, so the mock's own
+ * {@code server.tomcat.threads.max} bounds how many slow requests it serves at once. Active when
+ * {@code mock.faults.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "mock.faults.enabled", havingValue = "true")
+public class FaultInjectionFilter extends OncePerRequestFilter {
+
+    @Value("${mock.faults.path-pattern:/api/v1/.*}")
+    private Pattern pathPattern;
+
+    @Value("${mock.faults.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${mock.faults.jitter-ms:0}")
+    private double jitterMs;
+
+    @Value("${mock.faults.error-rate:0}")
+    private double errorRate;
+
+    @Value("${mock.faults.error-status:503}")
+    private int errorStatus;
+
+    @Value("${mock.faults.slow-body-bytes-per-second:0}")
+    private long slowBodyBytesPerSecond;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !pathPattern.matcher(request.getRequestURI()).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        if (jitterMs > 0) {
+            delayNanos += (long) (-Math.log(1.0 - random.nextDouble()) * jitterMs * 1_000_000);
+        }
+        sleep(delayNanos);
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            response.sendError(errorStatus, "Injected fault");
+            return;
+        }
+        if (slowBodyBytesPerSecond > 0) {
+            ThrottledResponse throttled = new ThrottledResponse(response, slowBodyBytesPerSecond);
+            filterChain.doFilter(request, throttled);
+            throttled.flushBuffer();
+        } else {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while injecting latency");
+        }
+    }
+
+    /**
+     * Passes the body through in small flushed chunks, sleeping whenever it gets ahead of the configured rate.
+     */
+    private static final class ThrottledResponse extends HttpServletResponseWrapper {
+
+        private final ThrottledOutputStream out;
+        private PrintWriter writer;
+
+        ThrottledResponse(HttpServletResponse response, long bytesPerSecond) throws IOException {
+            super(response);
+            this.out = new ThrottledOutputStream(response, bytesPerSecond);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(out, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            out.flush();
+        }
+    }
+
+    private static final class ThrottledOutputStream extends ServletOutputStream {
+
+        private final HttpServletResponse response;
+        private final long bytesPerSecond;
+        private final int chunkSize;
+        private long started;
+        private long written;
+        private ServletOutputStream target;
+
+        ThrottledOutputStream(HttpServletResponse response, long bytesPerSecond) {
+            this.response = response;
+            this.bytesPerSecond = bytesPerSecond;
+            // About 20 chunks per second, so the body arrives steadily rather than in bursts.
+            this.chunkSize = (int) Math.max(1, Math.min(8192, bytesPerSecond / 20));
+        }
+
+        private ServletOutputStream target() throws IOException {
+            if (target == null) {
+                target = response.getOutputStream();
+                started = System.nanoTime();
+            }
+            return target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ServletOutputStream target = target();
+            while (len > 0) {
+                int chunk = Math.min(len, chunkSize);
+                target.write(b, off, chunk);
+                target.flush();
+                off += chunk;
+                len -= chunk;
+                written += chunk;
+                long due = started + written * 1_000_000_000L / bytesPerSecond;
+                sleep(due - System.nanoTime());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target == null || target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            try {
+                target().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.rqchallenge.mockserver;
 
-import com.example.rqchallenge.mockserver.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.mockserver.dto.BatchItemResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
 import com.example.rqchallenge.mockserver.dto.EmployeeListResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeePageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -15,18 +20,39 @@ public class MockController {
     @Autowired
     MockService mockService;
 
+    /**
+     * Answers 304 without a body when {@code If-None-Match} names the ETag of the current version.
+     */
     @GetMapping("/employees")
-    public List<Employee> getAllEmployees(){
-        return mockService.getAllEmployees();
+    public ResponseEntity<List<EmployeeRecord>> getAllEmployees(WebRequest request){
+        MockRepository.Snapshot snapshot = mockService.getAllEmployeesSnapshot();
+        if (request.checkNotModified(snapshot.getETag())){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(snapshot.getETag()).body(snapshot.getEmployees());
+    }
+
+    @GetMapping(value = "/employees", params = "limit")
+    public EmployeePageResponse getEmployeesPage(@RequestParam int limit, @RequestParam(required = false) String cursor){
+        return mockService.getEmployeesPage(limit, cursor);
+    }
+
+    /**
+     * The creates and deletes after version {@code since}, oldest first; without {@code since} only the current
+     * version. Answers 410 when those changes are no longer retained.
+     */
+    @GetMapping("/changes")
+    public EmployeeChangesResponse getChanges(@RequestParam(required = false) Long since, @RequestParam(defaultValue = "1000") int limit){
+        return mockService.getChanges(since, limit);
     }
 
     @GetMapping("/employee/{id}")
-    public Employee getEmployeeById(@PathVariable String id){
+    public EmployeeRecord getEmployeeById(@PathVariable String id){
         return mockService.getEmployeeById(id);
     }
 
     @PostMapping("/create")
-    public Employee createEmployee(@RequestBody Map<String, Employee> employeeInput){
+    public EmployeeRecord createEmployee(@RequestBody Map<String, EmployeeRecord> employeeInput){
         return mockService.createEmployee(employeeInput);
     }
 
@@ -35,6 +61,16 @@ public class MockController {
         return mockService.deleteEmployeeById(id);
     }
 
+    @PostMapping("/batch/create")
+    public List<BatchItemResponse> createEmployees(@RequestBody Map<String, EmployeeRecord> employeeInput){
+        return mockService.createEmployees(employeeInput);
+    }
+
+    @DeleteMapping("/batch/delete")
+    public List<BatchItemResponse> deleteEmployees(@RequestBody List<String> ids){
+        return mockService.deleteEmployees(ids);
+    }
+
     @GetMapping("/research/employees")
         public EmployeeListResponse getAllEmployeesResearch(){
             return mockService.getAllEmployeesResearch();
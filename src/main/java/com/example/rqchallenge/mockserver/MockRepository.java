@@ -1,64 +1,415 @@
 package com.example.rqchallenge.mockserver;
 
-import com.example.rqchallenge.mockserver.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
 import com.example.rqchallenge.employees.exception.DuplicateIdException;
 import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.mockserver.dto.BatchItemResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangeResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
 import com.example.rqchallenge.mockserver.dto.EmployeeListResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeePageResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * In-memory employee store of the mock upstream, safe for concurrent Tomcat threads.
+ * <p>
+ * Employees live in a {@link ConcurrentHashMap}: point reads take no lock, and creates are a single
+ * {@code putIfAbsent}, so two requests for the same id can no longer both succeed. List reads are served from an
+ * immutable snapshot of the current version, sorted by id and built once on the first read after a change, then
+ * published by swapping a single reference; reads of an unchanged store return it without copying or locking. Each
+ * snapshot has a weak ETag made of the version and the start time of this process, so that clients can revalidate
+ * the list with {@code If-None-Match} and a restart never reuses one.
+ * <p>
+ * Every successful change takes the next version from an {@link AtomicLong} and is logged with it to an
+ * {@link EmployeeChangeLog}. Writers share no lock: the version is taken while the map holds the id's entry, so the
+ * versions of each id follow the order its changes were applied in, and the change is logged right after it is
+ * applied. A snapshot of a version holds exactly the changes up to it. {@code GET /api/v1/changes?since=<version>}
+ * serves the last {@value #RETAINED_CHANGES} changes, so that readers keep a copy of the list up to date without
+ * reading it again.
+ * <p>
+ * Paging cursors name the snapshot version they were issued for; the last {@value #RETAINED_SNAPSHOTS} snapshots
+ * that were read are retained, so a client can page through one consistent version while employees are created
+ * and deleted. A cursor for an older version fails with {@link CursorExpiredException}.
+ * <p>
+ * With {@code mock.persistence.enabled=true} the employees survive restarts: creates and deletes are logged by an
+ * {@link EmployeeJournal} under {@code mock.persistence.dir} and only answered once they are on disk, and startup
+ * recovers the employees from there instead of the seed data. With {@code mock.generator.count} set, that many
+ * deterministic employees from {@link EmployeeGenerator} are added to the seed data at startup.
+ */
 @Repository
 public class MockRepository {
-    static private final Map<String, Employee> employees = new HashMap<>();
+    static final int RETAINED_SNAPSHOTS = 16;
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int RETAINED_CHANGES = 100_000;
+
+    static private final ConcurrentMap<String, EmployeeRecord> employees = new ConcurrentHashMap<>();
+    static private final AtomicLong version = new AtomicLong();
+    static private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    static private final EmployeeChangeLog changes = new EmployeeChangeLog(RETAINED_CHANGES);
+    static private final ConcurrentNavigableMap<Long, Snapshot> retained = new ConcurrentSkipListMap<>();
+    static private volatile EmployeeJournal journal;
+    static private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final Logger logger = LoggerFactory.getLogger(MockRepository.class);
+
+    @Value("${mock.persistence.enabled:false}")
+    private boolean persistenceEnabled;
+
+    @Value("${mock.persistence.dir:mock-data}")
+    private String persistenceDir;
+
+    @Value("${mock.persistence.fsync:true}")
+    private boolean persistenceFsync;
+
+    @Value("${mock.persistence.snapshot-interval-ms:60000}")
+    private long snapshotIntervalMs;
+
+    public static final class Snapshot {
+        final long version;
+        final List<EmployeeRecord> employees;
+        final String eTag;
+
+        Snapshot(long version, List<EmployeeRecord> employees) {
+            this.version = version;
+            this.employees = employees;
+            // Weak, as the version names the list rather than its bytes, and so the response can still be compressed.
+            this.eTag = "W/\"" + epoch + "-" + version + "\"";
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<EmployeeRecord> getEmployees() {
+            return employees;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
     static {
-        Employee employee = new Employee("1", "John", "3000", "25", "https://picsum.photos/id/1/200/300");
-        Employee employee2 = new Employee("2", "Jay", "3200", "27", "https://picsum.photos/id/1/200/300");
+        EmployeeRecord employee = EmployeeRecord.builder().id("1").employee_name("John").employee_salary(3000).employee_age(25)
+                .profile_image("https://picsum.photos/id/1/200/300").build();
+        EmployeeRecord employee2 = EmployeeRecord.builder().id("2").employee_name("Jay").employee_salary(3200).employee_age(27)
+                .profile_image("https://picsum.photos/id/1/200/300").build();
         employees.put(employee.getId(), employee);
         employees.put(employee2.getId(), employee2);
     }
 
-    public List<Employee> getAllEmployees(){
-        return new ArrayList<>(employees.values());
+    @Value("${mock.generator.count:0}")
+    private long generatorCount;
+
+    @Value("${mock.generator.seed:42}")
+    private long generatorSeed;
+
+    @Value("${mock.generator.parallelism:0}")
+    private int generatorParallelism;
+
+    /**
+     * Adds the generated employees, if configured, and opens the journal, if enabled. Employees recovered by the
+     * journal take precedence, so the data set is only generated when the journal has none yet.
+     */
+    @PostConstruct
+    void load() throws IOException {
+        boolean recovering = persistenceEnabled && EmployeeJournal.hasSnapshot(Paths.get(persistenceDir));
+        if (generatorCount > 0 && !recovering){
+            long started = System.nanoTime();
+            int parallelism = generatorParallelism > 0 ? generatorParallelism : Runtime.getRuntime().availableProcessors();
+            EmployeeGenerator.generate(employees, generatorCount, generatorSeed, parallelism);
+            reset();
+            logger.info("Generated {} employees with seed {} in {} ms", generatorCount, generatorSeed, (System.nanoTime() - started) / 1_000_000);
+        }
+        if (persistenceEnabled){
+            EmployeeJournal opened = new EmployeeJournal(Paths.get(persistenceDir), employees, persistenceFsync, snapshotIntervalMs);
+            opened.open();
+            journal = opened;
+            reset();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        EmployeeJournal opened = journal;
+        if (opened != null){
+            journal = null;
+            opened.close();
+        }
+    }
+
+    /**
+     * Adds {@code employee} unless its id exists, and logs the change with the next version.
+     *
+     * @return A ticket for {@link #awaitDurable(long)}, or {@code 0} if the id exists.
+     */
+    private static long insert(EmployeeRecord employee){
+        long[] changeVersion = new long[1];
+        Runnable takeVersion = () -> changeVersion[0] = version.incrementAndGet();
+        EmployeeJournal opened = journal;
+        long ticket;
+        if (opened != null){
+            ticket = opened.putIfAbsent(employee, takeVersion);
+        } else {
+            employees.computeIfAbsent(employee.getId(), id -> {
+                takeVersion.run();
+                return employee;
+            });
+            ticket = changeVersion[0] != 0 ? 1 : 0;
+        }
+        if (changeVersion[0] != 0){
+            changes.append(new EmployeeChangeResponse(changeVersion[0], EmployeeChange.Type.CREATE, employee.getId(), employee));
+        }
+        return ticket;
+    }
+
+    /**
+     * Removes the employee with {@code id}, if any, and logs the change with the next version.
+     *
+     * @return A ticket for {@link #awaitDurable(long)}, or {@code 0} if there was no such employee.
+     */
+    private static long delete(String id){
+        long[] changeVersion = new long[1];
+        Runnable takeVersion = () -> changeVersion[0] = version.incrementAndGet();
+        EmployeeJournal opened = journal;
+        long ticket;
+        if (opened != null){
+            ticket = opened.remove(id, takeVersion);
+        } else {
+            employees.computeIfPresent(id, (key, existing) -> {
+                takeVersion.run();
+                return null;
+            });
+            ticket = changeVersion[0] != 0 ? 1 : 0;
+        }
+        if (changeVersion[0] != 0){
+            changes.append(new EmployeeChangeResponse(changeVersion[0], EmployeeChange.Type.DELETE, id, null));
+        }
+        return ticket;
+    }
+
+    /**
+     * Waits until the changes up to {@code ticket} are durable; returns at once without persistence.
+     */
+    private static void awaitDurable(long ticket){
+        EmployeeJournal opened = journal;
+        if (opened != null && ticket > 0){
+            opened.awaitDurable(ticket);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the current version, building it if this is the first read since a change.
+     * Concurrent builds of one version resolve to whichever was retained first, so every cursor of a version pages
+     * through the same list.
+     */
+    private Snapshot snapshot(){
+        Snapshot snapshot = current.get();
+        if (snapshot != null && snapshot.version == version.get()){
+            return snapshot;
+        }
+        Snapshot built = build();
+        Snapshot published = retained.putIfAbsent(built.version, built);
+        if (published == null){
+            published = built;
+            while (retained.size() > RETAINED_SNAPSHOTS){
+                retained.pollFirstEntry();
+            }
+        }
+        current.accumulateAndGet(published, (previous, next) ->
+                previous == null || previous.version < next.version ? next : previous);
+        return published;
+    }
+
+    /**
+     * Builds the snapshot of the version reached by the end of the walk over the map.
+     * <p>
+     * The walk takes no lock, so it may or may not see the changes applied while it runs; their versions were all
+     * taken before it ended, though, so they are read back from the change log and applied on top, and the snapshot
+     * holds exactly the changes up to its version. Changes up to the version at the start of the walk are waited
+     * for, as a writer takes its version just before its change is in the map.
+     */
+    private static Snapshot build(){
+        while (true){
+            long before = version.get();
+            changes.awaitPublished(before);
+            EmployeeRecord[] walked = employees.values().toArray(new EmployeeRecord[0]);
+            long after = version.get();
+            if (after != before){
+                changes.awaitPublished(after);
+                try {
+                    walked = patched(walked, before, after);
+                } catch (CursorExpiredException e){
+                    // More changes than the log retains were applied during the walk.
+                    continue;
+                }
+            }
+            Arrays.sort(walked, Comparator.comparing(EmployeeRecord::getId));
+            return new Snapshot(after, Collections.unmodifiableList(Arrays.asList(walked)));
+        }
+    }
+
+    /**
+     * @return The employees of {@code walked} with the changes after version {@code before} up to {@code after}.
+     */
+    private static EmployeeRecord[] patched(EmployeeRecord[] walked, long before, long after){
+        int limit = (int) Math.min(after - before, RETAINED_CHANGES + 1L);
+        List<EmployeeChangeResponse> applied = changes.read(epoch, before, limit).getChanges();
+        Map<String, EmployeeRecord> byId = new HashMap<>(walked.length * 4 / 3 + 1);
+        for (EmployeeRecord employee : walked){
+            byId.put(employee.getId(), employee);
+        }
+        for (EmployeeChangeResponse change : applied){
+            if (change.getType() == EmployeeChange.Type.CREATE){
+                byId.put(change.getId(), change.getEmployee());
+            } else {
+                byId.remove(change.getId());
+            }
+        }
+        return byId.values().toArray(new EmployeeRecord[0]);
+    }
+
+    private Snapshot snapshot(long snapshotVersion){
+        Snapshot snapshot = retained.get(snapshotVersion);
+        if (snapshot == null){
+            throw new CursorExpiredException("Cursor for version " + snapshotVersion + " has expired, restart from the first page");
+        }
+        return snapshot;
+    }
+
+    /**
+     * Starts a new version for employees that were added without being logged, and restarts the change log there.
+     * Only called at startup, before any request can change the employees.
+     */
+    private static void reset(){
+        changes.reset(version.incrementAndGet());
+    }
+
+    public List<EmployeeRecord> getAllEmployees(){
+        return snapshot().employees;
+    }
+
+    /**
+     * Returns the employee list of the current version together with its version and ETag.
+     */
+    public Snapshot getAllEmployeesSnapshot(){
+        return snapshot();
+    }
+
+    /**
+     * Returns up to {@code limit} creates and deletes after version {@code since}, oldest first, or only the
+     * current version when {@code since} is {@code null}. A reader that loads the list after learning the current
+     * version and then applies the changes since that version, in order, has the list of the version it reached:
+     * a create is the employee with its id and a delete its absence, whatever the reader's list already had.
+     *
+     * @throws CursorExpiredException If the changes since {@code since} are no longer retained, or {@code since}
+     *                                is a version of another process.
+     */
+    public EmployeeChangesResponse getChanges(Long since, int limit){
+        if (limit < 1 || limit > MAX_PAGE_SIZE){
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        return changes.read(epoch, since, limit);
+    }
+
+    /**
+     * Returns up to {@code limit} employees after {@code cursor}, or from the start of the current version when
+     * {@code cursor} is {@code null}.
+     */
+    public EmployeePageResponse getEmployeesPage(int limit, String cursor){
+        if (limit < 1 || limit > MAX_PAGE_SIZE){
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE + ": " + limit);
+        }
+        Snapshot snapshot;
+        int offset;
+        if (cursor == null){
+            snapshot = snapshot();
+            offset = 0;
+        } else {
+            long[] position = decodeCursor(cursor);
+            snapshot = snapshot(position[0]);
+            offset = (int) Math.min(position[1], snapshot.employees.size());
+        }
+        int end = Math.min(snapshot.employees.size(), offset + limit);
+        String nextCursor = end < snapshot.employees.size() ? encodeCursor(snapshot.version, end) : null;
+        return new EmployeePageResponse(snapshot.employees.subList(offset, end), nextCursor, snapshot.version);
+    }
+
+    static String encodeCursor(long snapshotVersion, int offset){
+        String position = snapshotVersion + ":" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long[] decodeCursor(String cursor){
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (position.length != 2){
+                throw new IllegalArgumentException(cursor);
+            }
+            long[] decoded = {Long.parseLong(position[0]), Long.parseLong(position[1])};
+            if (decoded[1] < 0){
+                throw new IllegalArgumentException(cursor);
+            }
+            return decoded;
+        } catch (IllegalArgumentException e){
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
     }
 
     public <V> EmployeeListResponse getAllEmployeesResearch(){
         EmployeeListResponse employeeList = new EmployeeListResponse();
-        ArrayList<Employee> al = new ArrayList<>(employees.values()) ;
-        employeeList.setData(al);
+        employeeList.setData(snapshot().employees);
         employeeList.setStatus("success");
         return employeeList;
     }
 
-    public Employee getEmployeeById(String id){
-        if (employees.get(id) == null){
+    public EmployeeRecord getEmployeeById(String id){
+        EmployeeRecord employee = employees.get(id);
+        if (employee == null){
             throw new ResourceNotFoundException("Employee with id: "+ id+ " does not exist!");
         }
-        return employees.get(id);
+        return employee;
     }
 
-    public Employee  createEmployee(Map<String, Employee> employeeInput){
+    public EmployeeRecord  createEmployee(Map<String, EmployeeRecord> employeeInput){
         String key = employeeInput.entrySet().iterator().next().getKey();
-        Employee value = employeeInput.entrySet().iterator().next().getValue();
-        if (employees.containsKey(key)){
-            throw new DuplicateIdException("Value "+key+" Already exist");
+        EmployeeRecord value = employeeInput.entrySet().iterator().next().getValue();
+        if(!key.equals(value.getId())){
+            if (employees.containsKey(key)){
+                throw new DuplicateIdException("Value "+key+" Already exist");
+            }
+            return null;
         }
-        if(key.equals(value.getId())){
-            Employee emp = Employee.builder()
-                    .employee_age(value.getEmployee_age())
-                    .employee_salary(value.getEmployee_salary())
-                    .employee_name(value.getEmployee_name())
-                    .id(value.getId())
-                    .profile_image(value.getProfile_image())
-                    .build();
-            employees.put(key, emp);
-            return value;
+        long ticket = insert(value);
+        if (ticket == 0){
+            throw new DuplicateIdException("Value "+key+" Already exist");
         }
-        return null;
+        awaitDurable(ticket);
+        return value;
     }
 
     public String deleteEmployeeById(String id) {
-        if (employees.containsKey(id)){
-            employees.remove(id);
+        long ticket = delete(id);
+        if (ticket != 0){
+            awaitDurable(ticket);
             return "successfully! deleted Record";
         }
 
@@ -66,4 +417,48 @@ public class MockRepository {
             throw new ResourceNotFoundException("Resource not found");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates each employee independently: every item is its own atomic put, so a batch may interleave with
+     * other writers, but no id is ever created twice. With persistence the batch waits for durability once, after
+     * its last change.
+     */
+    public List<BatchItemResponse> createEmployees(Map<String, EmployeeRecord> employeeInput){
+        List<BatchItemResponse> results = new ArrayList<>(employeeInput.size());
+        long lastTicket = 0;
+        for (Map.Entry<String, EmployeeRecord> entry : employeeInput.entrySet()) {
+            String key = entry.getKey();
+            EmployeeRecord value = entry.getValue();
+            if (value == null || !key.equals(value.getId())){
+                String message = employees.containsKey(key) ? "Value "+key+" Already exist" : "Id does not match key "+key;
+                results.add(BatchItemResponse.builder().id(key).status(400).message(message).build());
+                continue;
+            }
+            long ticket = insert(value);
+            if (ticket == 0){
+                results.add(BatchItemResponse.builder().id(key).status(400).message("Value "+key+" Already exist").build());
+            } else {
+                lastTicket = Math.max(lastTicket, ticket);
+                results.add(BatchItemResponse.builder().id(key).status(201).data(value).build());
+            }
+        }
+        awaitDurable(lastTicket);
+        return results;
+    }
+
+    public List<BatchItemResponse> deleteEmployees(List<String> ids){
+        List<BatchItemResponse> results = new ArrayList<>(ids.size());
+        long lastTicket = 0;
+        for (String id : ids) {
+            long ticket = delete(id);
+            if (ticket != 0){
+                lastTicket = Math.max(lastTicket, ticket);
+                results.add(BatchItemResponse.builder().id(id).status(200).message("successfully! deleted Record").build());
+            } else {
+                results.add(BatchItemResponse.builder().id(id).status(404).message("Resource not found").build());
+            }
+        }
+        awaitDurable(lastTicket);
+        return results;
+    }
+}
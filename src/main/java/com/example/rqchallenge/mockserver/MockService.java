@@ -1,7 +1,10 @@
 package com.example.rqchallenge.mockserver;
 
-import com.example.rqchallenge.mockserver.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.mockserver.dto.BatchItemResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
 import com.example.rqchallenge.mockserver.dto.EmployeeListResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeePageResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,15 +16,27 @@ public class MockService {
     @Autowired
     MockRepository mockRepository;
 
-   public List<Employee> getAllEmployees(){
+   public List<EmployeeRecord> getAllEmployees(){
       return mockRepository.getAllEmployees();
    }
 
-    public Employee getEmployeeById(String id){
+    public MockRepository.Snapshot getAllEmployeesSnapshot(){
+       return mockRepository.getAllEmployeesSnapshot();
+    }
+
+    public EmployeePageResponse getEmployeesPage(int limit, String cursor){
+       return mockRepository.getEmployeesPage(limit, cursor);
+    }
+
+    public EmployeeChangesResponse getChanges(Long since, int limit){
+       return mockRepository.getChanges(since, limit);
+    }
+
+    public EmployeeRecord getEmployeeById(String id){
        return mockRepository.getEmployeeById(id);
     }
 
-    public Employee createEmployee(Map<String, Employee> employeeInput){
+    public EmployeeRecord createEmployee(Map<String, EmployeeRecord> employeeInput){
       return mockRepository.createEmployee(employeeInput);
     }
 
@@ -32,4 +47,12 @@ public class MockService {
     public EmployeeListResponse getAllEmployeesResearch(){
        return mockRepository.getAllEmployeesResearch();
     }
+
+    public List<BatchItemResponse> createEmployees(Map<String, EmployeeRecord> employeeInput){
+       return mockRepository.createEmployees(employeeInput);
+    }
+
+    public List<BatchItemResponse> deleteEmployees(List<String> ids){
+       return mockRepository.deleteEmployees(ids);
+    }
 }
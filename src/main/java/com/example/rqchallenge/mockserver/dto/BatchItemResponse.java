@@ -1,5 +1,6 @@
 package com.example.rqchallenge.mockserver.dto;
 
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,12 +10,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class Employee {
-
+public class BatchItemResponse {
     private String id;
-    private String employee_name;
-    private String employee_salary;
-    private String employee_age;
-    private String profile_image;
-
+    private int status;
+    private String message;
+    private EmployeeRecord data;
 }
@@ -0,0 +1,19 @@
+package com.example.rqchallenge.mockserver.dto;
+
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeChangeResponse {
+    private long version;
+    private EmployeeChange.Type type;
+    private String id;
+    private EmployeeRecord employee;
+}
@@ -0,0 +1,19 @@
+package com.example.rqchallenge.mockserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeChangesResponse {
+    private String epoch;
+    private long version;
+    private boolean hasMore;
+    private List<EmployeeChangeResponse> changes;
+}
@@ -1,11 +1,12 @@
 package com.example.rqchallenge.mockserver.dto;
 
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -13,5 +14,5 @@ import java.util.ArrayList;
 @Builder
 public class EmployeeListResponse {
     private String status;
-    private ArrayList<Employee> data;
+    private List<EmployeeRecord> data;
 }
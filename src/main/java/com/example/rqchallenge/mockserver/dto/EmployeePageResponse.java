@@ -0,0 +1,19 @@
+package com.example.rqchallenge.mockserver.dto;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeePageResponse {
+    private List<EmployeeRecord> data;
+    private String nextCursor;
+    private long version;
+}
@@ -1,5 +1,6 @@
 package com.example.rqchallenge.mockserver.dto;
 
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,5 +12,5 @@ import lombok.NoArgsConstructor;
 @Builder
 public class EmployeeResponse {
     private String status;
-    private Employee data;
+    private EmployeeRecord data;
 }
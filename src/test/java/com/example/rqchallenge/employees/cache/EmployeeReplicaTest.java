@@ -0,0 +1,179 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.EmployeeChanges;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {EmployeeReplica.class, EmployeeSnapshotCache.class}, properties = {
+        "employees.replica.enabled=true",
+        "employees.replica.poll-ms=3600000",
+        "employees.replica.max-lag-ms=200"
+})
+public class EmployeeReplicaTest {
+
+    @Autowired
+    EmployeeReplica replica;
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    private static final Upstream upstream = new Upstream();
+
+    @BeforeEach
+    void setUp() {
+        upstream.restart(employee("1"), employee("2"));
+        snapshotCache.invalidate();
+        replica.start(upstream::changes, upstream::load);
+        assertTrue(replica.catchUp());
+        upstream.loads = 0;
+    }
+
+    @Test
+    void testChangesAreAppliedWithoutReloading() {
+        long applied = replica.getChangesApplied();
+        upstream.create(employee("3"));
+        upstream.delete("1");
+
+        assertTrue(replica.catchUp());
+
+        assertEquals(List.of("2", "3"), ids(replica.snapshot()));
+        assertEquals("Employee 3", replica.snapshot().findById("3").getEmployee_name());
+        assertNull(replica.snapshot().findById("1"));
+        assertEquals(0, upstream.loads);
+        assertEquals(applied + 2, replica.getChangesApplied());
+    }
+
+    @Test
+    void testChangesArePagedUntilCaughtUp() {
+        for (int i = 3; i < 8; i++) {
+            upstream.create(employee(Integer.toString(i)));
+        }
+        upstream.create(Employee.builder().id("2").employee_name("Renamed").employee_salary("100").build());
+
+        assertTrue(replica.catchUp());
+
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7"), ids(replica.snapshot()));
+        assertEquals("Renamed", replica.snapshot().findById("2").getEmployee_name());
+        assertEquals(0, upstream.loads);
+    }
+
+    @Test
+    void testListIsReloadedWhenChangesAreNoLongerRetained() {
+        long resyncs = replica.getResyncs();
+        upstream.create(employee("3"));
+        upstream.forget();
+
+        assertTrue(replica.catchUp());
+
+        assertEquals(List.of("1", "2", "3"), ids(replica.snapshot()));
+        assertEquals(1, upstream.loads);
+        assertEquals(resyncs + 1, replica.getResyncs());
+    }
+
+    @Test
+    void testListIsReloadedAfterUpstreamRestart() {
+        upstream.restart(employee("9"));
+
+        assertTrue(replica.catchUp());
+
+        assertEquals(List.of("9"), ids(replica.snapshot()));
+        assertEquals(1, upstream.loads);
+    }
+
+    @Test
+    void testSnapshotIsWithheldWhileTheFeedFails() throws InterruptedException {
+        upstream.failing = true;
+        try {
+            assertFalse(replica.catchUp());
+            Thread.sleep(300);
+            assertNull(replica.snapshot());
+            assertTrue(replica.getLagSeconds() >= 0.2);
+        } finally {
+            upstream.failing = false;
+        }
+        upstream.create(employee("3"));
+
+        assertTrue(replica.catchUp());
+        assertEquals(List.of("1", "2", "3"), ids(replica.snapshot()));
+    }
+
+    private static Employee employee(String id) {
+        return Employee.builder().id(id).employee_name("Employee " + id).employee_salary("1000").build();
+    }
+
+    private static List<String> ids(EmployeeSnapshot snapshot) {
+        return snapshot.getEmployees().stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    /**
+     * An upstream with a change feed of two changes per page.
+     */
+    private static final class Upstream {
+        private final Map<String, Employee> employees = new LinkedHashMap<>();
+        private final List<EmployeeChange> log = new ArrayList<>();
+        private int epochs;
+        private long floor;
+        private long version;
+        volatile int loads;
+        volatile boolean failing;
+
+        synchronized void restart(Employee... initial) {
+            employees.clear();
+            log.clear();
+            for (Employee employee : initial) {
+                employees.put(employee.getId(), employee);
+            }
+            epochs++;
+            floor = version;
+        }
+
+        synchronized void create(Employee employee) {
+            employees.put(employee.getId(), employee);
+            log.add(new EmployeeChange(++version, EmployeeChange.Type.CREATE, employee.getId(), employee));
+        }
+
+        synchronized void delete(String id) {
+            employees.remove(id);
+            log.add(new EmployeeChange(++version, EmployeeChange.Type.DELETE, id, null));
+        }
+
+        synchronized void forget() {
+            log.clear();
+            floor = version;
+        }
+
+        synchronized EmployeeChanges changes(Long since) {
+            if (failing) {
+                throw new IllegalStateException("Change feed is down");
+            }
+            String epoch = "epoch-" + epochs;
+            if (since == null) {
+                return new EmployeeChanges(epoch, version, false, List.of());
+            }
+            if (since < floor || since > version) {
+                throw new CursorExpiredException("Changes since version " + since + " are not retained");
+            }
+            List<EmployeeChange> page = log.stream().filter(change -> change.getVersion() > since).limit(2).collect(Collectors.toList());
+            long reached = page.isEmpty() ? since : page.get(page.size() - 1).getVersion();
+            return new EmployeeChanges(epoch, reached, reached < version, page);
+        }
+
+        synchronized UpstreamEmployees load(String eTag) {
+            loads++;
+            return UpstreamEmployees.of(new ArrayList<>(employees.values()), null);
+        }
+    }
+}
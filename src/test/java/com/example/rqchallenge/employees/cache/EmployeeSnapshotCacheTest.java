@@ -0,0 +1,217 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = EmployeeSnapshotCache.class, properties = {
+        "employees.cache.ttl-ms=100",
+        "employees.cache.stale-ms=60000"
+})
+public class EmployeeSnapshotCacheTest {
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<List<Employee>> loader = () -> {
+        loads.incrementAndGet();
+        return List.of(Employee.builder().id("1").employee_name("Manoj").employee_salary("600000").build());
+    };
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache.invalidate();
+        loads.set(0);
+    }
+
+    @Test
+    void testFreshSnapshotIsServedFromCache() {
+        long misses = snapshotCache.getMisses();
+        long hits = snapshotCache.getHits();
+
+        EmployeeSnapshot first = snapshotCache.get(loader);
+        EmployeeSnapshot second = snapshotCache.get(loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(misses + 1, snapshotCache.getMisses());
+        assertEquals(hits + 1, snapshotCache.getHits());
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        EmployeeSnapshot first = snapshotCache.get(loader);
+        snapshotCache.invalidate();
+        EmployeeSnapshot second = snapshotCache.get(loader);
+
+        assertEquals(2, loads.get());
+        assertTrue(second.getVersion() > first.getVersion());
+    }
+
+    @Test
+    void testExpiredSnapshotIsServedWhileRefreshing() throws InterruptedException {
+        long refreshes = snapshotCache.getRefreshes();
+        EmployeeSnapshot first = snapshotCache.get(loader);
+        Thread.sleep(150);
+
+        assertSame(first, snapshotCache.get(loader));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (snapshotCache.getRefreshes() == refreshes && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(refreshes + 1, snapshotCache.getRefreshes());
+        assertTrue(snapshotCache.get(loader).getVersion() > first.getVersion());
+    }
+
+    @Test
+    void testExpiredSnapshotIsRevalidatedWithItsETag() throws InterruptedException {
+        List<String> sent = new CopyOnWriteArrayList<>();
+        Function<String, UpstreamEmployees> conditionalLoader = eTag -> {
+            sent.add(String.valueOf(eTag));
+            return eTag == null ? UpstreamEmployees.of(loader.get(), "\"v1\"") : UpstreamEmployees.notModified();
+        };
+        long revalidations = snapshotCache.getRevalidations();
+        EmployeeSnapshot first = snapshotCache.getConditionally(conditionalLoader);
+        Thread.sleep(150);
+
+        assertSame(first, snapshotCache.getConditionally(conditionalLoader));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (snapshotCache.getRevalidations() == revalidations && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        EmployeeSnapshot revalidated = snapshotCache.getConditionally(conditionalLoader);
+        assertEquals(revalidations + 1, snapshotCache.getRevalidations());
+        assertEquals(first.getVersion(), revalidated.getVersion());
+        assertEquals(snapshotCache.eTagOf(first), snapshotCache.eTagOf(revalidated));
+        assertTrue(revalidated.getFetchedAtNanos() > first.getFetchedAtNanos());
+        assertEquals(List.of("null", "\"v1\""), sent);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testLocallyChangedSnapshotLosesItsETag() {
+        EmployeeSnapshot loaded = snapshotCache.getConditionally(eTag -> UpstreamEmployees.of(loader.get(), "\"v1\""));
+        snapshotCache.applyCreated(Employee.builder().id("2").employee_name("Jane").employee_salary("60000").build());
+        EmployeeSnapshot changed = snapshotCache.getConditionally(eTag -> fail("Fresh snapshot must not be loaded"));
+
+        assertEquals("\"v1\"", loaded.getETag());
+        assertNull(changed.getETag());
+        assertNotEquals(snapshotCache.eTagOf(loaded), snapshotCache.eTagOf(changed));
+    }
+
+    @Test
+    void testUpstreamChangesPatchTheSnapshotAndItsIndexes() {
+        EmployeeSnapshot loaded = snapshotCache.get(loader);
+        assertEquals(600000, loaded.getSalaryIndex().highestSalary());
+        Employee jane = Employee.builder().id("2").employee_name("Jane").employee_salary("700000").build();
+
+        assertTrue(snapshotCache.applyChanges(List.of(
+                new EmployeeChange(1, EmployeeChange.Type.CREATE, "2", jane),
+                new EmployeeChange(2, EmployeeChange.Type.DELETE, "1", null),
+                new EmployeeChange(3, EmployeeChange.Type.DELETE, "missing", null))));
+        EmployeeSnapshot changed = snapshotCache.get(() -> fail("Changed snapshot must not be loaded"));
+
+        assertEquals(List.of(jane), changed.getEmployees());
+        assertEquals(700000, changed.getSalaryIndex().highestSalary());
+        assertEquals(List.of(jane), changed.getNameIndex().search("Jan", false, false));
+        assertSame(jane, changed.findById("2"));
+        assertNull(changed.findById("1"));
+        assertTrue(changed.getVersion() > loaded.getVersion());
+        assertNull(changed.getETag());
+    }
+
+    @Test
+    void testSalaryStatsArePatchedWithTheSnapshot() {
+        snapshotCache.get(loader).getSalarySketch();
+        snapshotCache.applyCreated(Employee.builder().id("2").employee_name("Jane").employee_salary("200000").build());
+        snapshotCache.applyCreated(Employee.builder().id("3").employee_name("Jay").employee_salary("400000").build());
+        snapshotCache.applyDeleted("1");
+        assertTrue(snapshotCache.applyChanges(List.of(
+                new EmployeeChange(1, EmployeeChange.Type.CREATE, "3", Employee.builder().id("3").employee_name("Jay").employee_salary("100000").build()))));
+
+        SalaryStats stats = snapshotCache.get(() -> fail("Changed snapshot must not be loaded")).getSalaryStats(List.of(0.0, 1.0), List.of(150000));
+
+        assertEquals(2, stats.getCount());
+        assertEquals(300000, stats.getSum());
+        assertEquals(150000.0, stats.getMean());
+        assertEquals(100000, stats.getMin());
+        assertEquals(200000, stats.getMax());
+        assertEquals(100000, stats.getPercentiles().get("0"));
+        assertEquals(200000, stats.getPercentiles().get("1"));
+        assertEquals(List.of(new SalaryStats.Bucket(150000, 1), new SalaryStats.Bucket(null, 1)), stats.getHistogram());
+    }
+
+    @Test
+    void testCreateAlreadyAppliedFromTheFeedIsNotCountedTwice() {
+        snapshotCache.get(loader).getSalaryStats(List.of(), List.of());
+        Employee jane = Employee.builder().id("2").employee_name("Jane").employee_salary("700000").build();
+
+        assertTrue(snapshotCache.applyChanges(List.of(new EmployeeChange(1, EmployeeChange.Type.CREATE, "2", jane))));
+        snapshotCache.applyCreated(jane);
+        EmployeeSnapshot changed = snapshotCache.get(() -> fail("Changed snapshot must not be loaded"));
+        SalaryStats stats = changed.getSalaryStats(List.of(), List.of());
+
+        assertEquals(List.of("1", "2"), changed.getEmployees().stream().map(Employee::getId).collect(Collectors.toList()));
+        assertEquals(2, changed.getRecords().size());
+        assertEquals(2, changed.getSalaryIndex().size());
+        assertEquals(List.of(jane), changed.getNameIndex().search("Jane", false, false));
+        assertEquals(2, stats.getCount());
+        assertEquals(1300000, stats.getSum());
+    }
+
+    @Test
+    void testReplacedEmployeeKeepsItsPlaceInTheIndexes() {
+        Employee jane = Employee.builder().id("2").employee_name("Jane").employee_salary("600000").build();
+        Employee janice = Employee.builder().id("3").employee_name("Janice").employee_salary("600000").build();
+        snapshotCache.get(loader);
+        snapshotCache.applyCreated(jane);
+        snapshotCache.applyCreated(janice);
+        EmployeeSnapshot indexed = snapshotCache.get(() -> fail("Changed snapshot must not be loaded"));
+        indexed.getSalaryIndex();
+        indexed.getNameIndex();
+        Employee janet = Employee.builder().id("1").employee_name("Janet").employee_salary("600000").build();
+        Employee janeDoe = Employee.builder().id("2").employee_name("Jane Doe").employee_salary("600000").build();
+
+        snapshotCache.applyCreated(janet);
+        assertTrue(snapshotCache.applyChanges(List.of(new EmployeeChange(1, EmployeeChange.Type.CREATE, "2", janeDoe))));
+        EmployeeSnapshot replaced = snapshotCache.get(() -> fail("Changed snapshot must not be loaded"));
+
+        assertEquals(List.of(janet, janeDoe, janice), replaced.getEmployees());
+        assertEquals(List.of(janet, janeDoe, janice), replaced.getNameIndex().search("Jan", false, false));
+        assertEquals(List.of(janet, janeDoe, janice), replaced.getSalaryIndex().top(3));
+
+        Employee janetRaised = Employee.builder().id("1").employee_name("Janet").employee_salary("700000").build();
+        Employee janeCut = Employee.builder().id("2").employee_name("Jane Doe").employee_salary("500000").build();
+        snapshotCache.applyCreated(janetRaised);
+        snapshotCache.applyCreated(Employee.builder().id("1").employee_name("Janet").employee_salary("600000").build());
+        assertTrue(snapshotCache.applyChanges(List.of(new EmployeeChange(2, EmployeeChange.Type.CREATE, "2", janeCut))));
+        EmployeeSnapshot changed = snapshotCache.get(() -> fail("Changed snapshot must not be loaded"));
+
+        assertEquals(List.of("1", "3", "2"), changed.getSalaryIndex().top(3).stream().map(Employee::getId).collect(Collectors.toList()));
+        assertEquals(List.of("1", "2", "3"), changed.getNameIndex().search("Jan", false, false).stream().map(Employee::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSnapshotIsImmutable() {
+        EmployeeSnapshot snapshot = snapshotCache.get(loader);
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getEmployees().clear());
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.rqchallenge.employees.cache;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = EmployeeSnapshotCache.class, properties = {
+        "employees.cache.ttl-ms=10",
+        "employees.cache.stale-ms=10",
+        "employees.cache.stale-if-error-ms=60000"
+})
+public class StaleIfErrorTest {
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    private final Supplier<List<Employee>> loader = () -> List.of(Employee.builder().id("1").employee_name("Manoj").employee_salary("600000").build());
+
+    private final Supplier<List<Employee>> failingLoader = () -> {
+        throw new IllegalStateException("Upstream down");
+    };
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache.invalidate();
+    }
+
+    @Test
+    void testExpiredSnapshotIsServedWhenReloadFails() throws InterruptedException {
+        EmployeeSnapshot first = snapshotCache.get(loader);
+        long staleIfError = snapshotCache.getStaleIfError();
+        Thread.sleep(50);
+
+        assertSame(first, snapshotCache.get(failingLoader));
+        assertSame(first, snapshotCache.getAsync(() -> CompletableFuture.failedFuture(new IllegalStateException("Upstream down"))).join());
+        assertEquals(staleIfError + 2, snapshotCache.getStaleIfError());
+    }
+
+    @Test
+    void testInvalidatedSnapshotIsNeverServed() {
+        snapshotCache.get(loader);
+        snapshotCache.invalidate();
+
+        assertThrows(IllegalStateException.class, () -> snapshotCache.get(failingLoader));
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> snapshotCache.getAsync(() -> CompletableFuture.failedFuture(new IllegalStateException("Upstream down"))).join());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+}
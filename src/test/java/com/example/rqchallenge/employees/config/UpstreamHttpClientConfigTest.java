@@ -0,0 +1,39 @@
+package com.example.rqchallenge.employees.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamHttpClientConfigTest {
+
+    private PoolingHttpClientConnectionManager connectionManager(String routeLimits) {
+        UpstreamHttpClientConfig config = new UpstreamHttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", 200);
+        ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 50);
+        ReflectionTestUtils.setField(config, "keepAliveMs", 30000L);
+        ReflectionTestUtils.setField(config, "routeLimits", routeLimits);
+        return config.upstreamConnectionManager();
+    }
+
+    @Test
+    void testRouteLimitsOverrideTheDefaultPerRoute() {
+        PoolingHttpClientConnectionManager connectionManager = connectionManager("localhost:8080=100, http://example.com:80=20");
+
+        assertEquals(100, connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("localhost:8080"))));
+        assertEquals(20, connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("http://example.com:80"))));
+        assertEquals(50, connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("localhost:9090"))));
+        connectionManager.shutdown();
+    }
+
+    @Test
+    void testMalformedRouteLimitsAreRejected() {
+        for (String routeLimits : new String[]{"localhost:8080", "=100", "localhost:8080=many", "localhost:8080=0"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> connectionManager(routeLimits));
+            assertEquals("Expected <host:port>=<limit> in upstream.http.route-limits: " + routeLimits, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.rqchallenge.employees.config;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.metrics.UpstreamMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@SpringBootTest(classes = {UpstreamWireFormats.class, UpstreamMetrics.class, UpstreamWireFormatsTest.Registry.class}, properties = {
+        "GET_ALL_EMPLOYEES=http://upstream/api/v1/employees",
+        "GET_EMPLOYEES_BY_NAME_SEARCH=http://upstream/api/v1/employees",
+        "GET_EMPLOYEE_BY_ID=http://upstream/api/v1/employee",
+        "CREATE_EMPLOYEE=http://upstream/api/v1/create",
+        "DELETE_EMPLOYEE=http://upstream/api/v1/delete",
+        "CREATE_EMPLOYEES_BATCH=http://upstream/api/v1/batch/create",
+        "DELETE_EMPLOYEES_BATCH=http://upstream/api/v1/batch/delete",
+        "upstream.wire.default=json+gzip",
+        "upstream.wire.overrides=GET_ALL_EMPLOYEES=smile+gzip, GET_EMPLOYEE_BY_ID=json"
+})
+public class UpstreamWireFormatsTest {
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    UpstreamWireFormats upstreamWireFormats;
+
+    @Autowired
+    UpstreamMetrics upstreamMetrics;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private RestTemplate restTemplate;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry.clear();
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(upstreamWireFormats);
+        restTemplate.getInterceptors().add(upstreamMetrics);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testFormatIsNegotiatedPerUpstream() {
+        server.expect(requestTo("http://upstream/api/v1/employees"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/json;q=0.5"))
+                .andExpect(header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://upstream/api/v1/employee/1"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/json"))
+                .andExpect(headerDoesNotExist(HttpHeaders.ACCEPT_ENCODING))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://upstream/api/v1/delete/1")).andExpect(method(HttpMethod.DELETE))
+                .andExpect(headerDoesNotExist(HttpHeaders.ACCEPT_ENCODING))
+                .andRespond(withSuccess());
+
+        restTemplate.getForObject("http://upstream/api/v1/employees", String.class);
+        restTemplate.getForObject("http://upstream/api/v1/employee/1", String.class);
+        restTemplate.delete("http://upstream/api/v1/delete/1");
+
+        server.verify();
+    }
+
+    @Test
+    void testGzipResponseIsInflatedAndMeteredCompressed() throws IOException {
+        String body = "[{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\"}]".repeat(20);
+        byte[] compressed = gzip(body.getBytes(StandardCharsets.UTF_8));
+        server.expect(requestTo("http://upstream/api/v1/employee/1"))
+                .andRespond(withSuccess(compressed, MediaType.APPLICATION_JSON).headers(gzipped()));
+
+        assertEquals(body, restTemplate.getForObject("http://upstream/api/v1/employee/1", String.class));
+        assertEquals(compressed.length, meterRegistry.get("upstream.response.size").tag("upstream", "GET_EMPLOYEE_BY_ID").summary().totalAmount());
+    }
+
+    @Test
+    void testSmileResponseIsDecoded() throws IOException {
+        Employee employee = Employee.builder().id("1").employee_name("Manoj").employee_salary("600000").build();
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(List.of(employee));
+        server.expect(requestTo("http://upstream/api/v1/employees"))
+                .andRespond(withSuccess(gzip(smile), MediaType.parseMediaType("application/x-jackson-smile")).headers(gzipped()));
+
+        Employee[] employees = restTemplate.getForObject("http://upstream/api/v1/employees", Employee[].class);
+
+        assertArrayEquals(new Employee[]{employee}, employees);
+    }
+
+    @Test
+    void testNotModifiedIsNotInflated() {
+        server.expect(requestTo("http://upstream/api/v1/employees"))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(gzipped()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, restTemplate.getForEntity("http://upstream/api/v1/employees", String.class).getStatusCode());
+    }
+
+    private static HttpHeaders gzipped() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return headers;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
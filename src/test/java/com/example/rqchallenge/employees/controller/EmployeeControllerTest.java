@@ -1,8 +1,16 @@
 package com.example.rqchallenge.employees.controller;
 
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.dto.BatchItemResult;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.employees.exception.BadRequestException;
 import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
 import com.example.rqchallenge.employees.service.EmployeeService;
+import com.example.rqchallenge.employees.stream.EmployeeStreamFormat;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,21 +24,32 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @ExtendWith(SpringExtension.class)
-@WebMvcTest(EmployeeController.class)
+@WebMvcTest(controllers = EmployeeController.class, properties = "employees.stream.max-concurrent=2")
 public class EmployeeControllerTest {
 
     @Autowired
@@ -68,6 +87,109 @@ public class EmployeeControllerTest {
 
     }
 
+    @Test
+    public void listAllEmployees_fetchesOncePerRequest() throws Exception {
+        given(employeeService.getAllEmployees())
+                .willReturn(new ResponseEntity<>(List.of(employee), HttpStatus.OK));
+
+        mockMvc.perform(get("/employees").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(employeeService, times(1)).getAllEmployees();
+    }
+
+    @Test
+    public void listAllEmployees_whenNotModified() throws Exception {
+        given(employeeService.getAllEmployees())
+                .willReturn(ResponseEntity.ok().eTag("\"abc-1\"").body(List.of(employee)));
+
+        mockMvc.perform(get("/employees").header("If-None-Match", "\"abc-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc-1\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/employees").header("If-None-Match", "\"abc-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-1\""))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    public void streamAllEmployees_asNdjson() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(employeeService).writeAllEmployees(Mockito.any(OutputStream.class), Mockito.eq(EmployeeStreamFormat.NDJSON));
+
+        MvcResult result = mockMvc.perform(get("/employees?stream=ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":\"1\"}\n"));
+    }
+
+    @Test
+    public void streamAllEmployees_beyondTheConcurrentStreams() throws Exception {
+        CountDownLatch writing = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            invocation.getArgument(0, OutputStream.class).write("{\"id\":\"1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(employeeService).writeAllEmployees(Mockito.any(OutputStream.class), Mockito.eq(EmployeeStreamFormat.NDJSON));
+
+        MvcResult first = mockMvc.perform(get("/employees?stream=ndjson")).andExpect(request().asyncStarted()).andReturn();
+        MvcResult second = mockMvc.perform(get("/employees?stream=ndjson")).andExpect(request().asyncStarted()).andReturn();
+        assertTrue(writing.await(5, TimeUnit.SECONDS), "both streams are written at the same time");
+
+        mockMvc.perform(get("/employees?stream=ndjson"))
+                .andExpect(status().isServiceUnavailable());
+
+        release.countDown();
+        for (MvcResult result : List.of(first, second)) {
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("{\"id\":\"1\"}\n"));
+        }
+        mockMvc.perform(get("/employees?stream=ndjson")).andExpect(request().asyncStarted());
+    }
+
+    @Test
+    public void streamAllEmployees_withUnknownFormat() throws Exception {
+        mockMvc.perform(get("/employees?stream=xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listEmployeesPage_whenLimitGiven() throws Exception {
+        EmployeePage page = EmployeePage.builder().data(List.of(employee)).nextCursor("MTox").version(1).build();
+        given(employeeService.getEmployeesPage(1, null))
+                .willReturn(new ResponseEntity<>(page, HttpStatus.OK));
+
+        mockMvc.perform(get("/employees?limit=1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("MTox")));
+    }
+
+    @Test
+    public void listEmployeesPage_withStream() throws Exception {
+        mockMvc.perform(get("/employees?stream&limit=10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/employees?stream=ndjson&limit=10"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void listEmployeesPage_withExpiredCursor() throws Exception {
+        Mockito.doThrow(new CursorExpiredException("Cursor has expired")).when(employeeService).getEmployeesPage(1, "MToz");
+
+        mockMvc.perform(get("/employees?limit=1&cursor=MToz").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isGone());
+    }
+
     @Test
     public void listEmployeeById_getMethod() throws Exception {
         // Create a mock response entity
@@ -121,7 +243,7 @@ public class EmployeeControllerTest {
         // Create a mock response entity
         ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(employeeList, HttpStatus.OK);
 
-        given(employeeService.getEmployeesByNameSearch("Manoj"))
+        given(employeeService.getEmployeesByNameSearch("Manoj", false, false))
                 .willReturn(mockResponseEntity);
 
         mockMvc.perform(get("/employees/search/"+employee.getEmployee_name()).contentType(MediaType.APPLICATION_JSON))
@@ -152,6 +274,44 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.employee_name", is(employee.getEmployee_name())));
     }
 
+    @Test
+    public void createEmployees_inBatch() throws Exception {
+        List<BatchItemResult> results = List.of(
+                BatchItemResult.builder().id("1").status(201).data(employee).build(),
+                BatchItemResult.builder().id("2").status(400).message("Value 2 Already exist").build());
+        given(employeeService.createEmployees(Mockito.anyMap()))
+                .willReturn(new ResponseEntity<>(results, HttpStatus.MULTI_STATUS));
+
+        mockMvc.perform(post("/employees/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"1\":{\"id\":\"1\"},\"2\":{\"id\":\"2\"}}"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].status", is(400)));
+    }
+
+    @Test
+    public void deleteEmployees_inBatch() throws Exception {
+        given(employeeService.deleteEmployees(List.of("1", "2")))
+                .willReturn(new ResponseEntity<>(List.of(
+                        BatchItemResult.builder().id("1").status(200).build(),
+                        BatchItemResult.builder().id("2").status(200).build()), HttpStatus.OK));
+
+        mockMvc.perform(delete("/employees/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[\"1\",\"2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is("1")));
+    }
+
+    @Test
+    public void createEmployee_withMalformedBody() throws Exception {
+        mockMvc.perform(post("/employees")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"1\": "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void highestSalaryOfEmployee_whenGetMethod() throws Exception {
         Integer highestSalary = 6000000;
@@ -165,4 +325,93 @@ public class EmployeeControllerTest {
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
     }
+
+    @Test
+    public void salaryStats_whenGetMethod() throws Exception {
+        SalaryStats stats = SalaryStats.builder().count(2).sum(9000).mean(4500.0).min(3000).max(6000)
+                .relativeAccuracy(0.01).percentiles(Map.of("0.5", 3000))
+                .histogram(List.of(new SalaryStats.Bucket(5000, 1), new SalaryStats.Bucket(null, 1))).build();
+        given(employeeService.getSalaryStats(List.of(0.5), List.of(5000))).willReturn(new ResponseEntity<>(stats, HttpStatus.OK));
+
+        mockMvc.perform(get("/employees/salaryStats").param("percentiles", "0.5").param("bounds", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.percentiles['0.5']", is(3000)))
+                .andExpect(jsonPath("$.histogram[0].upperBound", is(5000)))
+                .andExpect(jsonPath("$.histogram[1].count", is(1)));
+    }
+
+    @Test
+    public void highestSalaryOfEmployee_whenUpstreamUnavailable() throws Exception {
+        Mockito.doThrow(new UpstreamUnavailableException("Employee upstream GET_ALL_EMPLOYEES is unavailable: circuit breaker is open", null))
+                .when(employeeService).getHighestSalaryOfEmployees();
+
+        mockMvc.perform(get("/employees/highestSalary"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.statusCode", is(503)));
+    }
+
+    @Test
+    public void employeeById_whenDeadlineExceeded() throws Exception {
+        Mockito.doThrow(new UpstreamTimeoutException("Request deadline exceeded waiting for GET_EMPLOYEE_BY_ID", null))
+                .when(employeeService).getEmployeeById("1");
+
+        mockMvc.perform(get("/employees/1"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.statusCode", is(504)));
+    }
+
+    @Test
+    public void topEmployees_whenGetMethod() throws Exception {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(List.of(employee), HttpStatus.OK);
+
+        given(employeeService.getTopEmployees(5, "age")).willReturn(mockResponseEntity);
+
+        mockMvc.perform(get("/employees/top?n=5&by=age")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].employee_name", is(employee.getEmployee_name())));
+    }
+
+    @Test
+    public void should_return_bad_request_when_top_employees_field_is_unknown() throws Exception {
+        Mockito.doThrow(new BadRequestException("Cannot rank employees by: name")).when(employeeService).getTopEmployees(10, "name");
+
+        mockMvc.perform(get("/employees/top?by=name")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void searchEmployeesByName_ignoringCaseAndAccents() throws Exception {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(List.of(employee), HttpStatus.OK);
+
+        given(employeeService.getEmployeesByNameSearch("manöj", true, true))
+                .willReturn(mockResponseEntity);
+
+        mockMvc.perform(get("/employees/search/manöj?ignoreCase=true&ignoreAccents=true").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    public void searchEmployeesByName_whenUpstreamUnavailable() throws Exception {
+        Mockito.doThrow(new UpstreamUnavailableException("Employee upstream is unavailable: Connection refused", null))
+                .when(employeeService).getEmployeesByNameSearch("Manoj", false, false);
+
+        mockMvc.perform(get("/employees/search/Manoj"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.statusCode", is(503)));
+    }
+
+    @Test
+    public void topEmployees_whenUpstreamUnavailable() throws Exception {
+        Mockito.doThrow(new UpstreamUnavailableException("Employee upstream is unavailable: Connection refused", null))
+                .when(employeeService).getTopEmployees(10, "salary");
+
+        mockMvc.perform(get("/employees/top"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.statusCode", is(503)));
+    }
 }
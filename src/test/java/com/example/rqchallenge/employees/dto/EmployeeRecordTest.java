@@ -0,0 +1,78 @@
+package com.example.rqchallenge.employees.dto;
+
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeRecordTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Employee employee = Employee.builder()
+            .id("1")
+            .employee_name("Manoj")
+            .employee_salary("600000")
+            .employee_age("27")
+            .profile_image("")
+            .build();
+
+    @Test
+    void testWireFormatMatchesEmployee() throws Exception {
+        EmployeeRecord record = EmployeeRecord.from(employee);
+
+        assertEquals(600000, record.getEmployee_salary());
+        assertEquals(27, record.getEmployee_age());
+        assertEquals(objectMapper.writeValueAsString(employee), objectMapper.writeValueAsString(record));
+        assertEquals(employee, objectMapper.readValue(objectMapper.writeValueAsString(record), Employee.class));
+        assertEquals(employee, record.toEmployee());
+    }
+
+    @Test
+    void testDeserializesStringAndNumericFields() throws Exception {
+        EmployeeRecord fromStrings = objectMapper.readValue(
+                "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\" 600000 \",\"employee_age\":\"27\",\"extra\":{\"a\":[1]}}",
+                EmployeeRecord.class);
+        EmployeeRecord fromNumbers = objectMapper.readValue(
+                "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":600000,\"employee_age\":27}",
+                EmployeeRecord.class);
+
+        assertEquals(fromStrings, fromNumbers);
+        assertEquals(600000, fromNumbers.getEmployee_salary());
+        assertNull(fromNumbers.getProfile_image());
+    }
+
+    @Test
+    void testMissingNumbersAreNoValue() throws Exception {
+        EmployeeRecord record = objectMapper.readValue("{\"id\":\"1\",\"employee_age\":null}", EmployeeRecord.class);
+
+        assertFalse(record.hasSalary());
+        assertFalse(record.hasAge());
+        assertTrue(objectMapper.writeValueAsString(record).contains("\"employee_salary\":null"));
+    }
+
+    @Test
+    void testRejectsInvalidNumbers() {
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"employee_salary\":\"abc\"}", EmployeeRecord.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"employee_salary\":-1}", EmployeeRecord.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"employee_age\":27.5}", EmployeeRecord.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"employee_age\":\"9999999999\"}", EmployeeRecord.class));
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"1\":{\"employee_salary\":\"abc\"}}", new TypeReference<Map<String, EmployeeRecord>>() {}));
+    }
+
+    @Test
+    void testFromValidatesAndLenientDoesNot() {
+        employee.setEmployee_salary("six hundred");
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> EmployeeRecord.from(employee));
+        assertTrue(e.getMessage().contains("employee_salary"));
+        assertFalse(EmployeeRecord.lenient(employee).hasSalary());
+        assertEquals(27, EmployeeRecord.lenient(employee).getEmployee_age());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameIndexTest {
+
+    private static Employee employee(String id, String name) {
+        return Employee.builder().id(id).employee_name(name).employee_salary("1000").build();
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    private final NameIndex index = NameIndex.build(List.of(
+            employee("1", "Tiger Nixon"),
+            employee("2", "José Nuñez"),
+            employee("3", "Jose Garrett"),
+            employee("4", "GARRETT Winters")));
+
+    @Test
+    void testCaseSensitiveSearch() {
+        assertEquals(List.of("1"), ids(index.search("Nix", false, false)));
+        assertEquals(List.of("3"), ids(index.search("Garrett", false, false)));
+        assertTrue(index.search("nixon", false, false).isEmpty());
+        assertTrue(index.search("Unknown", false, false).isEmpty());
+    }
+
+    @Test
+    void testCaseInsensitiveSearch() {
+        assertEquals(List.of("3", "4"), ids(index.search("garrett", true, false)));
+        assertEquals(List.of("3"), ids(index.search("JOSE", true, false)));
+    }
+
+    @Test
+    void testAccentInsensitiveSearch() {
+        assertEquals(List.of("2", "3"), ids(index.search("Jose", false, true)));
+        assertEquals(List.of("2"), ids(index.search("nunez", true, true)));
+        assertEquals(List.of("2", "3"), ids(index.search("JOSÉ", true, true)));
+    }
+
+    @Test
+    void testShortQueriesAreScanned() {
+        assertEquals(List.of("1", "2", "3", "4"), ids(index.search("", false, false)));
+        assertEquals(List.of("1", "4"), ids(index.search("i", false, false)));
+        assertEquals(List.of("2", "3"), ids(index.search("Jo", false, false)));
+    }
+
+    @Test
+    void testAddAndRemove() {
+        NameIndex added = index.withAdded(employee("5", "Ashton Cox")).withAdded(employee("6", "Cedric Nixon"));
+        assertEquals(List.of("1", "6"), ids(added.search("Nixon", false, false)));
+
+        NameIndex removed = added.withRemoved("1");
+        assertEquals(List.of("6"), ids(removed.search("Nixon", false, false)));
+        assertEquals(List.of("5"), ids(removed.search("Cox", false, false)));
+        assertSame(removed, removed.withRemoved("42"));
+
+        NameIndex compacted = removed.withRemoved("2").withRemoved("3").withRemoved("4").withRemoved("5");
+        assertEquals(List.of("6"), ids(compacted.search("", false, false)));
+        assertEquals(List.of("1"), ids(index.search("Nixon", false, false)));
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(7);
+        String alphabet = "abcdeéAB ";
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int j = 0; j < 8; j++) {
+                name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            employees.add(employee(String.valueOf(i), name.toString()));
+        }
+        NameIndex randomIndex = NameIndex.build(employees);
+        for (int i = 0; i < 200; i++) {
+            String query = employees.get(random.nextInt(employees.size())).getEmployee_name().substring(2, 6);
+            for (int mode = 0; mode < 4; mode++) {
+                boolean ignoreCase = (mode & 1) != 0;
+                boolean ignoreAccents = (mode & 2) != 0;
+                String folded = NameFolding.fold(query, ignoreCase, ignoreAccents);
+                List<Employee> expected = employees.stream()
+                        .filter(emp -> NameFolding.fold(emp.getEmployee_name(), ignoreCase, ignoreAccents).contains(folded))
+                        .collect(Collectors.toList());
+                assertEquals(ids(expected), ids(randomIndex.search(query, ignoreCase, ignoreAccents)));
+            }
+        }
+    }
+}
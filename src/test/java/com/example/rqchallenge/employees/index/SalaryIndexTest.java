@@ -0,0 +1,81 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalaryIndexTest {
+
+    private static Employee employee(String id, String name, String salary) {
+        return Employee.builder().id(id).employee_name(name).employee_salary(salary).build();
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getEmployee_name).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSalariesAreComparedNumerically() {
+        SalaryIndex index = SalaryIndex.build(List.of(
+                employee("1", "John", "900"),
+                employee("2", "Jay", "3000"),
+                employee("3", "Jane", "25000")));
+
+        assertEquals(25000, index.highestSalary());
+        assertEquals(List.of("Jane", "Jay", "John"), names(index.top(10)));
+        assertEquals(List.of("Jane"), names(index.top(1)));
+    }
+
+    @Test
+    void testTiesKeepListOrder() {
+        SalaryIndex index = SalaryIndex.build(List.of(
+                employee("1", "John", "3000"),
+                employee("2", "Jay", "3000"),
+                employee("3", "Jane", "3000")));
+
+        assertEquals(List.of("John", "Jay", "Jane"), names(index.top(3)));
+    }
+
+    @Test
+    void testInvalidSalariesAreSkipped() {
+        SalaryIndex index = SalaryIndex.build(List.of(
+                employee("1", "John", "abc"),
+                employee("2", "Jay", null),
+                employee("3", "Jane", "100"),
+                employee("4", "Joe", "-5")));
+
+        assertEquals(1, index.size());
+        assertEquals(100, index.highestSalary());
+        // Negative salaries are rejected as they are by EmployeeRecord.
+        assertEquals(1, index.withAdded(employee("5", "Jill", "-200")).size());
+    }
+
+    @Test
+    void testEmptyIndex() {
+        SalaryIndex index = SalaryIndex.build(List.of());
+
+        assertNull(index.highestSalary());
+        assertTrue(index.top(10).isEmpty());
+    }
+
+    @Test
+    void testAddAndRemoveKeepOrder() {
+        SalaryIndex index = SalaryIndex.build(List.of(
+                employee("1", "John", "900"),
+                employee("2", "Jay", "3000")));
+
+        SalaryIndex added = index.withAdded(employee("3", "Jane", "2000")).withAdded(employee("4", "Mark", "5000"));
+        assertEquals(List.of("Mark", "Jay", "Jane", "John"), names(added.top(10)));
+        assertEquals(5000, added.highestSalary());
+
+        SalaryIndex removed = added.withRemoved("4");
+        assertEquals(List.of("Jay", "Jane", "John"), names(removed.top(10)));
+        assertEquals(3000, removed.highestSalary());
+        assertSame(removed, removed.withRemoved("42"));
+        assertEquals(2, index.size());
+    }
+}
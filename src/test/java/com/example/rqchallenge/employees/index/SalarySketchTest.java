@@ -0,0 +1,117 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalarySketchTest {
+
+    private static Employee employee(String id, String salary) {
+        return Employee.builder().id(id).employee_name("Employee " + id).employee_salary(salary).build();
+    }
+
+    private static List<Employee> randomEmployees(int count, long seed) {
+        Random random = new Random(seed);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Log-normal salaries around 60k, with some at the extremes of the range.
+            int salary = (int) Math.min(Integer.MAX_VALUE, Math.exp(11 + random.nextGaussian()));
+            employees.add(employee(seed + "-" + i, Integer.toString(i % 1000 == 0 ? i % 3 : salary)));
+        }
+        return employees;
+    }
+
+    @Test
+    void testQuantilesAreWithinTheRelativeAccuracy() {
+        List<Employee> employees = randomEmployees(100_000, 1);
+        int[] salaries = employees.stream().mapToInt(e -> Integer.parseInt(e.getEmployee_salary())).sorted().toArray();
+        SalarySketch sketch = SalarySketch.build(employees);
+
+        assertEquals(salaries.length, sketch.count());
+        assertEquals(Arrays.stream(salaries).asLongStream().sum(), sketch.sum());
+        for (double q : new double[]{0, 0.01, 0.25, 0.5, 0.9, 0.95, 0.99, 0.999, 1}) {
+            int exact = salaries[(int) (q * (salaries.length - 1))];
+            int estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= SalarySketch.RELATIVE_ACCURACY * exact + 0.5,
+                    "quantile " + q + ": " + estimate + " for " + exact);
+        }
+    }
+
+    @Test
+    void testRemovedSalariesLeaveNoTrace() {
+        List<Employee> kept = randomEmployees(1000, 2);
+        List<Employee> removed = randomEmployees(1000, 3);
+        List<Employee> all = new ArrayList<>(kept);
+        all.addAll(removed);
+
+        SalarySketch patched = SalarySketch.build(all).patched(removed, List.of());
+        SalarySketch one = SalarySketch.empty().withAdded(kept.get(0)).withAdded(kept.get(1)).withRemoved(kept.get(0));
+
+        assertSketchEquals(SalarySketch.build(kept), patched);
+        assertSketchEquals(SalarySketch.build(List.of(kept.get(1))), one);
+    }
+
+    @Test
+    void testMergedSketchesEqualTheSketchOfBothLists() {
+        List<Employee> first = randomEmployees(1000, 4);
+        List<Employee> second = randomEmployees(500, 5);
+        List<Employee> all = new ArrayList<>(first);
+        all.addAll(second);
+
+        assertSketchEquals(SalarySketch.build(all), SalarySketch.build(first).merge(SalarySketch.build(second)));
+    }
+
+    @Test
+    void testCountAtMostIsExactAwayFromTheBound() {
+        SalarySketch sketch = SalarySketch.build(List.of(
+                employee("1", "0"), employee("2", "1000"), employee("3", "50000"), employee("4", "50400"),
+                employee("5", "60000"), employee("6", "2147483647")));
+
+        assertEquals(0, sketch.countAtMost(-1));
+        assertEquals(1, sketch.countAtMost(0));
+        assertEquals(2, sketch.countAtMost(49000));
+        long nearBound = sketch.countAtMost(50000);
+        assertTrue(nearBound == 3 || nearBound == 4, "50400 is within 2% of the bound: " + nearBound);
+        assertEquals(5, sketch.countAtMost(60000));
+        assertEquals(6, sketch.countAtMost(Integer.MAX_VALUE));
+        assertEquals(2147483647, sketch.quantile(1), 2147483647 * SalarySketch.RELATIVE_ACCURACY);
+    }
+
+    @Test
+    void testInvalidSalariesAreLeftOut() {
+        SalarySketch sketch = SalarySketch.build(List.of(
+                employee("1", "abc"), employee("2", null), employee("3", "-5"), employee("4", " 100 ")));
+
+        assertEquals(1, sketch.count());
+        assertEquals(100, sketch.sum());
+        assertEquals(100, sketch.quantile(0.5));
+        assertEquals(1, sketch.withRemoved(employee("1", "abc")).count());
+    }
+
+    @Test
+    void testEmptySketch() {
+        SalarySketch sketch = SalarySketch.empty();
+
+        assertEquals(0, sketch.count());
+        assertNull(sketch.mean());
+        assertNull(sketch.quantile(0.5));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+    }
+
+    private static void assertSketchEquals(SalarySketch expected, SalarySketch actual) {
+        assertEquals(expected.count(), actual.count());
+        assertEquals(expected.sum(), actual.sum());
+        for (int q = 0; q <= 100; q++) {
+            assertEquals(expected.quantile(q / 100.0), actual.quantile(q / 100.0), "quantile " + q);
+        }
+        for (int bound = 1; bound < Integer.MAX_VALUE / 2; bound *= 3) {
+            assertEquals(expected.countAtMost(bound), actual.countAtMost(bound), "count at most " + bound);
+        }
+    }
+}
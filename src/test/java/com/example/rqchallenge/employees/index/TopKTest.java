@@ -0,0 +1,70 @@
+package com.example.rqchallenge.employees.index;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKTest {
+
+    private static Employee employee(String id, String salary, String age) {
+        return Employee.builder().id(id).employee_name("Employee " + id).employee_salary(salary).employee_age(age).build();
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void testSelectsHighestFirst() {
+        List<Employee> employees = List.of(
+                employee("1", "900", "61"),
+                employee("2", "3000", "25"),
+                employee("3", "2500", "43"),
+                employee("4", "100", "33"));
+
+        assertEquals(List.of("2", "3"), ids(TopK.select(employees, 2, RankingField.SALARY)));
+        assertEquals(List.of("1", "3", "4"), ids(TopK.select(employees, 3, RankingField.AGE)));
+        assertEquals(4, TopK.select(employees, 1_000_000, RankingField.SALARY).size());
+        assertTrue(TopK.select(employees, 0, RankingField.SALARY).isEmpty());
+    }
+
+    @Test
+    void testTiesKeepOfferOrderAndInvalidValuesAreSkipped() {
+        List<Employee> employees = List.of(
+                employee("1", "100", null),
+                employee("2", "300", "x"),
+                employee("3", "300", "30"),
+                employee("4", "300", "30"),
+                employee("5", "-400", "-40"));
+
+        assertEquals(List.of("2", "3"), ids(TopK.select(employees, 2, RankingField.SALARY)));
+        assertEquals(List.of("3", "4"), ids(TopK.select(employees, 5, RankingField.AGE)));
+    }
+
+    @Test
+    void testMatchesFullSort() {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            employees.add(employee(String.valueOf(i), String.valueOf(random.nextInt(1000)), "30"));
+        }
+        List<Employee> sorted = new ArrayList<>(employees);
+        sorted.sort(Comparator.comparingInt((Employee e) -> Integer.parseInt(e.getEmployee_salary())).reversed());
+
+        assertEquals(ids(sorted.subList(0, 100)), ids(TopK.select(employees, 100, RankingField.SALARY)));
+    }
+
+    @Test
+    void testUnknownFieldIsRejected() {
+        assertEquals(RankingField.AGE, RankingField.fromParameter("Age"));
+        assertThrows(BadRequestException.class, () -> RankingField.fromParameter("name"));
+    }
+}
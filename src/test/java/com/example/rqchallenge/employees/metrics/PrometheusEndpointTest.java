@@ -0,0 +1,38 @@
+package com.example.rqchallenge.employees.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class PrometheusEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void testScrapeExposesEndpointHistogramsAndGatewayGauges() throws Exception {
+        mockMvc.perform(get("/api/v1/employees")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/api/v1/employees\"")))
+                .andExpect(content().string(containsString("employees_cache_requests_total{")))
+                .andExpect(content().string(containsString("employees_singleflight_calls_total{")))
+                .andExpect(content().string(containsString("upstream_connections{")))
+                .andExpect(content().string(containsString("executor_pool_size_threads{")))
+                .andExpect(content().string(containsString("jvm_gc_max_data_size_bytes")))
+                .andExpect(content().string(containsString("jvm_threads_live_threads")));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.rqchallenge.employees.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@SpringBootTest(classes = {UpstreamMetrics.class, UpstreamMetricsTest.Registry.class}, properties = {
+        "GET_ALL_EMPLOYEES=http://upstream/api/v1/employees",
+        "GET_EMPLOYEES_BY_NAME_SEARCH=http://upstream/api/v1/employees",
+        "GET_EMPLOYEE_BY_ID=http://upstream/api/v1/employee",
+        "CREATE_EMPLOYEE=http://upstream/api/v1/create",
+        "DELETE_EMPLOYEE=http://upstream/api/v1/delete",
+        "CREATE_EMPLOYEES_BATCH=http://upstream/api/v1/batch/create",
+        "DELETE_EMPLOYEES_BATCH=http://upstream/api/v1/batch/delete"
+})
+public class UpstreamMetricsTest {
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    UpstreamMetrics upstreamMetrics;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private RestTemplate restTemplate;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry.clear();
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(upstreamMetrics);
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testUpstreamIsTheUrlPropertyNotTheUrl() {
+        assertEquals("GET_ALL_EMPLOYEES", upstream(HttpMethod.GET, "http://upstream/api/v1/employees"));
+        assertEquals("GET_ALL_EMPLOYEES", upstream(HttpMethod.GET, "http://upstream/api/v1/employees?limit=10&cursor=abc"));
+        assertEquals("GET_EMPLOYEE_BY_ID", upstream(HttpMethod.GET, "http://upstream/api/v1/employee/42"));
+        assertEquals("CREATE_EMPLOYEE", upstream(HttpMethod.POST, "http://upstream/api/v1/create"));
+        assertEquals("DELETE_EMPLOYEE", upstream(HttpMethod.DELETE, "http://upstream/api/v1/delete/42"));
+        assertEquals("CREATE_EMPLOYEES_BATCH", upstream(HttpMethod.POST, "http://upstream/api/v1/batch/create"));
+        assertEquals("DELETE_EMPLOYEES_BATCH", upstream(HttpMethod.DELETE, "http://upstream/api/v1/batch/delete"));
+        assertEquals(UpstreamMetrics.OTHER, upstream(HttpMethod.GET, "http://upstream/api/v1/employeesearch"));
+        assertEquals(UpstreamMetrics.OTHER, upstream(HttpMethod.DELETE, "http://upstream/api/v1/employee/42"));
+    }
+
+    @Test
+    void testSuccessfulCallIsTimedWithItsPayloadSizes() {
+        String body = "[{\"id\":\"1\",\"employee_name\":\"Manoj\"}]";
+        server.expect(requestTo("http://upstream/api/v1/employees")).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject("http://upstream/api/v1/employees", String.class);
+
+        Timer timer = meterRegistry.get("upstream.requests")
+                .tags("upstream", "GET_ALL_EMPLOYEES", "method", "GET", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(body.length(), meterRegistry.get("upstream.response.size").tag("upstream", "GET_ALL_EMPLOYEES").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("upstream.request.size").tag("upstream", "GET_ALL_EMPLOYEES").summary().totalAmount());
+        assertTrue(meterRegistry.find("upstream.errors").counters().isEmpty());
+    }
+
+    @Test
+    void testErrorStatusIsCounted() {
+        server.expect(requestTo("http://upstream/api/v1/create")).andRespond(withServerError());
+
+        assertThrows(HttpServerErrorException.class,
+                () -> restTemplate.postForEntity("http://upstream/api/v1/create", Map.of("name", "Jane"), String.class));
+
+        assertEquals(1, meterRegistry.get("upstream.errors").tags("upstream", "CREATE_EMPLOYEE", "error", "500").counter().count());
+        assertEquals(1, meterRegistry.get("upstream.requests").tags("upstream", "CREATE_EMPLOYEE", "outcome", "SERVER_ERROR").timer().count());
+        assertTrue(meterRegistry.get("upstream.request.size").tag("upstream", "CREATE_EMPLOYEE").summary().totalAmount() > 0);
+    }
+
+    @Test
+    void testFailedExchangeIsCountedByException() {
+        server.expect(requestTo("http://upstream/api/v1/employee/7")).andRespond(request -> {
+            throw new IOException("Connection reset");
+        });
+
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject("http://upstream/api/v1/employee/7", String.class));
+
+        assertEquals(1, meterRegistry.get("upstream.errors").tags("upstream", "GET_EMPLOYEE_BY_ID", "error", "IOException").counter().count());
+        assertEquals(1, meterRegistry.get("upstream.requests").tags("upstream", "GET_EMPLOYEE_BY_ID", "status", "IO_ERROR").timer().count());
+    }
+
+    @Test
+    void testReactiveCallIsRecordedWhenTheBodyHasBeenRead() {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("{\"id\":\"7\"}")
+                        .build()))
+                .filter(upstreamMetrics)
+                .build();
+
+        String body = webClient.get().uri("http://upstream/api/v1/employee/7").retrieve().bodyToMono(String.class).block();
+
+        assertEquals("{\"id\":\"7\"}", body);
+        assertEquals(1, meterRegistry.get("upstream.requests").tags("upstream", "GET_EMPLOYEE_BY_ID", "status", "200").timer().count());
+        assertEquals(body.length(), meterRegistry.get("upstream.response.size").tag("upstream", "GET_EMPLOYEE_BY_ID").summary().totalAmount());
+    }
+
+    private String upstream(HttpMethod method, String url) {
+        return upstreamMetrics.upstreamOf(method, URI.create(url));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@SpringBootTest(classes = {DeadlineFilter.class, DeadlinePropagation.class}, properties = {
+        "employees.deadline.default-ms=1000",
+        "employees.deadline.max-ms=5000"
+})
+public class DeadlineTest {
+
+    @Autowired
+    DeadlineFilter deadlineFilter;
+
+    @Autowired
+    DeadlinePropagation deadlinePropagation;
+
+    private RestTemplate restTemplate;
+
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(deadlinePropagation));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void testFilterBindsDeadlineFromHeaderForTheRequestOnly() throws Exception {
+        assertTrue(deadlineDuring("/employees/1", "250").remainingMillis() <= 250);
+        assertTrue(deadlineDuring("/employees/1", "250").remainingMillis() > 0);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void testFilterAppliesDefaultAndCap() throws Exception {
+        long byDefault = deadlineDuring("/employees", null).remainingMillis();
+        long capped = deadlineDuring("/employees", "600000").remainingMillis();
+        long invalid = deadlineDuring("/employees", "soon").remainingMillis();
+
+        assertTrue(byDefault > 500 && byDefault <= 1000);
+        assertTrue(capped > 4000 && capped <= 5000);
+        assertTrue(invalid > 500 && invalid <= 1000);
+        assertNull(deadlineDuring("/api/v1/employees", "250"));
+    }
+
+    @Test
+    void testRemainingTimeIsForwardedUpstream() {
+        server.expect(requestTo("http://upstream/api/v1/employee/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(request -> {
+                    long forwarded = Long.parseLong(request.getHeaders().getFirst(Deadline.HEADER));
+                    assertTrue(forwarded > 0 && forwarded <= 1000);
+                })
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://upstream/api/v1/employee/2"))
+                .andExpect(headerDoesNotExist(Deadline.HEADER))
+                .andRespond(withSuccess());
+
+        Deadline.callWith(Deadline.after(1000), () -> restTemplate.getForEntity("http://upstream/api/v1/employee/1", String.class));
+        restTemplate.getForEntity("http://upstream/api/v1/employee/2", String.class);
+
+        server.verify();
+    }
+
+    @Test
+    void testExpiredDeadlineFailsWithoutCallingUpstream() {
+        Deadline expired = Deadline.after(0);
+
+        assertTrue(expired.isExpired());
+        assertEquals(1, expired.bound(5000));
+        assertThrows(UpstreamTimeoutException.class,
+                () -> Deadline.callWith(expired, () -> restTemplate.getForEntity("http://upstream/api/v1/employee/1", String.class)));
+        server.verify();
+    }
+
+    private Deadline deadlineDuring(String path, String timeoutHeader) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (timeoutHeader != null) {
+            request.addHeader(Deadline.HEADER, timeoutHeader);
+        }
+        AtomicReference<Deadline> deadline = new AtomicReference<>();
+        deadlineFilter.doFilter(request, new MockHttpServletResponse(), (req, res) -> deadline.set(Deadline.current()));
+        return deadline.get();
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {HedgedRequests.class, HedgedRequestsTest.Registry.class}, properties = {
+        "employees.hedging.enabled=true",
+        "employees.hedging.min-samples=10",
+        "employees.hedging.window=100",
+        "employees.hedging.min-delay-ms=20",
+        "employees.hedging.budget-percent=10",
+        "employees.hedging.max-burst=10"
+})
+public class HedgedRequestsTest {
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    HedgedRequests hedging;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testSlowCallIsHedgedAndFirstAnswerWins() {
+        warmUp("slow");
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            long start = System.nanoTime();
+            String result = hedging.execute("slow", slowFirst(release));
+
+            assertEquals("hedge", result);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+            assertEquals(1, hedging.getHedges("slow"));
+            assertEquals(1, meterRegistry.get("upstream.hedges").tags("upstream", "slow", "result", "won").counter().count());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testHedgesAreCappedByTheBudget() {
+        warmUp("budget");
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        try {
+            assertEquals("hedge", hedging.execute("budget", slowFirst(releaseFirst)));
+
+            releaseAfter(releaseSecond, 200);
+            assertEquals("primary", hedging.execute("budget", slowFirst(releaseSecond)));
+            assertEquals(1, hedging.getHedges("budget"));
+            assertEquals(1, meterRegistry.get("upstream.hedges").tags("upstream", "budget", "result", "skipped").counter().count());
+        } finally {
+            releaseFirst.countDown();
+            releaseSecond.countDown();
+        }
+    }
+
+    @Test
+    void testFailuresAreNotHedged() {
+        warmUp("failing");
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> hedging.execute("failing", () -> {
+            calls.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testLosingHedgeIsAborted() throws InterruptedException {
+        warmUp("aborted");
+        CountDownLatch aborted = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = hedging.execute("aborted", () -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(100);
+                return "primary";
+            }
+            HedgedRequests.abortable(aborted::countDown);
+            return await(aborted, "hedge");
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, hedging.getHedges("aborted"));
+        assertTrue(aborted.await(5, TimeUnit.SECONDS), "the hedge is aborted once the call has answered");
+    }
+
+    @Test
+    void testCallRunsOnTheCallingThread() {
+        warmUp("caller");
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> primary = new AtomicReference<>();
+
+        hedging.execute("caller", () -> {
+            primary.compareAndSet(null, Thread.currentThread());
+            sleep(100);
+            return "answer";
+        });
+
+        assertSame(caller, primary.get());
+    }
+
+    @Test
+    void testDeadlineBoundsTheWaitForTheHedge() {
+        warmUp("deadline");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            long start = System.nanoTime();
+            assertThrows(UpstreamTimeoutException.class, () -> Deadline.callWith(Deadline.after(200),
+                    () -> hedging.execute("deadline", () -> {
+                        if (calls.incrementAndGet() == 1) {
+                            sleep(100);
+                            throw new ResourceAccessException("Connection reset");
+                        }
+                        return await(release, "late");
+                    })));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testPercentileOfRecentLatencies() {
+        LatencyPercentile latencies = new LatencyPercentile(100, 0.95, 50);
+        for (int i = 1; i < 50; i++) {
+            latencies.record(i);
+        }
+        assertEquals(-1, latencies.percentileNanos());
+
+        for (int i = 50; i <= 100; i++) {
+            latencies.record(i);
+        }
+        assertEquals(95, latencies.percentileNanos());
+    }
+
+    /**
+     * Ten fast calls, which earn one hedge of budget and a delay of {@code min-delay-ms}.
+     */
+    private void warmUp(String upstream) {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("warm", hedging.execute(upstream, () -> "warm"));
+        }
+    }
+
+    /**
+     * A first call that waits for {@code release} unless it is aborted, like a request whose connection is closed,
+     * and later calls that answer at once.
+     */
+    private static Supplier<String> slowFirst(CountDownLatch release) {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> {
+            if (calls.incrementAndGet() > 1) {
+                return "hedge";
+            }
+            HedgedRequests.abortable(release::countDown);
+            await(release, "primary");
+            if (HedgedRequests.isAborted()) {
+                throw new ResourceAccessException("Request aborted");
+            }
+            return "primary";
+        };
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void releaseAfter(CountDownLatch latch, long millis) {
+        Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            latch.countDown();
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static String await(CountDownLatch latch, String result) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.rqchallenge.employees.resilience;
+
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {UpstreamResilience.class, UpstreamResilienceTest.Registry.class}, properties = {
+        "upstream.resilience.sliding-window-size=4",
+        "upstream.resilience.minimum-calls=4",
+        "upstream.resilience.open-ms=60000",
+        "upstream.resilience.slow-call-ms=20",
+        "upstream.resilience.max-concurrent-calls=1",
+        "upstream.resilience.backoff-ms=1"
+})
+public class UpstreamResilienceTest {
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    UpstreamResilience resilience;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testIoErrorsAndServerErrorsAreRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = resilience.retried("retried", () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ResourceAccessException("Connection reset");
+            }
+            if (calls.get() == 2) {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testClientErrorsAndWritesAreNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(HttpClientErrorException.class, () -> resilience.retried("not-retried", () -> {
+            calls.incrementAndGet();
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        }));
+        assertThrows(ResourceAccessException.class, () -> resilience.call("not-retried", () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException("Connection reset");
+        }));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testOpenCircuitFailsFastAndIsCounted() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> resilience.call("failing", () -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("Connection refused");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState("failing"));
+        assertThrows(UpstreamUnavailableException.class, () -> resilience.retried("failing", calls::incrementAndGet));
+        assertEquals(4, calls.get());
+        assertEquals(1, meterRegistry.get("upstream.circuitbreaker.transitions")
+                .tags("name", "failing", "from", "CLOSED", "to", "OPEN").counter().count());
+        assertEquals(1, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tags("name", "failing", "state", "open").gauge().value());
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenTheCircuit() {
+        for (int i = 0; i < 8; i++) {
+            assertThrows(HttpClientErrorException.class, () -> resilience.call("not-found", () -> {
+                throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState("not-found"));
+    }
+
+    @Test
+    void testFullBulkheadRejectsWithoutWaiting() throws Exception {
+        CountDownLatch inCall = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> resilience.call("slow", () -> {
+                inCall.countDown();
+                await(release);
+                return "first";
+            }));
+            assertTrue(inCall.await(5, TimeUnit.SECONDS));
+
+            assertThrows(UpstreamUnavailableException.class, () -> resilience.call("slow", () -> "second"));
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("third", resilience.call("slow", () -> "third"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSlowStreamsDoNotOpenTheCircuitOrTakeThePermitsOfOtherCalls() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            resilience.streamed("listing-stream", () -> sleep(30));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.getState("listing-stream"));
+
+        CountDownLatch inStream = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stream = executor.submit(() -> resilience.streamed("listing-stream", () -> {
+                inStream.countDown();
+                await(release);
+                return "stream";
+            }));
+            assertTrue(inStream.await(5, TimeUnit.SECONDS));
+
+            assertEquals("list", resilience.call("listing", () -> "list"));
+            assertThrows(UpstreamUnavailableException.class, () -> resilience.streamed("listing-stream", () -> "second"));
+
+            release.countDown();
+            assertEquals("stream", stream.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int i = 0; i < 4; i++) {
+            resilience.call("listing", () -> sleep(30));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, resilience.getState("listing"));
+    }
+
+    @Test
+    void testReactiveCallsAreRetriedOnResubscription() {
+        AtomicInteger calls = new AtomicInteger();
+        Mono<String> call = Mono.fromCallable(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ResourceAccessException("Connection reset");
+            }
+            return "ok";
+        });
+
+        StepVerifier.create(resilience.retried("reactive", call))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(3, calls.get());
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
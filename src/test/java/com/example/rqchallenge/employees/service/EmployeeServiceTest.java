@@ -7,7 +7,20 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.OK;
 
+import com.example.rqchallenge.employees.cache.EmployeeReplica;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.dto.BatchItemResult;
 import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.dto.SalaryStats;
+import com.example.rqchallenge.employees.dto.EmployeePage;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.exception.UpstreamTimeoutException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.resilience.HedgedRequests;
+import com.example.rqchallenge.employees.resilience.UpstreamResilience;
+import com.example.rqchallenge.employees.stream.EmployeeStreamFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
@@ -19,11 +32,23 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.ByteArrayOutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
-@SpringBootTest(classes = EmployeeService.class)
+@SpringBootTest(classes = {EmployeeService.class, EmployeeSnapshotCache.class, EmployeeReplica.class, UpstreamResilience.class, HedgedRequests.class})
 public class EmployeeServiceTest {
     @MockBean
     private RestTemplate restTemplate;
@@ -31,6 +56,9 @@ public class EmployeeServiceTest {
     @Autowired
     EmployeeService employeeService;
 
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
     private Employee emp;
 
     private static final  String getAllEmployees = "http://localhost:8080/api/v1/employees";
@@ -42,9 +70,14 @@ public class EmployeeServiceTest {
     private static final String deleteEmployeesById = "http://localhost:8080/api/v1/delete";
 
     private static final String createEmployeeUrl ="http://localhost:8080/api/v1/create";
+
+    private static final String createEmployeesBatchUrl = "http://localhost:8080/api/v1/batch/create";
+
+    private static final String deleteEmployeesBatchUrl = "http://localhost:8080/api/v1/batch/delete";
     @BeforeEach
     void setUp(){
         MockitoAnnotations.openMocks(this);
+        snapshotCache.invalidate();
 
          emp = Employee.builder()
                  .id("1")
@@ -141,13 +174,8 @@ public class EmployeeServiceTest {
         // Define the search string
         String searchString = "Manoj";
 
-        // Call the method under test and ensure that no exception is thrown to the outside
-        ResponseEntity<List<Employee>> response = employeeService.getEmployeesByNameSearch(searchString);
-
-        // Verify that an empty list is returned when an exception occurs
-        List<Employee> filteredEmployees = response.getBody();
-        assertNotNull(filteredEmployees);
-        assertEquals(0, filteredEmployees.size());
+        // Rather than answering with no match, which the controller turns into a 404
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getEmployeesByNameSearch(searchString));
 
 
         // Verify that the RestTemplate exchange method was called once
@@ -191,6 +219,57 @@ public class EmployeeServiceTest {
     }
 
 
+    @Test
+    void testGetEmployeeById_RetriesUpstreamFailuresThenAnswersUnavailable() {
+        when(restTemplate.exchange(eq(getEmployeesById + "/2"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Employee.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getEmployeeById("2"));
+
+        verify(restTemplate, times(3)).exchange(eq(getEmployeesById + "/2"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Employee.class));
+    }
+
+    @Test
+    void testGetEmployeeById_UpstreamTimeoutAnswersGatewayTimeout() {
+        when(restTemplate.exchange(eq(getEmployeesById + "/4"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Employee.class)))
+                .thenThrow(new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out")));
+
+        assertThrows(UpstreamTimeoutException.class, () -> employeeService.getEmployeeById("4"));
+    }
+
+    @Test
+    void testGetEmployeeById_NotFoundIsNotRetried() {
+        when(restTemplate.exchange(eq(getEmployeesById + "/3"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Employee.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.getEmployeeById("3"));
+
+        verify(restTemplate, times(1)).exchange(eq(getEmployeesById + "/3"), eq(HttpMethod.GET), any(HttpEntity.class), eq(Employee.class));
+    }
+
+    @Test
+    void testGetHighestSalaryOfEmployees_UpstreamFailure() {
+        when(restTemplate.exchange(eq(getAllEmployees), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+        // Rather than answering 200 with no salary
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getHighestSalaryOfEmployees());
+    }
+
+    @Test
+    void testGetSalaryStats_Success() {
+        when(restTemplate.exchange(eq(getAllEmployees), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(List.of(emp), HttpStatus.OK));
+
+        ResponseEntity<SalaryStats> response = employeeService.getSalaryStats(List.of(0.5), List.of(Integer.parseInt(emp.getEmployee_salary())));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCount());
+        assertEquals(Integer.parseInt(emp.getEmployee_salary()), response.getBody().getMax());
+        assertEquals(1, response.getBody().getHistogram().get(0).getCount());
+        assertThrows(BadRequestException.class, () -> employeeService.getSalaryStats(List.of(1.5), List.of()));
+    }
+
     @Test
     void testGetHighestSalaryOfEmployees_Success() {
         List<Employee> mockEmployeeList = Collections.singletonList(emp);
@@ -301,12 +380,8 @@ public class EmployeeServiceTest {
                 any(ParameterizedTypeReference.class)
         )).thenThrow(new RuntimeException("API error"));
 
-        // Call the method under test
-        ResponseEntity<List<String>> response = employeeService.getTopTenHighestEarningEmployeeNames();
-
-        // Verify that the response is an empty list due to the exception
-        assertNotNull(response.getBody());
-        assertTrue(response.getBody().isEmpty());
+        // Rather than answering with no names
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getTopTenHighestEarningEmployeeNames());
 
 
         // Verify interaction with RestTemplate
@@ -372,4 +447,278 @@ public class EmployeeServiceTest {
         verify(restTemplate, times(1)).postForEntity(createEmployeeUrl, employeeInput, Employee.class);
     }
 
+    @Test
+    void testCreateEmployee_UpstreamFailureIsNotRetried() {
+        Map<String, Employee> employeeInput = new HashMap<>();
+        employeeInput.put("1", emp);
+        when(restTemplate.postForEntity(eq(createEmployeeUrl), eq(employeeInput), eq(Employee.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.createEmployee(employeeInput));
+
+        verify(restTemplate, times(1)).postForEntity(createEmployeeUrl, employeeInput, Employee.class);
+    }
+
+    @Test
+    void testListReadsShareCachedSnapshot() {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(new ArrayList<>(List.of(emp)), HttpStatus.OK);
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(mockResponseEntity);
+
+        employeeService.getAllEmployees();
+        employeeService.getEmployeesByNameSearch("Man");
+        employeeService.getHighestSalaryOfEmployees();
+        ResponseEntity<List<String>> response = employeeService.getTopTenHighestEarningEmployeeNames();
+
+        assertEquals(List.of("Manoj"), response.getBody());
+        verify(restTemplate, times(1)).exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    void testCreateEmployee_UpdatesCachedSnapshot() {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(new ArrayList<>(List.of(emp)), HttpStatus.OK);
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(mockResponseEntity);
+        Employee newEmployee = Employee.builder()
+                .id("2")
+                .employee_name("Jane")
+                .employee_salary("900000")
+                .employee_age("30")
+                .build();
+        Map<String, Employee> employeeInput = Map.of("2", newEmployee);
+        when(restTemplate.postForEntity(eq(createEmployeeUrl), eq(employeeInput), eq(Employee.class)))
+                .thenReturn(new ResponseEntity<>(newEmployee, HttpStatus.CREATED));
+
+        employeeService.getHighestSalaryOfEmployees();
+        employeeService.createEmployee(employeeInput);
+
+        assertEquals(2, employeeService.getAllEmployees().getBody().size());
+        assertEquals(900000, employeeService.getHighestSalaryOfEmployees().getBody());
+        assertEquals(List.of("Jane", "Manoj"), employeeService.getTopTenHighestEarningEmployeeNames().getBody());
+        verify(restTemplate, times(1)).exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    void testDeleteEmployee_UpdatesCachedSnapshot() {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(new ArrayList<>(List.of(emp)), HttpStatus.OK);
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(mockResponseEntity);
+        when(restTemplate.exchange(
+                eq(deleteEmployeesById + "/1"),
+                eq(HttpMethod.DELETE),
+                any(HttpEntity.class),
+                eq(String.class)
+        )).thenReturn(new ResponseEntity<>("successfully! deleted Record", HttpStatus.OK));
+
+        employeeService.getAllEmployees();
+        employeeService.deleteEmployee("1");
+
+        assertTrue(employeeService.getAllEmployees().getBody().isEmpty());
+        assertNull(employeeService.getHighestSalaryOfEmployees().getBody());
+    }
+
+    @Test
+    void testGetTopEmployees_ByAge() {
+        Employee older = Employee.builder()
+                .id("2")
+                .employee_name("Jane")
+                .employee_salary("1000")
+                .employee_age("61")
+                .build();
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(new ArrayList<>(List.of(emp, older)), HttpStatus.OK);
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(mockResponseEntity);
+
+        ResponseEntity<List<Employee>> response = employeeService.getTopEmployees(1, "age");
+
+        assertEquals(1, response.getBody().size());
+        assertEquals("Jane", response.getBody().get(0).getEmployee_name());
+    }
+
+    @Test
+    void testGetTopEmployees_UpstreamFailure() {
+        when(restTemplate.exchange(eq(getAllEmployees), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenThrow(new RuntimeException("API error"));
+
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getTopEmployees(3, "age"));
+    }
+
+    @Test
+    void testGetTopEmployees_InvalidCount() {
+        assertThrows(BadRequestException.class, () -> employeeService.getTopEmployees(0, "salary"));
+    }
+
+    @Test
+    void testSnapshotIsMemoizedPerRequest() {
+        ResponseEntity<List<Employee>> mockResponseEntity = new ResponseEntity<>(new ArrayList<>(List.of(emp)), HttpStatus.OK);
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(mockResponseEntity);
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            employeeService.getAllEmployees();
+            snapshotCache.invalidate();
+            employeeService.getHighestSalaryOfEmployees();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(restTemplate, times(1)).exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    void testCreateEmployee_InvalidSalary() {
+        emp.setEmployee_salary("abc");
+        Map<String, Employee> employeeInput = Map.of("1", emp);
+
+        assertThrows(BadRequestException.class, () -> employeeService.createEmployee(employeeInput));
+
+        verify(restTemplate, never()).postForEntity(anyString(), any(), eq(Employee.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateEmployees_ChunksAndReportsPerItem() {
+        ReflectionTestUtils.setField(employeeService, "batchChunkSize", 2);
+        try {
+            Map<String, Employee> employeeInput = new LinkedHashMap<>();
+            for (String id : List.of("1", "2", "3", "4", "5")) {
+                employeeInput.put(id, Employee.builder().id(id).employee_name("Employee " + id).employee_salary("1000").build());
+            }
+            employeeInput.get("2").setEmployee_salary("abc");
+            when(restTemplate.exchange(eq(createEmployeesBatchUrl), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                    .thenAnswer(invocation -> {
+                        Map<String, Employee> chunk = (Map<String, Employee>) invocation.getArgument(2, HttpEntity.class).getBody();
+                        if (chunk.containsKey("5")) {
+                            throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                        }
+                        List<BatchItemResult> results = new ArrayList<>();
+                        chunk.forEach((id, employee) -> results.add(BatchItemResult.builder().id(id).status(201).data(employee).build()));
+                        return new ResponseEntity<>(results, HttpStatus.OK);
+                    });
+
+            ResponseEntity<List<BatchItemResult>> response = employeeService.createEmployees(employeeInput);
+
+            assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+            List<BatchItemResult> results = response.getBody();
+            assertEquals(List.of("1", "2", "3", "4", "5"), results.stream().map(BatchItemResult::getId).collect(java.util.stream.Collectors.toList()));
+            assertEquals(201, results.get(0).getStatus());
+            assertEquals(400, results.get(1).getStatus());
+            assertEquals(201, results.get(2).getStatus());
+            // Four valid employees in chunks of two: {1, 3} succeeds, {4, 5} fails as a whole.
+            assertEquals(503, results.get(3).getStatus());
+            assertEquals(503, results.get(4).getStatus());
+            verify(restTemplate, times(2)).exchange(eq(createEmployeesBatchUrl), eq(HttpMethod.POST), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+        } finally {
+            ReflectionTestUtils.setField(employeeService, "batchChunkSize", 100);
+        }
+    }
+
+    @Test
+    void testDeleteEmployees_DeduplicatesIds() {
+        when(restTemplate.exchange(eq(deleteEmployeesBatchUrl), eq(HttpMethod.DELETE), any(HttpEntity.class), any(ParameterizedTypeReference.class)))
+                .thenReturn(new ResponseEntity<>(List.of(
+                        BatchItemResult.builder().id("1").status(200).build(),
+                        BatchItemResult.builder().id("2").status(200).build()), HttpStatus.OK));
+
+        ResponseEntity<List<BatchItemResult>> response = employeeService.deleteEmployees(List.of("1", "2", "1"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+    }
+
+    @Test
+    void testDeleteEmployees_EmptyBatch() {
+        assertThrows(BadRequestException.class, () -> employeeService.deleteEmployees(List.of()));
+    }
+
+    @Test
+    void testGetEmployeesPage_PassesCursorThrough() {
+        EmployeePage page = EmployeePage.builder().data(List.of(emp)).nextCursor("Mzo0").version(3).build();
+        when(restTemplate.exchange(eq(getAllEmployees + "?limit=1&cursor=Mzoz"), eq(HttpMethod.GET), any(HttpEntity.class), eq(EmployeePage.class)))
+                .thenReturn(new ResponseEntity<>(page, HttpStatus.OK));
+
+        ResponseEntity<EmployeePage> response = employeeService.getEmployeesPage(1, "Mzoz");
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals("Mzo0", response.getBody().getNextCursor());
+        assertEquals(3, response.getBody().getVersion());
+    }
+
+    @Test
+    void testGetEmployeesPage_ExpiredCursor() {
+        when(restTemplate.exchange(eq(getAllEmployees + "?limit=10&cursor=MTo1"), eq(HttpMethod.GET), any(HttpEntity.class), eq(EmployeePage.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.GONE, "Gone", null, null, null));
+
+        assertThrows(CursorExpiredException.class, () -> employeeService.getEmployeesPage(10, "MTo1"));
+        assertThrows(BadRequestException.class, () -> employeeService.getEmployeesPage(0, null));
+    }
+
+    @Test
+    void testWriteAllEmployees_FromUpstreamWhenNothingIsCached() throws Exception {
+        String upstream = "[{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\"}]";
+        when(restTemplate.execute(eq(getAllEmployees), eq(HttpMethod.GET), any(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> invocation.getArgument(3, ResponseExtractor.class)
+                        .extractData(new MockClientHttpResponse(upstream.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        employeeService.writeAllEmployees(out, EmployeeStreamFormat.NDJSON);
+
+        assertEquals("{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\",\"profile_image\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(restTemplate, never()).exchange(eq(getAllEmployees), eq(HttpMethod.GET), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testWriteAllEmployees_FromCachedSnapshot() throws Exception {
+        when(restTemplate.exchange(
+                eq(getAllEmployees),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                any(ParameterizedTypeReference.class)
+        )).thenReturn(new ResponseEntity<>(new ArrayList<>(List.of(emp)), HttpStatus.OK));
+        employeeService.getAllEmployees();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        employeeService.writeAllEmployees(out, EmployeeStreamFormat.ARRAY);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("[{\"id\":\"1\",\"employee_name\":\"Manoj\""));
+        verify(restTemplate, never()).execute(anyString(), any(HttpMethod.class), any(), any(ResponseExtractor.class));
+    }
+
 }
@@ -0,0 +1,166 @@
+package com.example.rqchallenge.employees.service;
+
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.resilience.UpstreamResilience;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = {ReactiveEmployeeService.class, EmployeeSnapshotCache.class, UpstreamResilience.class, ReactiveEmployeeServiceTest.UpstreamStub.class},
+        properties = {"employees.service.mode=reactive",
+                // Keeps the breaker closed across the tests that fail the upstream.
+                "upstream.resilience.minimum-calls=100", "upstream.resilience.sliding-window-size=100"})
+public class ReactiveEmployeeServiceTest {
+
+    private static final String EMPLOYEES = "[" +
+            "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\"}," +
+            "{\"id\":\"2\",\"employee_name\":\"Jane\",\"employee_salary\":\"90000\",\"employee_age\":\"45\"}]";
+
+    /**
+     * Answers WebClient requests from canned responses keyed by method and URL, with 503 for the failing ones and a
+     * connection error for the unreachable ones, and counts the calls.
+     */
+    @TestConfiguration
+    static class UpstreamStub {
+        static final Map<String, String> responses = new ConcurrentHashMap<>();
+        static final Set<String> failing = ConcurrentHashMap.newKeySet();
+        static final Set<String> unreachable = ConcurrentHashMap.newKeySet();
+        static final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+        @Bean
+        WebClient upstreamWebClient() {
+            return WebClient.builder().exchangeFunction(request -> {
+                String key = request.method() + " " + request.url();
+                calls.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                if (failing.contains(key)) {
+                    return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+                }
+                if (unreachable.contains(key)) {
+                    return Mono.error(new WebClientRequestException(new ConnectException("Connection refused"),
+                            request.method(), request.url(), request.headers()));
+                }
+                String body = responses.get(key);
+                if (body == null) {
+                    return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+                }
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build());
+            }).build();
+        }
+    }
+
+    @Autowired
+    ReactiveEmployeeService employeeService;
+
+    @Autowired
+    EmployeeSnapshotCache snapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache.invalidate();
+        UpstreamStub.responses.clear();
+        UpstreamStub.failing.clear();
+        UpstreamStub.unreachable.clear();
+        UpstreamStub.calls.clear();
+        UpstreamStub.responses.put("GET http://localhost:8080/api/v1/employees", EMPLOYEES);
+    }
+
+    private int calls(String key) {
+        AtomicInteger count = UpstreamStub.calls.get(key);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    void testListReadsShareCachedSnapshot() {
+        StepVerifier.create(employeeService.getAllEmployees().map(Employee::getEmployee_name))
+                .expectNext("Manoj", "Jane")
+                .verifyComplete();
+        StepVerifier.create(employeeService.getHighestSalaryOfEmployees())
+                .expectNext(600000)
+                .verifyComplete();
+        StepVerifier.create(employeeService.getTopEmployees(1, "age").map(Employee::getEmployee_name))
+                .expectNext("Jane")
+                .verifyComplete();
+        StepVerifier.create(employeeService.getEmployeesByNameSearch("jan", true, false).map(Employee::getId))
+                .expectNext("2")
+                .verifyComplete();
+
+        assertEquals(1, calls("GET http://localhost:8080/api/v1/employees"));
+    }
+
+    @Test
+    void testGetEmployeeById() {
+        UpstreamStub.responses.put("GET http://localhost:8080/api/v1/employee/1",
+                "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\"}");
+
+        StepVerifier.create(employeeService.getEmployeeById("1").map(Employee::getEmployee_name))
+                .expectNext("Manoj")
+                .verifyComplete();
+        StepVerifier.create(employeeService.getEmployeeById("42"))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void testSearchAnswersUnavailableWhenTheListCannotBeRead() {
+        UpstreamStub.failing.add("GET http://localhost:8080/api/v1/employees");
+
+        StepVerifier.create(employeeService.getEmployeesByNameSearch("jan", true, false))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+    }
+
+    @Test
+    void testTopEmployeesAnswerUnavailableWhenTheUpstreamIsUnreachable() {
+        UpstreamStub.unreachable.add("GET http://localhost:8080/api/v1/employees");
+
+        StepVerifier.create(employeeService.getTopEmployees(5, "salary"))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+        StepVerifier.create(employeeService.getTopTenHighestEarningEmployeeNames())
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+    }
+
+    @Test
+    void testCreateAndDeleteUpdateCachedSnapshot() {
+        UpstreamStub.responses.put("POST http://localhost:8080/api/v1/create",
+                "{\"id\":\"3\",\"employee_name\":\"Mark\",\"employee_salary\":\"700000\",\"employee_age\":\"33\"}");
+        UpstreamStub.responses.put("DELETE http://localhost:8080/api/v1/delete/1", "successfully! deleted Record");
+        Employee employee = Employee.builder().id("3").employee_name("Mark").employee_salary("700000").employee_age("33").build();
+
+        employeeService.getAllEmployees().blockLast();
+        employeeService.createEmployee(Map.of("3", employee)).block();
+        employeeService.deleteEmployee("1").block();
+
+        StepVerifier.create(employeeService.getTopTenHighestEarningEmployeeNames().collectList())
+                .expectNext(List.of("Mark", "Jane"))
+                .verifyComplete();
+        assertEquals(1, calls("GET http://localhost:8080/api/v1/employees"));
+    }
+}
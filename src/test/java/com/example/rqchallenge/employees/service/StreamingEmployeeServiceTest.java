@@ -0,0 +1,90 @@
+package com.example.rqchallenge.employees.service;
+
+import com.example.rqchallenge.employees.cache.EmployeeReplica;
+import com.example.rqchallenge.employees.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.exception.UpstreamUnavailableException;
+import com.example.rqchallenge.employees.resilience.HedgedRequests;
+import com.example.rqchallenge.employees.resilience.UpstreamResilience;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = {EmployeeService.class, EmployeeSnapshotCache.class, EmployeeReplica.class, UpstreamResilience.class, HedgedRequests.class}, properties = {
+        "employees.aggregation.streaming=true",
+        "employees.aggregation.streaming-url=http://localhost:8080/api/v1/research/employees"
+})
+public class StreamingEmployeeServiceTest {
+
+    private static final String researchEmployees = "http://localhost:8080/api/v1/research/employees";
+
+    private static final String ENVELOPE = "{\"status\":\"success\",\"data\":["
+            + "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\"},"
+            + "{\"id\":\"2\",\"employee_name\":\"Jane\",\"employee_salary\":\"60000\",\"employee_age\":\"61\"}"
+            + "]}";
+
+    @MockBean
+    private RestTemplate restTemplate;
+
+    @Autowired
+    EmployeeService employeeService;
+
+    @BeforeEach
+    void setUp() {
+        when(restTemplate.execute(eq(researchEmployees), eq(HttpMethod.GET), any(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> extractor = invocation.getArgument(3);
+                    return extractor.extractData(new MockClientHttpResponse(ENVELOPE.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+                });
+    }
+
+    @Test
+    void testGetHighestSalaryOfEmployees_Streaming() {
+        assertEquals(600000, employeeService.getHighestSalaryOfEmployees().getBody());
+
+        verify(restTemplate, never()).exchange(anyString(), any(HttpMethod.class), any(HttpEntity.class), any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    void testGetTopEmployees_Streaming() {
+        List<Employee> top = employeeService.getTopEmployees(1, "age").getBody();
+
+        assertEquals(1, top.size());
+        assertEquals("Jane", top.get(0).getEmployee_name());
+        assertEquals(List.of("Manoj", "Jane"), employeeService.getTopTenHighestEarningEmployeeNames().getBody());
+    }
+
+    @Test
+    void testGetEmployeesByNameSearch_Streaming() {
+        List<Employee> employees = employeeService.getEmployeesByNameSearch("jan", true, false).getBody();
+
+        assertEquals(1, employees.size());
+        assertEquals("2", employees.get(0).getId());
+    }
+
+    @Test
+    void testStreamingErrorAnswersUnavailable() {
+        when(restTemplate.execute(eq(researchEmployees), eq(HttpMethod.GET), any(), any(ResponseExtractor.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getHighestSalaryOfEmployees());
+        assertThrows(UpstreamUnavailableException.class, () -> employeeService.getTopEmployees(10, "salary"));
+    }
+}
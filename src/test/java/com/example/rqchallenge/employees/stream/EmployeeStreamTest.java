@@ -0,0 +1,136 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.example.rqchallenge.employees.index.RankingField;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeStreamTest {
+
+    private static final String EMPLOYEES = "["
+            + "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":\"600000\",\"employee_age\":\"27\",\"profile_image\":\"\"},"
+            + "{\"id\":\"2\",\"employee_name\":\"Jane\",\"employee_salary\":\" 60000 \",\"employee_age\":\"61\"},"
+            + "{\"id\":\"3\",\"employee_name\":\"Zoë\",\"employee_salary\":190000,\"employee_age\":40},"
+            + "{\"id\":\"4\",\"employee_name\":\"Broken\",\"employee_salary\":\"n/a\",\"employee_age\":null},"
+            + "{\"id\":\"5\",\"employee_name\":\"Mark\",\"employee_salary\":\"190000\",\"tags\":[\"a\",{\"b\":1}]}"
+            + "]";
+
+    @Test
+    void testHighestSalary() throws IOException {
+        assertEquals(600000, EmployeeStream.highestSalary(body(EMPLOYEES)));
+    }
+
+    @Test
+    void testHighestSalaryOfEmptyList() throws IOException {
+        assertNull(EmployeeStream.highestSalary(body("[]")));
+        assertNull(EmployeeStream.highestSalary(body("")));
+    }
+
+    @Test
+    void testTopKeepsStreamOrderForTies() throws IOException {
+        List<Employee> top = EmployeeStream.top(body(EMPLOYEES), 3, RankingField.SALARY);
+
+        assertEquals(List.of("1", "3", "5"), ids(top));
+        assertEquals("190000", top.get(1).getEmployee_salary());
+        assertEquals("Zoë", top.get(1).getEmployee_name());
+    }
+
+    @Test
+    void testTopByAgeSkipsInvalidValues() throws IOException {
+        assertEquals(List.of("2", "3", "1"), ids(EmployeeStream.top(body(EMPLOYEES), 10, RankingField.AGE)));
+    }
+
+    @Test
+    void testSearchFoldsLikeTheNameIndex() throws IOException {
+        assertEquals(List.of("3"), ids(EmployeeStream.search(body(EMPLOYEES), "zoe", true, true)));
+        assertTrue(EmployeeStream.search(body(EMPLOYEES), "zoe", false, false).isEmpty());
+        assertEquals(List.of("1", "2", "5"), ids(EmployeeStream.search(body(EMPLOYEES), "a", false, false)));
+    }
+
+    @Test
+    void testReadsTheResearchEnvelope() throws IOException {
+        String envelope = "{\"meta\":{\"page\":1},\"status\":\"success\",\"data\":" + EMPLOYEES + ",\"message\":\"ok\"}";
+
+        assertEquals(600000, EmployeeStream.highestSalary(body(envelope)));
+        assertEquals(List.of("1", "3"), ids(EmployeeStream.top(body(envelope), 2, RankingField.SALARY)));
+    }
+
+    @Test
+    void testRejectsUnexpectedPayload() {
+        assertThrows(JsonParseException.class, () -> EmployeeStream.highestSalary(body("\"error\"")));
+        assertThrows(IOException.class, () -> EmployeeStream.highestSalary(body("[{\"employee_salary\":\"1\"}")));
+    }
+
+    @Test
+    void testLargeStreamIsAggregatedRowByRow() throws IOException {
+        int rows = 200_000;
+        InputStream body = new SequenceInputStream(new Enumeration<InputStream>() {
+            private int next = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next <= rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                int row = next++;
+                if (row < 0) {
+                    return body("[");
+                }
+                if (row == rows) {
+                    return body("]");
+                }
+                return body((row == 0 ? "" : ",") + "{\"id\":\"" + row + "\",\"employee_name\":\"Employee " + row
+                        + "\",\"employee_salary\":\"" + row + "\",\"employee_age\":\"30\"}");
+            }
+        });
+
+        List<Employee> top = EmployeeStream.top(body, 3, RankingField.SALARY);
+
+        assertEquals(List.of("199999", "199998", "199997"), ids(top));
+    }
+
+    @Test
+    void testIntegerOverflowIsInvalid() throws IOException {
+        String employees = "[{\"id\":\"1\",\"employee_salary\":\"2147483648\"},{\"id\":\"2\",\"employee_salary\":\"-2147483648\"}]";
+
+        assertEquals(Integer.MIN_VALUE, EmployeeStream.highestSalary(body(employees)));
+    }
+
+    @Test
+    void testBinaryFormatsAreReadByContentType() throws IOException {
+        Object employees = new ObjectMapper().readValue(EMPLOYEES, Object.class);
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(employees);
+        byte[] cbor = new ObjectMapper(new CBORFactory()).writeValueAsBytes(employees);
+        MediaType smileType = MediaType.parseMediaType("application/x-jackson-smile");
+
+        assertEquals(600000, EmployeeStream.highestSalary(new ByteArrayInputStream(smile), smileType));
+        assertEquals(List.of("1", "3", "5"), ids(EmployeeStream.top(new ByteArrayInputStream(cbor), MediaType.APPLICATION_CBOR, 3, RankingField.SALARY)));
+        assertEquals(List.of("3"), ids(EmployeeStream.search(new ByteArrayInputStream(smile), smileType, "zoe", true, true)));
+        assertThrows(IOException.class, () -> EmployeeStream.highestSalary(new ByteArrayInputStream(smile), MediaType.APPLICATION_JSON));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.rqchallenge.employees.stream;
+
+import com.example.rqchallenge.employees.dto.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeStreamWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Employee employee = Employee.builder()
+            .id("1")
+            .employee_name("Manoj")
+            .employee_salary("600000")
+            .employee_age("27")
+            .build();
+
+    @Test
+    void testArrayMatchesBufferedBody() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (EmployeeStreamWriter writer = new EmployeeStreamWriter(out, EmployeeStreamFormat.ARRAY, 256)) {
+            writer.write(employee);
+            writer.write(employee);
+        }
+
+        assertEquals(objectMapper.writeValueAsString(List.of(employee, employee)), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testEmptyArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new EmployeeStreamWriter(out, EmployeeStreamFormat.ARRAY, 256).close();
+
+        assertEquals("[]", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNdjsonWritesOneEmployeePerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (EmployeeStreamWriter writer = new EmployeeStreamWriter(out, EmployeeStreamFormat.NDJSON, 256)) {
+            writer.write(employee);
+            writer.write(employee);
+        }
+
+        String line = objectMapper.writeValueAsString(employee);
+        assertEquals(line + "\n" + line + "\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFlushesFirstEmployeeAndThenEveryN() throws IOException {
+        int[] flushes = new int[1];
+        OutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        EmployeeStreamWriter writer = new EmployeeStreamWriter(out, EmployeeStreamFormat.NDJSON, 3);
+        for (int i = 0; i < 7; i++) {
+            writer.write(employee);
+        }
+
+        // After employees 1, 3 and 6.
+        assertEquals(3, flushes[0]);
+    }
+
+    @Test
+    void testCopiesUpstreamEnvelopeWithoutBuildingEmployees() throws IOException {
+        String upstream = "{\"status\":\"success\",\"data\":["
+                + "{\"id\":\"1\",\"employee_name\":\"Manoj\",\"employee_salary\":600000,\"employee_age\":\"27\",\"extra\":[1]},"
+                + "{\"id\":\"2\",\"employee_name\":\"Jane\",\"employee_salary\":\"60000\"}]}";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long copied;
+        try (EmployeeStreamWriter writer = new EmployeeStreamWriter(out, EmployeeStreamFormat.ARRAY, 256)) {
+            copied = EmployeeStream.copy(new ByteArrayInputStream(upstream.getBytes(StandardCharsets.UTF_8)), writer);
+        }
+
+        assertEquals(2, copied);
+        List<Employee> employees = objectMapper.readValue(out.toByteArray(), new TypeReference<List<Employee>>() {});
+        assertEquals(employee, employees.get(0));
+        assertEquals("60000", employees.get(1).getEmployee_salary());
+        assertNull(employees.get(1).getEmployee_age());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangeResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeChangeLogTest {
+
+    private final EmployeeChangeLog log = new EmployeeChangeLog(4);
+
+    @Test
+    void testOldestChangesAreEvictedFromTheRing() {
+        for (long version = 1; version <= 6; version++) {
+            log.append(delete(version));
+        }
+
+        assertThrows(CursorExpiredException.class, () -> log.read("e", 1L, 10));
+        assertEquals(List.of(3L, 4L, 5L, 6L), versions(log.read("e", 2L, 10)));
+        assertEquals(List.of(), versions(log.read("e", 6L, 10)));
+    }
+
+    @Test
+    void testResetRestartsTheLogAtTheVersion() {
+        log.append(delete(1));
+        log.reset(10);
+
+        assertThrows(CursorExpiredException.class, () -> log.read("e", 1L, 10));
+        assertEquals(10, log.read("e", null, 10).getVersion());
+        log.append(delete(11));
+        assertEquals(List.of(11L), versions(log.read("e", 10L, 10)));
+    }
+
+    @Test
+    void testChangesArePublishedOnceEveryEarlierChangeIsAppended() {
+        log.append(delete(2));
+        log.append(delete(3));
+
+        assertEquals(0, log.read("e", null, 10).getVersion());
+        assertThrows(CursorExpiredException.class, () -> log.read("e", 2L, 10));
+
+        log.append(delete(1));
+
+        assertEquals(3, log.read("e", null, 10).getVersion());
+        assertEquals(List.of(1L, 2L, 3L), versions(log.read("e", 0L, 10)));
+    }
+
+    private static EmployeeChangeResponse delete(long version) {
+        return new EmployeeChangeResponse(version, EmployeeChange.Type.DELETE, "id-" + version, null);
+    }
+
+    private static List<Long> versions(EmployeeChangesResponse read) {
+        return read.getChanges().stream().map(EmployeeChangeResponse::getVersion).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeGeneratorTest {
+
+    @Test
+    void testSameSeedGeneratesSameEmployeesOnAnyNumberOfThreads() {
+        Map<String, EmployeeRecord> sequential = new ConcurrentHashMap<>();
+        Map<String, EmployeeRecord> parallel = new ConcurrentHashMap<>();
+
+        EmployeeGenerator.generate(sequential, 10_000, 7, 1);
+        EmployeeGenerator.generate(parallel, 10_000, 7, 4);
+
+        assertEquals(10_000, sequential.size());
+        assertEquals(sequential, parallel);
+        assertEquals(EmployeeGenerator.employee(7, 123), sequential.get(String.valueOf(EmployeeGenerator.FIRST_ID + 123)));
+    }
+
+    @Test
+    void testSeedsGenerateDifferentEmployees() {
+        assertNotEquals(EmployeeGenerator.employee(1, 0), EmployeeGenerator.employee(2, 0));
+        assertNotEquals(EmployeeGenerator.employee(1, 0), EmployeeGenerator.employee(1, 1));
+    }
+
+    @Test
+    void testEmployeesAreValidAndIdsSortNumerically() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            EmployeeRecord employee = EmployeeGenerator.employee(42, i);
+            assertTrue(employee.getEmployee_salary() > 0);
+            assertTrue(employee.getEmployee_age() >= 18 && employee.getEmployee_age() < 68);
+            assertNotNull(employee.getEmployee_name());
+            ids.add(employee.getId());
+        }
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(sorted, ids);
+    }
+}
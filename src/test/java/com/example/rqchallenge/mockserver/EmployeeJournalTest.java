@@ -0,0 +1,136 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmployeeJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testSeedDataBecomesTheFirstSnapshot() throws IOException {
+        ConcurrentMap<String, EmployeeRecord> seeded = new ConcurrentHashMap<>();
+        seeded.put("1", employee("1"));
+        open(seeded).close();
+
+        assertEquals(seeded, recover());
+        assertTrue(Files.exists(dir.resolve(EmployeeJournal.SNAPSHOT)));
+    }
+
+    @Test
+    void testChangesSurviveReopen() throws IOException {
+        ConcurrentMap<String, EmployeeRecord> employees = new ConcurrentHashMap<>();
+        try (EmployeeJournal journal = open(employees)) {
+            journal.awaitDurable(journal.putIfAbsent(employee("1")));
+            journal.awaitDurable(journal.putIfAbsent(employee("2")));
+            assertEquals(0, journal.putIfAbsent(employee("2")));
+            journal.awaitDurable(journal.remove("1"));
+            assertEquals(0, journal.remove("1"));
+            journal.awaitDurable(journal.putIfAbsent(EmployeeRecord.builder().id("ü").build()));
+        }
+
+        ConcurrentMap<String, EmployeeRecord> recovered = recover();
+        assertEquals(employees, recovered);
+        assertEquals(employee("2"), recovered.get("2"));
+        assertEquals(EmployeeRecord.NO_VALUE, recovered.get("ü").getEmployee_salary());
+        assertNull(recovered.get("ü").getEmployee_name());
+    }
+
+    @Test
+    void testCompactionReplacesTheLogWithASnapshot() throws IOException {
+        ConcurrentMap<String, EmployeeRecord> employees = new ConcurrentHashMap<>();
+        try (EmployeeJournal journal = open(employees)) {
+            for (int i = 0; i < 1000; i++) {
+                journal.awaitDurable(journal.putIfAbsent(employee(String.valueOf(i))));
+            }
+            journal.compact();
+            journal.awaitDurable(journal.remove("0"));
+            assertEquals(1, logSegments().size());
+        }
+
+        ConcurrentMap<String, EmployeeRecord> recovered = recover();
+        assertEquals(999, recovered.size());
+        assertEquals(employees, recovered);
+    }
+
+    @Test
+    void testTornTailIsTruncated() throws IOException {
+        ConcurrentMap<String, EmployeeRecord> employees = new ConcurrentHashMap<>();
+        try (EmployeeJournal journal = open(employees)) {
+            journal.awaitDurable(journal.putIfAbsent(employee("1")));
+            journal.awaitDurable(journal.putIfAbsent(employee("2")));
+        }
+        Path segment = logSegments().get(logSegments().size() - 1);
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertEquals(employees, recover());
+    }
+
+    @Test
+    void testConcurrentWritersShareGroupCommits() throws Exception {
+        ConcurrentMap<String, EmployeeRecord> employees = new ConcurrentHashMap<>();
+        int threads = 8;
+        int perThread = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (EmployeeJournal journal = open(employees)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        journal.awaitDurable(journal.putIfAbsent(employee(thread + "-" + i)));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(journal.getCommits() < threads * perThread, "commits: " + journal.getCommits());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, recover().size());
+    }
+
+    private EmployeeJournal open(ConcurrentMap<String, EmployeeRecord> employees) throws IOException {
+        EmployeeJournal journal = new EmployeeJournal(dir, employees, true, 0);
+        journal.open();
+        return journal;
+    }
+
+    private ConcurrentMap<String, EmployeeRecord> recover() throws IOException {
+        ConcurrentMap<String, EmployeeRecord> recovered = new ConcurrentHashMap<>();
+        open(recovered).close();
+        return recovered;
+    }
+
+    private List<Path> logSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static EmployeeRecord employee(String id) {
+        return EmployeeRecord.builder().id(id).employee_name("Employee " + id).employee_salary(1000).employee_age(30)
+                .profile_image("https://picsum.photos/id/1/200/300").build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.rqchallenge.mockserver;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FaultInjectionFilterTest {
+
+    private final FaultInjectionFilter filter = new FaultInjectionFilter();
+
+    private final byte[] body = new byte[2000];
+
+    private final HttpServlet upstream = new HttpServlet() {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            response.getOutputStream().write(body);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        Arrays.fill(body, (byte) 'x');
+        ReflectionTestUtils.setField(filter, "pathPattern", Pattern.compile("/api/v1/.*"));
+        ReflectionTestUtils.setField(filter, "errorStatus", 503);
+    }
+
+    @Test
+    void testErrorRateFailsRequestsBeforeTheController() throws Exception {
+        ReflectionTestUtils.setField(filter, "errorRate", 1.0);
+        MockFilterChain chain = new MockFilterChain(upstream);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("/api/v1/employees"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void testOtherPathsAreNotAffected() throws Exception {
+        ReflectionTestUtils.setField(filter, "errorRate", 1.0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("/employees"), response, new MockFilterChain(upstream));
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    @Test
+    void testLatencyDelaysTheRequest() throws Exception {
+        ReflectionTestUtils.setField(filter, "latencyMs", 100L);
+        long started = System.nanoTime();
+
+        filter.doFilter(get("/api/v1/employees"), new MockHttpServletResponse(), new MockFilterChain(upstream));
+
+        assertTrue(System.nanoTime() - started >= 100_000_000L);
+    }
+
+    @Test
+    void testSlowBodyIsThrottledButComplete() throws Exception {
+        ReflectionTestUtils.setField(filter, "slowBodyBytesPerSecond", 10_000L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        long started = System.nanoTime();
+
+        filter.doFilter(get("/api/v1/employees"), response, new MockFilterChain(upstream));
+
+        // 2000 bytes at 10 kB/s.
+        assertTrue(System.nanoTime() - started >= 190_000_000L);
+        assertArrayEquals(body, response.getContentAsByteArray());
+    }
+
+    private static MockHttpServletRequest get(String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangeResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MockController.class)
+public class MockControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    MockService mockService;
+
+    @Test
+    void testEmployeeListIsRevalidatedWithItsETag() throws Exception {
+        MockRepository.Snapshot snapshot = new MockRepository.Snapshot(7, List.of(EmployeeRecord.builder()
+                .id("1").employee_name("John").employee_salary(3000).employee_age(25).build()));
+        given(mockService.getAllEmployeesSnapshot()).willReturn(snapshot);
+
+        mockMvc.perform(get("/api/v1/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, snapshot.getETag()))
+                .andExpect(jsonPath("$[0].id", is("1")));
+        mockMvc.perform(get("/api/v1/employees").header(HttpHeaders.IF_NONE_MATCH, snapshot.getETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testChangesAreListedAfterAVersion() throws Exception {
+        EmployeeRecord employee = EmployeeRecord.builder().id("2").employee_name("Jane").employee_salary(4000).build();
+        given(mockService.getChanges(7L, 1000)).willReturn(new EmployeeChangesResponse("e1", 9, false, List.of(
+                new EmployeeChangeResponse(8, EmployeeChange.Type.CREATE, "2", employee),
+                new EmployeeChangeResponse(9, EmployeeChange.Type.DELETE, "1", null))));
+        given(mockService.getChanges(3L, 1000)).willThrow(new CursorExpiredException("Changes since version 3 are not retained"));
+
+        mockMvc.perform(get("/api/v1/changes").param("since", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version", is(9)))
+                .andExpect(jsonPath("$.hasMore", is(false)))
+                .andExpect(jsonPath("$.changes[0].type", is("CREATE")))
+                .andExpect(jsonPath("$.changes[0].employee.employee_name", is("Jane")))
+                .andExpect(jsonPath("$.changes[1].type", is("DELETE")))
+                .andExpect(jsonPath("$.changes[1].employee", nullValue()));
+        mockMvc.perform(get("/api/v1/changes").param("since", "3"))
+                .andExpect(status().isGone());
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.rqchallenge.mockserver;
+
+import com.example.rqchallenge.employees.dto.EmployeeRecord;
+import com.example.rqchallenge.employees.exception.BadRequestException;
+import com.example.rqchallenge.employees.exception.CursorExpiredException;
+import com.example.rqchallenge.employees.exception.DuplicateIdException;
+import com.example.rqchallenge.employees.exception.ResourceNotFoundException;
+import com.example.rqchallenge.employees.dto.EmployeeChange;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangeResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeeChangesResponse;
+import com.example.rqchallenge.mockserver.dto.EmployeePageResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MockRepositoryTest {
+
+    private final MockRepository mockRepository = new MockRepository();
+
+    private final List<String> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            create("page-" + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String id : created) {
+            if (mockRepository.getAllEmployees().stream().anyMatch(employee -> employee.getId().equals(id))) {
+                mockRepository.deleteEmployeeById(id);
+            }
+        }
+    }
+
+    @Test
+    void testPagesCoverTheListInOrder() {
+        List<String> all = ids(mockRepository.getAllEmployees());
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            EmployeePageResponse page = mockRepository.getEmployeesPage(2, cursor);
+            assertTrue(page.getData().size() <= 2);
+            paged.addAll(ids(page.getData()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(all, paged);
+    }
+
+    @Test
+    void testPagesStayOnTheirVersionUnderConcurrentChanges() {
+        EmployeePageResponse first = mockRepository.getEmployeesPage(3, null);
+        List<String> expected = ids(mockRepository.getEmployeesPage(1000, null).getData());
+
+        create("page-new");
+        mockRepository.deleteEmployeeById(expected.get(expected.size() - 1));
+        EmployeePageResponse second = mockRepository.getEmployeesPage(1000, first.getNextCursor());
+
+        assertEquals(first.getVersion(), second.getVersion());
+        List<String> paged = new ArrayList<>(ids(first.getData()));
+        paged.addAll(ids(second.getData()));
+        assertEquals(expected, paged);
+        assertNull(second.getNextCursor());
+        assertNotEquals(first.getVersion(), mockRepository.getEmployeesPage(1, null).getVersion());
+    }
+
+    @Test
+    void testCursorOfEvictedVersionExpires() {
+        String cursor = mockRepository.getEmployeesPage(1, null).getNextCursor();
+        for (int i = 0; i < MockRepository.RETAINED_SNAPSHOTS; i++) {
+            create("evict-" + i);
+            mockRepository.getAllEmployees();
+        }
+
+        assertThrows(CursorExpiredException.class, () -> mockRepository.getEmployeesPage(1, cursor));
+    }
+
+    @Test
+    void testRejectsInvalidRequests() {
+        assertThrows(BadRequestException.class, () -> mockRepository.getEmployeesPage(0, null));
+        assertThrows(BadRequestException.class, () -> mockRepository.getEmployeesPage(MockRepository.MAX_PAGE_SIZE + 1, null));
+        assertThrows(BadRequestException.class, () -> mockRepository.getEmployeesPage(1, "not a cursor"));
+        assertThrows(BadRequestException.class, () -> mockRepository.getEmployeesPage(1, MockRepository.encodeCursor(1, -1)));
+        for (String position : new String[]{"1", "1:2:3"}) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes());
+            assertThrows(BadRequestException.class, () -> mockRepository.getEmployeesPage(1, cursor));
+        }
+    }
+
+    @Test
+    void testListReadsShareTheSnapshotUntilAChange() {
+        List<EmployeeRecord> first = mockRepository.getAllEmployees();
+
+        assertSame(first, mockRepository.getAllEmployees());
+        create("page-changed");
+        assertNotSame(first, mockRepository.getAllEmployees());
+    }
+
+    @Test
+    void testETagChangesWithTheVersionOnly() {
+        MockRepository.Snapshot first = mockRepository.getAllEmployeesSnapshot();
+
+        assertEquals(first.getETag(), mockRepository.getAllEmployeesSnapshot().getETag());
+        create("etag-changed");
+        MockRepository.Snapshot second = mockRepository.getAllEmployeesSnapshot();
+        assertTrue(second.getVersion() > first.getVersion());
+        assertNotEquals(first.getETag(), second.getETag());
+        assertTrue(second.getETag().startsWith("W/\"") && second.getETag().endsWith("\""));
+    }
+
+    @Test
+    void testChangesListCreatesAndDeletesInOrder() {
+        EmployeeChangesResponse head = mockRepository.getChanges(null, 10);
+        assertTrue(head.getChanges().isEmpty());
+        assertEquals(mockRepository.getAllEmployeesSnapshot().getVersion(), head.getVersion());
+
+        create("change-1");
+        create("change-2");
+        mockRepository.deleteEmployeeById("change-1");
+        EmployeeChangesResponse read = mockRepository.getChanges(head.getVersion(), 10);
+
+        assertEquals(head.getEpoch(), read.getEpoch());
+        assertEquals(head.getVersion() + 3, read.getVersion());
+        assertFalse(read.isHasMore());
+        List<EmployeeChangeResponse> changes = read.getChanges();
+        assertEquals(List.of(EmployeeChange.Type.CREATE, EmployeeChange.Type.CREATE, EmployeeChange.Type.DELETE),
+                changes.stream().map(EmployeeChangeResponse::getType).collect(Collectors.toList()));
+        assertEquals(List.of("change-1", "change-2", "change-1"),
+                changes.stream().map(EmployeeChangeResponse::getId).collect(Collectors.toList()));
+        assertEquals(List.of(head.getVersion() + 1, head.getVersion() + 2, head.getVersion() + 3),
+                changes.stream().map(EmployeeChangeResponse::getVersion).collect(Collectors.toList()));
+        assertEquals("Employee change-2", changes.get(1).getEmployee().getEmployee_name());
+        assertNull(changes.get(2).getEmployee());
+        assertEquals(read.getVersion(), mockRepository.getAllEmployeesSnapshot().getVersion());
+    }
+
+    @Test
+    void testChangesArePagedByLimit() {
+        long since = mockRepository.getChanges(null, 1).getVersion();
+        create("limit-1");
+        create("limit-2");
+        create("limit-3");
+
+        EmployeeChangesResponse first = mockRepository.getChanges(since, 2);
+        EmployeeChangesResponse second = mockRepository.getChanges(first.getVersion(), 2);
+
+        assertEquals(2, first.getChanges().size());
+        assertTrue(first.isHasMore());
+        assertEquals(since + 2, first.getVersion());
+        assertEquals("limit-3", second.getChanges().get(0).getId());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void testChangesFromAnUnknownVersionExpire() {
+        long head = mockRepository.getChanges(null, 1).getVersion();
+
+        assertThrows(CursorExpiredException.class, () -> mockRepository.getChanges(head + 1, 10));
+        assertThrows(CursorExpiredException.class, () -> mockRepository.getChanges(-1L, 10));
+        assertThrows(BadRequestException.class, () -> mockRepository.getChanges(head, 0));
+        assertThrows(BadRequestException.class, () -> mockRepository.getChanges(head, MockRepository.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void testConcurrentCreatesAndDeletesApplyEachIdExactlyOnce() throws Exception {
+        int threads = 8;
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(String.format("stress-%03d", i));
+        }
+        created.addAll(ids);
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        MockRepository.Snapshot base = mockRepository.getAllEmployeesSnapshot();
+        try {
+            Future<Integer> reader = executor.submit(() -> {
+                int reads = 0;
+                while (writing.get()) {
+                    MockRepository.Snapshot read = mockRepository.getAllEmployeesSnapshot();
+                    List<String> snapshot = ids(read.getEmployees());
+                    assertEquals(new HashSet<>(snapshot).size(), snapshot.size(), "duplicate id in snapshot");
+                    assertEquals(snapshot.stream().sorted().collect(Collectors.toList()), snapshot);
+                    assertEquals(replayed(base, read.getVersion()), new HashSet<>(snapshot), "snapshot of version " + read.getVersion());
+                    reads++;
+                }
+                return reads;
+            });
+
+            AtomicInteger duplicates = new AtomicInteger();
+            Map<String, AtomicInteger> creates = race(executor, threads, ids, id -> {
+                EmployeeRecord employee = EmployeeRecord.builder().id(id).employee_name("Employee " + id).employee_salary(1000).build();
+                try {
+                    mockRepository.createEmployee(Map.of(id, employee));
+                    return true;
+                } catch (DuplicateIdException e) {
+                    duplicates.incrementAndGet();
+                    return false;
+                }
+            });
+            assertTrue(creates.values().stream().allMatch(count -> count.get() == 1), "every id created exactly once");
+            assertEquals(ids.size() * (threads - 1), duplicates.get());
+            assertTrue(ids(mockRepository.getAllEmployees()).containsAll(ids));
+            for (String id : ids) {
+                assertEquals(id, mockRepository.getEmployeeById(id).getId());
+            }
+
+            Map<String, AtomicInteger> deletes = race(executor, threads, ids, id -> {
+                try {
+                    mockRepository.deleteEmployeeById(id);
+                    return true;
+                } catch (ResourceNotFoundException e) {
+                    return false;
+                }
+            });
+            writing.set(false);
+
+            assertTrue(deletes.values().stream().allMatch(count -> count.get() == 1), "every id deleted exactly once");
+            assertTrue(ids(mockRepository.getAllEmployees()).stream().noneMatch(ids::contains));
+            assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The ids of {@code base} with the changes after its version up to {@code version} applied.
+     */
+    private Set<String> replayed(MockRepository.Snapshot base, long version) {
+        Set<String> replayed = new HashSet<>(ids(base.getEmployees()));
+        for (long since = base.getVersion(); since < version; ) {
+            EmployeeChangesResponse page = mockRepository.getChanges(since, (int) Math.min(version - since, MockRepository.MAX_PAGE_SIZE));
+            for (EmployeeChangeResponse change : page.getChanges()) {
+                if (change.getType() == EmployeeChange.Type.CREATE) {
+                    replayed.add(change.getId());
+                } else {
+                    replayed.remove(change.getId());
+                }
+            }
+            since = page.getVersion();
+        }
+        return replayed;
+    }
+
+    /**
+     * Has {@code threads} threads apply {@code operation} to every id, each in its own order, all released at once.
+     *
+     * @return The number of successful operations per id.
+     */
+    private static Map<String, AtomicInteger> race(ExecutorService executor, int threads, List<String> ids,
+                                                   Predicate<String> operation) throws Exception {
+        Map<String, AtomicInteger> successes = new ConcurrentHashMap<>();
+        ids.forEach(id -> successes.put(id, new AtomicInteger()));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<String> order = new ArrayList<>(ids);
+            Collections.shuffle(order, new Random(t));
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (String id : order) {
+                    if (operation.test(id)) {
+                        successes.get(id).incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        return successes;
+    }
+
+    private void create(String id) {
+        EmployeeRecord employee = EmployeeRecord.builder().id(id).employee_name("Employee " + id).employee_salary(1000).build();
+        mockRepository.createEmployee(Map.of(id, employee));
+        created.add(id);
+    }
+
+    private static List<String> ids(List<EmployeeRecord> employees) {
+        return employees.stream().map(EmployeeRecord::getId).collect(Collectors.toList());
+    }
+}